@@ -2,12 +2,19 @@ package com.bookCatalog.bookcatalog;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BookcatalogApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(BookcatalogApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(BookcatalogApplication.class, args);
+		// Execução de treino do perfil Maven "cds": encerra após a inicialização para gerar a lista de classes.
+		if (Boolean.getBoolean("catalog.cds.training")) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
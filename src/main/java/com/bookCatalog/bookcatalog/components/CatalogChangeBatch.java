@@ -0,0 +1,48 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.bookCatalog.bookcatalog.dto.CatalogEventDTO;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Aggregate;
+
+/**
+ * Evento de aplicação publicado pelo OutboxDispatcher com um lote de alterações já confirmadas, em ordem de offset.
+ * Como todos os nós leem a mesma tabela de outbox, os listeners também recebem as alterações feitas em outros nós.
+ */
+public class CatalogChangeBatch {
+
+	private final List<CatalogEventDTO> events;
+
+	public CatalogChangeBatch(List<CatalogEventDTO> events) {
+		this.events = Collections.unmodifiableList(events);
+	}
+
+	public List<CatalogEventDTO> getEvents() {
+		return events;
+	}
+
+	public boolean contains(Aggregate aggregateType) {
+		for (CatalogEventDTO event : events) {
+			if (event.getAggregateType() == aggregateType) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Retorna os IDs distintos alterados de um tipo de agregado, na ordem em que aparecem no lote.
+	 */
+	public Set<Long> aggregateIds(Aggregate aggregateType) {
+		Set<Long> ids = new LinkedHashSet<>();
+		for (CatalogEventDTO event : events) {
+			if (event.getAggregateType() == aggregateType) {
+				ids.add(event.getAggregateId());
+			}
+		}
+		return ids;
+	}
+}
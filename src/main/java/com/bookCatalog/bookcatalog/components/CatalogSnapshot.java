@@ -0,0 +1,294 @@
+/*
+ * Cópia somente leitura do catálogo (tb_product, tb_category e tb_product_category) em um arquivo mapeado em memória.
+ * Os registros ficam fora do heap; apenas os DTOs devolvidos são alocados. Cada tabela termina com um índice de IDs
+ * ordenados (long) e posições (int), consultado por busca binária direto no arquivo.
+ *
+ * Formato, em big-endian:
+ *   cabeçalho:  MAGIC (int), VERSION (int), instante da geração (long)
+ *   categoria:  id (long), nome (string)
+ *   produto:    id (long), preço (double, NaN se nulo), data (long em ms, Long.MIN_VALUE se nula), nome, descrição,
+ *               imgUrl (string), quantidade de categorias (int), IDs das categorias (long)
+ *   índice:     quantidade (int), IDs ordenados (long), posições dos registros (int)
+ *   rodapé:     posição do índice de categorias (long), posição do índice de produtos (long)
+ * Strings são gravadas como tamanho em bytes (int, -1 se nula) seguido do conteúdo em UTF-8.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.bookCatalog.bookcatalog.dto.CategoryDTO;
+import com.bookCatalog.bookcatalog.dto.ProductDTO;
+
+public final class CatalogSnapshot {
+
+	static final int MAGIC = 0x43415431; // "CAT1"
+	static final int VERSION = 1;
+
+	private final Path file;
+	private final MappedByteBuffer buffer;
+	private final Instant createdAt;
+	private final Index categories;
+	private final Index products;
+
+	private CatalogSnapshot(Path file, MappedByteBuffer buffer) {
+		this.file = file;
+		this.buffer = buffer;
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IllegalStateException("Unsupported catalog snapshot " + file);
+		}
+		this.createdAt = Instant.ofEpochMilli(buffer.getLong(8));
+		int footer = buffer.limit() - 16;
+		this.categories = new Index(buffer, (int) buffer.getLong(footer));
+		this.products = new Index(buffer, (int) buffer.getLong(footer + 8));
+	}
+
+	/**
+	 * Mapeia um arquivo gerado por {@link Writer}.
+	 *
+	 * @param file O arquivo do snapshot.
+	 * @return O snapshot pronto para consultas.
+	 * @throws IOException Se o arquivo não puder ser lido.
+	 */
+	public static CatalogSnapshot open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			// O mapeamento continua válido depois que o canal é fechado.
+			return new CatalogSnapshot(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public int productCount() {
+		return products.count;
+	}
+
+	/**
+	 * Retorna o produto com suas categorias, ou null se ele não existia quando o snapshot foi gerado.
+	 */
+	public ProductDTO findProduct(long id) {
+		return findProduct(id, true);
+	}
+
+	/**
+	 * Retorna o produto, ou null se ele não existia quando o snapshot foi gerado.
+	 *
+	 * @param withCategories false para o formato das listagens, que não trazem as categorias.
+	 */
+	public ProductDTO findProduct(long id, boolean withCategories) {
+		int position = products.find(id);
+		if (position < 0) {
+			return null;
+		}
+		Reader reader = new Reader(buffer, position);
+		long productId = reader.readLong();
+		double price = reader.readDouble();
+		long date = reader.readLong();
+		ProductDTO dto = new ProductDTO(productId, reader.readString(), reader.readString(),
+				Double.isNaN(price) ? null : price, reader.readString(),
+				date == Long.MIN_VALUE ? null : Instant.ofEpochMilli(date));
+		if (!withCategories) {
+			return dto;
+		}
+		int categoryCount = reader.readInt();
+		for (int i = 0; i < categoryCount; i++) {
+			CategoryDTO category = findCategory(reader.readLong());
+			if (category != null) {
+				dto.getCategories().add(category);
+			}
+		}
+		return dto;
+	}
+
+	public CategoryDTO findCategory(long id) {
+		int position = categories.find(id);
+		if (position < 0) {
+			return null;
+		}
+		Reader reader = new Reader(buffer, position);
+		return new CategoryDTO(reader.readLong(), reader.readString());
+	}
+
+	/**
+	 * Retorna os IDs de uma página de produtos em ordem de ID.
+	 */
+	public List<Long> productIds(boolean ascending, long offset, int size) {
+		int n = products.count;
+		int from = (int) Math.min(offset, n);
+		int to = Math.min(from + size, n);
+		List<Long> ids = new ArrayList<>(to - from);
+		for (int i = from; i < to; i++) {
+			ids.add(products.id(ascending ? i : n - 1 - i));
+		}
+		return ids;
+	}
+
+	private static final class Index {
+		private final ByteBuffer buffer;
+		private final int count;
+		private final int ids;
+		private final int positions;
+
+		private Index(ByteBuffer buffer, int start) {
+			this.buffer = buffer;
+			this.count = buffer.getInt(start);
+			this.ids = start + 4;
+			this.positions = ids + count * 8;
+		}
+
+		private long id(int i) {
+			return buffer.getLong(ids + i * 8);
+		}
+
+		private int find(long id) {
+			int low = 0;
+			int high = count - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				long value = id(mid);
+				if (value < id) {
+					low = mid + 1;
+				}
+				else if (value > id) {
+					high = mid - 1;
+				}
+				else {
+					return buffer.getInt(positions + mid * 4);
+				}
+			}
+			return -1;
+		}
+	}
+
+	// Leituras absolutas, sem alterar a posição do buffer compartilhado entre as threads.
+	private static final class Reader {
+		private final ByteBuffer buffer;
+		private int position;
+
+		private Reader(ByteBuffer buffer, int position) {
+			this.buffer = buffer;
+			this.position = position;
+		}
+
+		private int readInt() {
+			int value = buffer.getInt(position);
+			position += 4;
+			return value;
+		}
+
+		private long readLong() {
+			long value = buffer.getLong(position);
+			position += 8;
+			return value;
+		}
+
+		private double readDouble() {
+			double value = buffer.getDouble(position);
+			position += 8;
+			return value;
+		}
+
+		private String readString() {
+			int length = readInt();
+			if (length < 0) {
+				return null;
+			}
+			byte[] bytes = new byte[length];
+			for (int i = 0; i < length; i++) {
+				bytes[i] = buffer.get(position + i);
+			}
+			position += length;
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Grava um snapshot. As categorias devem ser gravadas antes dos produtos, e cada tabela em ordem crescente de ID.
+	 */
+	public static final class Writer {
+		private final DataOutputStream out;
+		private final List<long[]> categoryIndex = new ArrayList<>();
+		private final List<long[]> productIndex = new ArrayList<>();
+
+		public Writer(DataOutputStream out, Instant createdAt) throws IOException {
+			this.out = out;
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(createdAt.toEpochMilli());
+		}
+
+		public void writeCategory(long id, String name) throws IOException {
+			categoryIndex.add(new long[] { id, out.size() });
+			out.writeLong(id);
+			writeString(name);
+		}
+
+		public void writeProduct(long id, Double price, Instant date, String name, String description, String imgUrl,
+				long[] categoryIds) throws IOException {
+			productIndex.add(new long[] { id, out.size() });
+			out.writeLong(id);
+			out.writeDouble(price == null ? Double.NaN : price);
+			out.writeLong(date == null ? Long.MIN_VALUE : date.toEpochMilli());
+			writeString(name);
+			writeString(description);
+			writeString(imgUrl);
+			out.writeInt(categoryIds.length);
+			for (long categoryId : categoryIds) {
+				out.writeLong(categoryId);
+			}
+		}
+
+		/**
+		 * Grava os índices e o rodapé. O stream não é fechado.
+		 */
+		public void finish() throws IOException {
+			long categories = out.size();
+			writeIndex(categoryIndex);
+			long products = out.size();
+			writeIndex(productIndex);
+			out.writeLong(categories);
+			out.writeLong(products);
+			out.flush();
+			// DataOutputStream.size() satura em Integer.MAX_VALUE, limite do formato com posições int.
+			if (out.size() == Integer.MAX_VALUE) {
+				throw new IOException("Catalog snapshot exceeds 2 GB");
+			}
+		}
+
+		private void writeIndex(List<long[]> index) throws IOException {
+			out.writeInt(index.size());
+			for (long[] entry : index) {
+				out.writeLong(entry[0]);
+			}
+			for (long[] entry : index) {
+				out.writeInt((int) entry[1]);
+			}
+		}
+
+		private void writeString(String value) throws IOException {
+			if (value == null) {
+				out.writeInt(-1);
+				return;
+			}
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * Geração e troca do CatalogSnapshot usado para servir as leituras de produtos sem o banco de dados.
+ *
+ * Desligado por padrão (catalog.snapshot.enabled). Quando ligado, o snapshot é gerado na inicialização e regerado a
+ * cada catalog.snapshot.rebuild-ms se o OutboxDispatcher publicou alterações de produtos ou categorias desde a última
+ * geração. O novo arquivo é mapeado antes da troca, feita de forma atômica; as leituras em andamento terminam no
+ * snapshot anterior.
+ *
+ * Até a regeneração, o snapshot vigente não é usado para o que mudou depois dele: os produtos alterados (marcados
+ * pelo ProductService ao gravar e pelos lotes do OutboxDispatcher, que trazem também as alterações de outros nós)
+ * são lidos do banco, as listagens só usam o snapshot enquanto nenhum produto mudou, e uma alteração de categoria,
+ * cujos nomes estão copiados nos produtos, suspende o snapshot inteiro.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Aggregate;
+
+@Component
+public class CatalogSnapshotStore {
+
+	private static Logger logger = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+	private static final long[] NO_CATEGORIES = new long[0];
+
+	@Value("${catalog.snapshot.enabled:false}")
+	private boolean enabled;
+
+	@Value("${catalog.snapshot.directory:${java.io.tmpdir}/bookcatalog-snapshot}")
+	private String directory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final AtomicReference<Generation> current = new AtomicReference<>();
+
+	// Alterações recebidas durante uma regeneração, que o novo snapshot talvez não contenha; null fora dela.
+	private volatile Generation next;
+
+	private volatile boolean stale;
+
+	/**
+	 * Retorna o snapshot vigente para listagens: null quando o modo está desligado, quando o primeiro snapshot ainda
+	 * não foi gerado ou quando algum produto ou categoria mudou desde a geração.
+	 */
+	public CatalogSnapshot current() {
+		Generation generation = enabled ? current.get() : null;
+		return generation == null || generation.categoriesChanged || !generation.changedProducts.isEmpty() ? null
+				: generation.snapshot;
+	}
+
+	/**
+	 * Retorna o snapshot vigente para a leitura de um produto, ou null quando ele não pode ser usado para esse
+	 * produto: modo desligado, snapshot ainda não gerado, produto ou categorias alterados desde a geração.
+	 */
+	public CatalogSnapshot current(long productId) {
+		Generation generation = enabled ? current.get() : null;
+		return generation == null || generation.categoriesChanged || generation.changedProducts.contains(productId)
+				? null : generation.snapshot;
+	}
+
+	/**
+	 * Marca produtos alterados, para que deixem de ser lidos do snapshot vigente até a próxima geração.
+	 */
+	public void markChanged(Collection<Long> productIds) {
+		if (productIds.isEmpty()) {
+			return;
+		}
+		stale = true;
+		for (Generation generation : new Generation[] { current.get(), next }) {
+			if (generation != null) {
+				generation.changedProducts.addAll(productIds);
+			}
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		if (enabled) {
+			rebuild();
+		}
+	}
+
+	@EventListener
+	public void onCatalogChange(CatalogChangeBatch batch) {
+		markChanged(batch.aggregateIds(Aggregate.PRODUCT));
+		if (batch.contains(Aggregate.CATEGORY)) {
+			stale = true;
+			for (Generation generation : new Generation[] { current.get(), next }) {
+				if (generation != null) {
+					generation.categoriesChanged = true;
+				}
+			}
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${catalog.snapshot.rebuild-ms:60000}")
+	public void refresh() {
+		if (enabled && stale) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Exporta o catálogo para um novo arquivo, mapeia-o e o torna o snapshot vigente.
+	 *
+	 * @return O novo snapshot.
+	 */
+	public synchronized CatalogSnapshot rebuild() {
+		// Alterações publicadas durante a exportação marcam o snapshot como defasado novamente.
+		stale = false;
+		Generation generation = new Generation();
+		next = generation;
+		Instant now = Instant.now();
+		try {
+			Path dir = Paths.get(directory);
+			Files.createDirectories(dir);
+			Path file = dir.resolve("catalog-" + now.toEpochMilli() + ".snapshot");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+				export(new CatalogSnapshot.Writer(out, now));
+			}
+			generation.snapshot = CatalogSnapshot.open(file);
+			Generation previous = current.getAndSet(generation);
+			logger.info("Catalog snapshot " + file + " loaded: " + generation.snapshot.productCount() + " products");
+			if (previous != null) {
+				// O mapeamento anterior continua válido para as leituras em andamento até ser coletado.
+				Files.deleteIfExists(previous.snapshot.getFile());
+			}
+			return generation.snapshot;
+		}
+		catch (IOException e) {
+			stale = true;
+			throw new UncheckedIOException(e);
+		}
+		finally {
+			next = null;
+		}
+	}
+
+	private void export(CatalogSnapshot.Writer writer) throws IOException {
+		Map<Long, List<Long>> links = new HashMap<>();
+		jdbcTemplate.query("SELECT product_id, category_id FROM tb_product_category", rs -> {
+			links.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>(2)).add(rs.getLong(2));
+		});
+
+		List<IOException> errors = new ArrayList<>(1);
+		jdbcTemplate.query("SELECT id, name FROM tb_category ORDER BY id", rs -> {
+			try {
+				writer.writeCategory(rs.getLong(1), rs.getString(2));
+			}
+			catch (IOException e) {
+				errors.add(e);
+			}
+		});
+		jdbcTemplate.query("SELECT id, price, date, name, description, img_url FROM tb_product ORDER BY id", rs -> {
+			long id = rs.getLong(1);
+			double price = rs.getDouble(2);
+			Double nullablePrice = rs.wasNull() ? null : price;
+			Timestamp date = rs.getTimestamp(3);
+			List<Long> categoryIds = links.get(id);
+			try {
+				writer.writeProduct(id, nullablePrice, date == null ? null : date.toInstant(), rs.getString(4),
+						rs.getString(5), rs.getString(6), categoryIds == null ? NO_CATEGORIES : toArray(categoryIds));
+			}
+			catch (IOException e) {
+				errors.add(e);
+			}
+		});
+		if (!errors.isEmpty()) {
+			throw errors.get(0);
+		}
+		writer.finish();
+	}
+
+	// Um snapshot e o que mudou no catálogo desde o início da sua exportação.
+	private static final class Generation {
+		private CatalogSnapshot snapshot;
+		private final Set<Long> changedProducts = ConcurrentHashMap.newKeySet();
+		private volatile boolean categoriesChanged;
+	}
+
+	private static long[] toArray(List<Long> ids) {
+		long[] array = new long[ids.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = ids.get(i);
+		}
+		return array;
+	}
+}
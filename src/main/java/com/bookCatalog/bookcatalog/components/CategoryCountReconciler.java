@@ -0,0 +1,41 @@
+/*
+ * Reconciliação periódica do contador desnormalizado de produtos por categoria (tb_category.product_count).
+ * O ProductService mantém o contador de forma incremental; esta tarefa corrige eventuais divergências, como as
+ * causadas por cargas feitas diretamente no banco (data.sql) ou por alterações fora da aplicação.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bookCatalog.bookcatalog.repositories.CategoryRepository;
+
+@Component
+public class CategoryCountReconciler {
+
+	private static Logger logger = LoggerFactory.getLogger(CategoryCountReconciler.class);
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${catalog.category-count.reconcile-ms:300000}", initialDelayString = "${catalog.category-count.reconcile-ms:300000}")
+	@Transactional
+	public void reconcile() {
+		// Conta antes de corrigir: o UPDATE nativo invalida a região de categorias no cache mesmo sem alterar linhas.
+		if (categoryRepository.countDivergentProductCounts() == 0) {
+			return;
+		}
+		int fixed = categoryRepository.reconcileProductCounts();
+		if (fixed > 0) {
+			logger.info("Category product counts reconciled: " + fixed + " categories fixed");
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Ajuste incremental do contador desnormalizado de produtos por categoria (tb_category.product_count).
+ *
+ * O UPDATE é enviado por JDBC, na transação corrente, e não como atualização em lote do Hibernate: um UPDATE em JPQL
+ * sobre Category invalidaria a região inteira do cache de segundo nível a cada produto gravado ou excluído. Aqui só
+ * as categorias ajustadas são descartadas do cache, na hora (para que a própria transação releia o contador do
+ * banco) e de novo após o commit (para que uma leitura concorrente não deixe no cache o valor anterior).
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class CategoryCounters {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private SecondLevelCache secondLevelCache;
+
+	/**
+	 * Soma um valor ao contador de produtos das categorias informadas.
+	 *
+	 * @param categoryIds Os IDs das categorias.
+	 * @param delta       O valor a somar (negativo para subtrair).
+	 */
+	public void adjust(Collection<Long> categoryIds, int delta) {
+		if (categoryIds.isEmpty() || delta == 0) {
+			return;
+		}
+		List<Long> ids = List.copyOf(categoryIds);
+		new NamedParameterJdbcTemplate(jdbcTemplate).update(
+				"UPDATE tb_category SET product_count = product_count + :delta WHERE id IN (:ids)",
+				Map.of("delta", delta, "ids", ids));
+		evict(ids);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					evict(ids);
+				}
+			});
+		}
+	}
+
+	private void evict(List<Long> ids) {
+		for (Long id : ids) {
+			secondLevelCache.evictCategory(id);
+		}
+	}
+}
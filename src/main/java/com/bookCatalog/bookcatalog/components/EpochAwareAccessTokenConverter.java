@@ -0,0 +1,60 @@
+/*
+ * Conversor JWT que, além da verificação de assinatura, rejeita tokens cujo conjunto de claims tenha versão
+ * desconhecida ou cuja época de permissões esteja desatualizada. A decisão usa apenas as claims e a tabela
+ * PermissionEpochs em memória, portanto nenhuma consulta ao banco é feita por requisição.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.Map;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+public class EpochAwareAccessTokenConverter extends JwtAccessTokenConverter {
+
+	private final PermissionEpochs permissionEpochs;
+
+	public EpochAwareAccessTokenConverter(PermissionEpochs permissionEpochs) {
+		this.permissionEpochs = permissionEpochs;
+	}
+
+	@Override
+	public OAuth2Authentication extractAuthentication(Map<String, ?> map) {
+		Object userId = map.get(JwtTokenEnhancer.USER_ID);
+
+		// Tokens apenas de cliente não possuem usuário, portanto não há época a verificar.
+		if (userId != null) {
+			Object version = map.get(JwtTokenEnhancer.CLAIMS_VERSION);
+			if (!(version instanceof Number) || ((Number) version).intValue() != JwtTokenEnhancer.CURRENT_CLAIMS_VERSION) {
+				throw new InvalidTokenException("Unsupported token claims version");
+			}
+			Object epoch = map.get(JwtTokenEnhancer.PERMISSIONS_EPOCH);
+			long tokenEpoch = epoch instanceof Number ? ((Number) epoch).longValue() : 0L;
+			if (!permissionEpochs.isCurrent(((Number) userId).longValue(), tokenEpoch)) {
+				throw new InvalidTokenException("Token permissions are outdated");
+			}
+		}
+		OAuth2Authentication authentication = super.extractAuthentication(map);
+
+		// Mantém as claims junto à autenticação do usuário para que uma renovação de token não precise recarregá-lo.
+		Authentication userAuthentication = authentication.getUserAuthentication();
+		if (userAuthentication instanceof AbstractAuthenticationToken) {
+			((AbstractAuthenticationToken) userAuthentication).setDetails(map);
+		}
+		return authentication;
+	}
+
+	/**
+	 * Verifica a assinatura e retorna as claims de um token sem convertê-lo em autenticação.
+	 *
+	 * @param token O valor codificado do token.
+	 * @return As claims do token.
+	 */
+	public Map<String, Object> readClaims(String token) {
+		return decode(token);
+	}
+}
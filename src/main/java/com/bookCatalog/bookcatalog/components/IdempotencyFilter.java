@@ -0,0 +1,243 @@
+/*
+ * Suporte ao cabeçalho Idempotency-Key nas criações (POST /products e POST /users, configuráveis em
+ * catalog.idempotency.paths).
+ *
+ * A primeira requisição com uma chave é executada normalmente e sua resposta fica guardada no IdempotencyStore. As
+ * repetições com a mesma chave e o mesmo corpo recebem a resposta guardada, com o cabeçalho Idempotent-Replayed, sem
+ * passar de novo pela validação, pelo hash da senha e pelo INSERT; as que chegam durante a primeira execução aguardam
+ * até catalog.idempotency.wait-ms. O filtro roda antes do DispatcherServlet, então a repetição de uma criação já
+ * confirmada não é recusada pela validação de e-mail duplicado.
+ *
+ * As chaves são separadas por usuário autenticado e por endpoint. Uma chave reutilizada com outro corpo resulta em
+ * 422. Respostas 5xx não são guardadas, para que o cliente possa repetir a requisição.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.bookCatalog.bookcatalog.components.IdempotencyStore.Claim;
+import com.bookCatalog.bookcatalog.components.IdempotencyStore.StoredResponse;
+import com.bookCatalog.bookcatalog.resources.exceptions.StandardError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+	public static final String HEADER = "Idempotency-Key";
+	public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+	private static final int MAX_KEY_LENGTH = 255;
+
+	private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+	@Value("${catalog.idempotency.paths:/products,/users}")
+	private List<String> paths;
+
+	@Value("${catalog.idempotency.wait-ms:30000}")
+	private long waitMs;
+
+	@Autowired
+	private IdempotencyStore store;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(HEADER) == null
+				|| !paths.contains(PATH_HELPER.getPathWithinApplication(request));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String key = request.getHeader(HEADER).trim();
+		if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+			writeError(request, response, HttpStatus.BAD_REQUEST,
+					HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters");
+			return;
+		}
+		CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+		String scope = principal() + " " + PATH_HELPER.getPathWithinApplication(request) + " " + key;
+		String fingerprint = fingerprint(cachedRequest.body);
+
+		Claim claim = store.claim(scope, fingerprint);
+		if (!claim.isFirst()) {
+			replay(request, response, claim, fingerprint);
+			return;
+		}
+
+		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+		StoredResponse stored = null;
+		try {
+			chain.doFilter(cachedRequest, wrapper);
+			stored = new StoredResponse(wrapper.getStatus(), wrapper.getContentType(),
+					wrapper.getHeader(HttpHeaders.LOCATION), wrapper.getContentAsByteArray());
+		}
+		finally {
+			if (stored != null && stored.getStatus() < 500) {
+				store.complete(claim.getEntry(), stored);
+			}
+			else {
+				store.release(scope, claim.getEntry(), stored);
+			}
+			wrapper.copyBodyToResponse();
+		}
+	}
+
+	private void replay(HttpServletRequest request, HttpServletResponse response, Claim claim, String fingerprint)
+			throws IOException {
+		if (!claim.getEntry().getFingerprint().equals(fingerprint)) {
+			writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+					HEADER + " was already used with a different request body");
+			return;
+		}
+		StoredResponse stored;
+		try {
+			stored = claim.getEntry().await(waitMs);
+		}
+		catch (TimeoutException e) {
+			writeError(request, response, HttpStatus.CONFLICT,
+					"A request with the same " + HEADER + " is still in progress");
+			return;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			writeError(request, response, HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for the original request");
+			return;
+		}
+		if (stored == null) {
+			writeError(request, response, HttpStatus.CONFLICT,
+					"The request with the same " + HEADER + " failed and may be retried");
+			return;
+		}
+		response.setStatus(stored.getStatus());
+		if (stored.getContentType() != null) {
+			response.setContentType(stored.getContentType());
+		}
+		if (stored.getLocation() != null) {
+			response.setHeader(HttpHeaders.LOCATION, stored.getLocation());
+		}
+		response.setHeader(REPLAYED_HEADER, "true");
+		response.setContentLength(stored.getBody().length);
+		response.getOutputStream().write(stored.getBody());
+	}
+
+	private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+			String message) throws IOException {
+		StandardError err = new StandardError();
+		err.setTimestamp(Instant.now());
+		err.setStatus(status.value());
+		err.setError("Requisição inválida");
+		err.setMessage(message);
+		err.setPath(request.getRequestURI());
+		response.setStatus(status.value());
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), err);
+	}
+
+	private static String principal() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication == null ? "" : authentication.getName();
+	}
+
+	private static String fingerprint(byte[] body) {
+		try {
+			return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(body));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	// Lê o corpo uma vez, para calcular a impressão digital, e o entrega de novo ao conversor JSON.
+	private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+		private final byte[] body;
+
+		private CachedBodyRequest(HttpServletRequest request) throws IOException {
+			super(request);
+			this.body = StreamUtils.copyToByteArray(request.getInputStream());
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream in = new ByteArrayInputStream(body);
+			return new ServletInputStream() {
+				@Override
+				public int read() {
+					return in.read();
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) {
+					return in.read(b, off, len);
+				}
+
+				@Override
+				public boolean isFinished() {
+					return in.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				// O corpo já está todo em memória: os dados estão disponíveis e a leitura termina imediatamente.
+				@Override
+				public void setReadListener(ReadListener listener) {
+					try {
+						if (!isFinished()) {
+							listener.onDataAvailable();
+						}
+						listener.onAllDataRead();
+					}
+					catch (IOException e) {
+						listener.onError(e);
+					}
+				}
+			};
+		}
+
+		@Override
+		public BufferedReader getReader() {
+			String encoding = getCharacterEncoding();
+			Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+			return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+		}
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Respostas das requisições com Idempotency-Key, usadas pelo IdempotencyFilter para repetir a resposta de uma
+ * criação em vez de executá-la de novo.
+ *
+ * Cada chave guarda a impressão digital do corpo da requisição e um CompletableFuture com a resposta, de modo que
+ * uma repetição que chega enquanto a primeira ainda está em andamento aguarda o mesmo resultado. O armazenamento é
+ * limitado a catalog.idempotency.max-entries chaves; como todas têm o mesmo prazo (catalog.idempotency.ttl-ms), a
+ * ordem de inserção é também a ordem de expiração, e a mais antiga já concluída é descartada quando o limite é
+ * atingido. Chaves ainda em andamento nunca são descartadas, nem pelo limite nem pela expiração: isso permitiria que
+ * uma repetição executasse a criação uma segunda vez.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IdempotencyStore {
+
+	@Value("${catalog.idempotency.max-entries:10000}")
+	private int maxEntries;
+
+	@Value("${catalog.idempotency.ttl-ms:86400000}")
+	private long ttlMs;
+
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>() {
+		private static final long serialVersionUID = 1L;
+
+		// Remove diretamente a entrada concluída mais antiga e retorna false, como permite o LinkedHashMap.
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			if (size() > maxEntries) {
+				Iterator<Entry> it = values().iterator();
+				while (it.hasNext()) {
+					if (it.next().isCompleted()) {
+						it.remove();
+						break;
+					}
+				}
+			}
+			return false;
+		}
+	};
+
+	/**
+	 * Registra a chave, se ainda não existir.
+	 *
+	 * @param key         A chave, já qualificada pelo usuário e pelo endpoint.
+	 * @param fingerprint A impressão digital do corpo da requisição.
+	 * @return A entrada da chave; {@link Claim#isFirst()} indica se esta requisição deve ser executada.
+	 */
+	public synchronized Claim claim(String key, String fingerprint) {
+		long now = System.currentTimeMillis();
+		Entry existing = entries.get(key);
+		if (existing != null && existing.expiresAt > now) {
+			return new Claim(existing, false);
+		}
+		Entry entry = new Entry(fingerprint, now + ttlMs);
+		entries.remove(key);
+		entries.put(key, entry);
+		return new Claim(entry, true);
+	}
+
+	/**
+	 * Guarda a resposta da execução e a entrega às repetições que aguardam.
+	 */
+	public void complete(Entry entry, StoredResponse response) {
+		entry.response.complete(response);
+	}
+
+	/**
+	 * Descarta a chave após uma falha, para que a próxima repetição execute a requisição de novo. As repetições que
+	 * já aguardavam recebem a resposta da falha, ou null se não houve resposta.
+	 */
+	public void release(String key, Entry entry, StoredResponse response) {
+		synchronized (this) {
+			entries.remove(key, entry);
+		}
+		entry.response.complete(response);
+	}
+
+	@Scheduled(fixedDelayString = "${catalog.idempotency.purge-ms:60000}")
+	public synchronized void purge() {
+		long now = System.currentTimeMillis();
+		Iterator<Entry> it = entries.values().iterator();
+		while (it.hasNext()) {
+			Entry entry = it.next();
+			if (entry.expiresAt > now) {
+				break;
+			}
+			if (entry.isCompleted()) {
+				it.remove();
+			}
+		}
+	}
+
+	public static final class Claim {
+		private final Entry entry;
+		private final boolean first;
+
+		private Claim(Entry entry, boolean first) {
+			this.entry = entry;
+			this.first = first;
+		}
+
+		public Entry getEntry() {
+			return entry;
+		}
+
+		public boolean isFirst() {
+			return first;
+		}
+	}
+
+	public static final class Entry {
+		private final String fingerprint;
+		private final long expiresAt;
+		private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+		private Entry(String fingerprint, long expiresAt) {
+			this.fingerprint = fingerprint;
+			this.expiresAt = expiresAt;
+		}
+
+		public String getFingerprint() {
+			return fingerprint;
+		}
+
+		private boolean isCompleted() {
+			return response.isDone();
+		}
+
+		/**
+		 * Aguarda a resposta da primeira execução.
+		 *
+		 * @throws TimeoutException Se a primeira execução não terminar no prazo.
+		 */
+		public StoredResponse await(long timeoutMs) throws TimeoutException, InterruptedException {
+			try {
+				return response.get(timeoutMs, TimeUnit.MILLISECONDS);
+			}
+			catch (ExecutionException e) {
+				return null;
+			}
+		}
+	}
+
+	public static final class StoredResponse {
+		private final int status;
+		private final String contentType;
+		private final String location;
+		private final byte[] body;
+
+		public StoredResponse(int status, String contentType, String location, byte[] body) {
+			this.status = status;
+			this.contentType = contentType;
+			this.location = location;
+			this.body = body;
+		}
+
+		public int getStatus() {
+			return status;
+		}
+
+		public String getContentType() {
+			return contentType;
+		}
+
+		public String getLocation() {
+			return location;
+		}
+
+		public byte[] getBody() {
+			return body;
+		}
+	}
+}
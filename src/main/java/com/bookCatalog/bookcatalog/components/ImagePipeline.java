@@ -0,0 +1,365 @@
+/*
+ * Geração assíncrona de miniaturas das imagens dos produtos (Product.imgUrl).
+ *
+ * Desligada por padrão (catalog.images.enabled). Quando ligada, as URLs de imagem distintas são lidas na
+ * inicialização, a cada catalog.images.scan-ms e a cada lote de alterações de produtos da outbox. Cada imagem ainda
+ * não processada é buscada de catalog.images.source-directory (pelo nome do arquivo da URL) ou, sem diretório
+ * configurado, da própria URL por HTTP, e reduzida para cada largura de catalog.images.widths em um pool de
+ * catalog.images.workers threads com fila limitada; o que não couber na fila fica para a próxima varredura.
+ *
+ * Como as URLs vêm dos produtos, a busca por HTTP só acessa os hosts de catalog.images.allowed-hosts e não segue
+ * redirecionamentos, para que uma URL cadastrada não leve o servidor a endereços internos. Antes da decodificação, as
+ * dimensões declaradas no cabeçalho são comparadas com catalog.images.max-source-pixels, pois um arquivo pequeno pode
+ * declarar uma imagem enorme.
+ *
+ * As variantes são gravadas em catalog.images.directory com o SHA-256 do conteúdo como nome, de modo que a mesma
+ * imagem referenciada por vários produtos, ou reprocessada após um reinício, ocupa um único arquivo e pode ser
+ * servida com cache de longa duração. O mapeamento URL → variantes fica em memória.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bookCatalog.bookcatalog.dto.ProductDTO;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Aggregate;
+
+@Component
+public class ImagePipeline {
+
+	private static Logger logger = LoggerFactory.getLogger(ImagePipeline.class);
+
+	public static final String EXTENSION = ".jpg";
+
+	private static final Pattern NAME = Pattern.compile("[0-9a-f]{64}");
+
+	@Value("${catalog.images.enabled:false}")
+	private boolean enabled;
+
+	@Value("${catalog.images.directory:${java.io.tmpdir}/bookcatalog-images}")
+	private String directory;
+
+	@Value("${catalog.images.source-directory:}")
+	private String sourceDirectory;
+
+	@Value("${catalog.images.widths:160,480}")
+	private int[] widths;
+
+	@Value("${catalog.images.workers:2}")
+	private int workers;
+
+	@Value("${catalog.images.queue-capacity:1000}")
+	private int queueCapacity;
+
+	@Value("${catalog.images.fetch-timeout-ms:10000}")
+	private long fetchTimeoutMs;
+
+	@Value("${catalog.images.max-source-bytes:20971520}")
+	private int maxSourceBytes;
+
+	@Value("${catalog.images.max-source-pixels:40000000}")
+	private long maxSourcePixels;
+
+	@Value("${catalog.images.allowed-hosts:raw.githubusercontent.com}")
+	private String[] allowedHosts;
+
+	@Value("${catalog.images.base-url:/catalog/images/}")
+	private String baseUrl;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// URL da imagem original → largura → URL da variante.
+	private final ConcurrentMap<String, Map<Integer, String>> variants = new ConcurrentHashMap<>();
+
+	// URLs na fila ou em processamento, para não enfileirar a mesma imagem duas vezes.
+	private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+	private ThreadPoolExecutor executor;
+
+	private HttpClient httpClient;
+
+	@PostConstruct
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+		AtomicInteger threads = new AtomicInteger();
+		executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "image-pipeline-" + threads.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+		httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(fetchTimeoutMs))
+				.followRedirects(HttpClient.Redirect.NEVER).build();
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${catalog.images.scan-ms:300000}", initialDelayString = "${catalog.images.scan-ms:300000}")
+	public void scan() {
+		if (enabled) {
+			submitAll(jdbcTemplate.queryForList("SELECT DISTINCT img_url FROM tb_product WHERE img_url IS NOT NULL",
+					String.class));
+		}
+	}
+
+	@EventListener
+	public void onCatalogChange(CatalogChangeBatch batch) {
+		Set<Long> products = batch.aggregateIds(Aggregate.PRODUCT);
+		if (enabled && !products.isEmpty()) {
+			submitAll(new NamedParameterJdbcTemplate(jdbcTemplate).queryForList(
+					"SELECT DISTINCT img_url FROM tb_product WHERE id IN (:ids) AND img_url IS NOT NULL",
+					Collections.singletonMap("ids", products), String.class));
+		}
+	}
+
+	/**
+	 * Preenche as URLs das variantes já geradas para a imagem do produto. Sem variantes, o DTO não é alterado.
+	 */
+	public ProductDTO decorate(ProductDTO dto) {
+		if (enabled && dto.getImgUrl() != null) {
+			dto.setImgVariants(variants.get(dto.getImgUrl()));
+		}
+		return dto;
+	}
+
+	/**
+	 * Resolve o arquivo de uma variante pelo nome publicado, ou retorna null se o nome não for de uma variante.
+	 */
+	public Path resolve(String name) {
+		if (!enabled || !name.endsWith(EXTENSION)) {
+			return null;
+		}
+		String hash = name.substring(0, name.length() - EXTENSION.length());
+		return NAME.matcher(hash).matches() ? pathOf(hash) : null;
+	}
+
+	private void submitAll(Collection<String> urls) {
+		for (String url : urls) {
+			if (variants.containsKey(url) || !pending.add(url)) {
+				continue;
+			}
+			try {
+				executor.execute(() -> {
+					try {
+						process(url);
+					}
+					catch (Exception e) {
+						logger.warn("Image processing failed for " + url + ": " + e.getMessage());
+					}
+					finally {
+						pending.remove(url);
+					}
+				});
+			}
+			catch (RejectedExecutionException e) {
+				// Fila cheia: a imagem é enfileirada de novo na próxima varredura.
+				pending.remove(url);
+				return;
+			}
+		}
+	}
+
+	private void process(String url) throws IOException, InterruptedException {
+		BufferedImage source = decode(fetch(url));
+		Map<Integer, String> result = new TreeMap<>();
+		for (int width : widths) {
+			String hash = store(encode(scale(source, width)));
+			result.put(width, baseUrl + hash + EXTENSION);
+		}
+		variants.put(url, Collections.unmodifiableMap(result));
+	}
+
+	byte[] fetch(String url) throws IOException, InterruptedException {
+		if (!sourceDirectory.isEmpty()) {
+			String fileName = Paths.get(URI.create(url).getPath()).getFileName().toString();
+			Path file = Paths.get(sourceDirectory).resolve(fileName);
+			if (Files.size(file) > maxSourceBytes) {
+				throw new IOException("Source image larger than " + maxSourceBytes + " bytes");
+			}
+			return Files.readAllBytes(file);
+		}
+		URI uri = URI.create(url);
+		if (!isAllowed(uri)) {
+			throw new IOException("Host not allowed: " + uri.getHost());
+		}
+		HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofMillis(fetchTimeoutMs)).GET()
+				.build();
+		HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+		try (InputStream in = response.body()) {
+			if (response.statusCode() != 200) {
+				throw new IOException("HTTP " + response.statusCode());
+			}
+			byte[] bytes = in.readNBytes(maxSourceBytes + 1);
+			if (bytes.length > maxSourceBytes) {
+				throw new IOException("Source image larger than " + maxSourceBytes + " bytes");
+			}
+			return bytes;
+		}
+	}
+
+	private boolean isAllowed(URI uri) {
+		String scheme = uri.getScheme();
+		if (uri.getHost() == null || !("https".equalsIgnoreCase(scheme) || "http".equalsIgnoreCase(scheme))) {
+			return false;
+		}
+		String host = uri.getHost().toLowerCase(Locale.ROOT);
+		for (String allowed : allowedHosts) {
+			if (host.equals(allowed.trim().toLowerCase(Locale.ROOT))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Decodifica a imagem, recusando-a se as dimensões declaradas no cabeçalho passarem de
+	 * catalog.images.max-source-pixels. As dimensões são lidas sem decodificar os pixels.
+	 */
+	BufferedImage decode(byte[] bytes) throws IOException {
+		try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+			Iterator<ImageReader> readers = in == null ? Collections.emptyIterator() : ImageIO.getImageReaders(in);
+			if (!readers.hasNext()) {
+				throw new IOException("Unsupported image format");
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(in, true, true);
+				long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+				if (pixels > maxSourcePixels) {
+					throw new IOException("Source image larger than " + maxSourcePixels + " pixels");
+				}
+				return reader.read(0);
+			}
+			finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	// Reduz mantendo a proporção; imagens menores que a largura não são ampliadas.
+	private static BufferedImage scale(BufferedImage source, int width) {
+		int targetWidth = Math.min(width, source.getWidth());
+		int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+		BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = target.createGraphics();
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+		}
+		finally {
+			graphics.dispose();
+		}
+		return target;
+	}
+
+	private static byte[] encode(BufferedImage image) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		if (!ImageIO.write(image, "jpg", out)) {
+			throw new IOException("No JPEG writer available");
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Grava a variante pelo SHA-256 do conteúdo, se ainda não existir, e retorna o hash.
+	 */
+	private String store(byte[] content) throws IOException {
+		String hash = sha256(content);
+		Path path = pathOf(hash);
+		if (Files.exists(path)) {
+			return hash;
+		}
+		Files.createDirectories(path.getParent());
+		Path temp = Files.createTempFile(path.getParent(), hash, ".tmp");
+		try {
+			Files.write(temp, content);
+			Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (FileAlreadyExistsException e) {
+			// Outra thread gravou o mesmo conteúdo.
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+		return hash;
+	}
+
+	// Um subdiretório por prefixo de dois caracteres, para não acumular todos os arquivos em um só diretório.
+	private Path pathOf(String hash) {
+		return Paths.get(directory, hash.substring(0, 2), hash + EXTENSION);
+	}
+
+	private static String sha256(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+			StringBuilder hex = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+			}
+			return hex.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
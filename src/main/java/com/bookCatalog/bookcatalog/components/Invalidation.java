@@ -0,0 +1,67 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.io.Serializable;
+
+/**
+ * Aviso de que uma entrada (ou, com chave nula, uma região inteira) dos caches em memória deixou de ser válida.
+ */
+public class Invalidation implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	public static final String PRODUCT = "product";
+	public static final String CATEGORY = "category";
+	public static final String USER = "user";
+	public static final String USER_PERMISSIONS = "user.permissions";
+
+	private final String region;
+	private final Long key;
+
+	public Invalidation(String region, Long key) {
+		this.region = region;
+		this.key = key;
+	}
+
+	public String getRegion() {
+		return region;
+	}
+
+	public Long getKey() {
+		return key;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((key == null) ? 0 : key.hashCode());
+		result = prime * result + ((region == null) ? 0 : region.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Invalidation other = (Invalidation) obj;
+		if (key == null) {
+			if (other.key != null)
+				return false;
+		} else if (!key.equals(other.key))
+			return false;
+		if (region == null) {
+			if (other.region != null)
+				return false;
+		} else if (!region.equals(other.region))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return region + ":" + (key == null ? "*" : key);
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Barramento de invalidação dos caches em memória entre instâncias da aplicação.
+ *
+ * Os serviços publicam o que alteraram; a invalidação só entra na fila após o commit da transação, e a fila é um
+ * conjunto, de modo que alterações repetidas da mesma entrada entre dois envios viram uma única mensagem. A fila é
+ * enviada em lote a cada catalog.invalidation.flush-ms pelo InvalidationTransport configurado, e as invalidações
+ * das outras instâncias são recebidas a cada catalog.invalidation.poll-ms e aplicadas pelo LocalCacheInvalidator.
+ * Sem transporte (catalog.invalidation.transport=none) a aplicação funciona como instância única.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class InvalidationBus {
+
+	private static Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+
+	@Value("${catalog.node-id:}")
+	private String nodeId;
+
+	@Autowired
+	private ObjectProvider<InvalidationTransport> transport;
+
+	@Autowired
+	private LocalCacheInvalidator localCacheInvalidator;
+
+	private final Set<Invalidation> pending = ConcurrentHashMap.newKeySet();
+
+	@PostConstruct
+	public void init() {
+		if (nodeId == null || nodeId.isEmpty()) {
+			nodeId = UUID.randomUUID().toString();
+		}
+	}
+
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	/**
+	 * Publica a invalidação de uma entrada. Dentro de uma transação, só é enfileirada após o commit.
+	 *
+	 * @param region A região (Invalidation.PRODUCT, CATEGORY, USER ou USER_PERMISSIONS).
+	 * @param key    O ID da entidade, ou null para a região inteira.
+	 */
+	public void publish(String region, Long key) {
+		Invalidation invalidation = new Invalidation(region, key);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					pending.add(invalidation);
+				}
+			});
+		}
+		else {
+			pending.add(invalidation);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${catalog.invalidation.flush-ms:200}")
+	public synchronized void flush() {
+		if (pending.isEmpty()) {
+			return;
+		}
+		List<Invalidation> batch = coalesce(drain());
+		InvalidationTransport t = transport.getIfAvailable();
+		if (t == null) {
+			return;
+		}
+		try {
+			t.send(nodeId, batch);
+		}
+		catch (RuntimeException e) {
+			logger.error("Could not send " + batch.size() + " cache invalidations, retrying", e);
+			pending.addAll(batch);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${catalog.invalidation.poll-ms:1000}")
+	public void poll() {
+		InvalidationTransport t = transport.getIfAvailable();
+		if (t != null) {
+			t.receive(nodeId, localCacheInvalidator::apply);
+		}
+	}
+
+	private List<Invalidation> drain() {
+		List<Invalidation> batch = new ArrayList<>(pending.size());
+		for (Iterator<Invalidation> it = pending.iterator(); it.hasNext();) {
+			batch.add(it.next());
+			it.remove();
+		}
+		return batch;
+	}
+
+	// Uma invalidação da região inteira torna desnecessárias as invalidações por chave da mesma região.
+	private static List<Invalidation> coalesce(List<Invalidation> batch) {
+		Set<String> wholeRegions = new HashSet<>();
+		for (Invalidation invalidation : batch) {
+			if (invalidation.getKey() == null) {
+				wholeRegions.add(invalidation.getRegion());
+			}
+		}
+		if (wholeRegions.isEmpty()) {
+			return batch;
+		}
+		List<Invalidation> result = new ArrayList<>(batch.size());
+		for (Invalidation invalidation : batch) {
+			if (invalidation.getKey() == null || !wholeRegions.contains(invalidation.getRegion())) {
+				result.add(invalidation);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,27 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Meio pelo qual o InvalidationBus troca invalidações com as demais instâncias da aplicação.
+ * A implementação padrão (JdbcInvalidationTransport) usa uma tabela do próprio banco de dados.
+ */
+public interface InvalidationTransport {
+
+	/**
+	 * Envia um lote de invalidações às demais instâncias.
+	 *
+	 * @param nodeId        O identificador desta instância.
+	 * @param invalidations As invalidações já agrupadas.
+	 */
+	void send(String nodeId, Collection<Invalidation> invalidations);
+
+	/**
+	 * Entrega ao consumidor as invalidações enviadas por outras instâncias desde a última chamada.
+	 *
+	 * @param nodeId   O identificador desta instância, cujas próprias invalidações são ignoradas.
+	 * @param consumer Chamado com cada lote recebido.
+	 */
+	void receive(String nodeId, Consumer<Collection<Invalidation>> consumer);
+}
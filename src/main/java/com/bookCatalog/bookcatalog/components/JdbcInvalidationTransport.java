@@ -0,0 +1,122 @@
+/*
+ * Transporte de invalidações pelo próprio banco de dados, sem infraestrutura adicional. Cada lote enviado vira
+ * linhas em tb_cache_invalidation; cada instância lê as linhas novas em ordem de id e ignora as que ela mesma gravou.
+ *
+ * Assim como no OutboxDispatcher, uma transação ainda não confirmada pode deixar uma lacuna de id antes de linhas já
+ * visíveis; a leitura para na lacuna e só a ignora depois de catalog.invalidation.gap-timeout-ms.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bookCatalog.bookcatalog.entities.CacheInvalidation;
+import com.bookCatalog.bookcatalog.repositories.CacheInvalidationRepository;
+
+@Component
+@ConditionalOnProperty(name = "catalog.invalidation.transport", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcInvalidationTransport implements InvalidationTransport {
+
+	private static Logger logger = LoggerFactory.getLogger(JdbcInvalidationTransport.class);
+
+	@Value("${catalog.invalidation.batch-size:500}")
+	private int batchSize;
+
+	@Value("${catalog.invalidation.gap-timeout-ms:5000}")
+	private long gapTimeoutMs;
+
+	@Value("${catalog.invalidation.retention-ms:3600000}")
+	private long retentionMs;
+
+	@Autowired
+	private CacheInvalidationRepository repository;
+
+	private long lastId = -1L;
+
+	// Id inicial de cada lacuna ainda não consumida → instante em que ela foi observada pela primeira vez.
+	private final Map<Long, Long> gapsSeenAt = new HashMap<>();
+
+	@Override
+	@Transactional
+	public void send(String nodeId, Collection<Invalidation> invalidations) {
+		List<CacheInvalidation> rows = new ArrayList<>(invalidations.size());
+		for (Invalidation invalidation : invalidations) {
+			rows.add(new CacheInvalidation(nodeId, invalidation.getRegion(), invalidation.getKey()));
+		}
+		repository.saveAll(rows);
+	}
+
+	@Override
+	public synchronized void receive(String nodeId, Consumer<Collection<Invalidation>> consumer) {
+		if (lastId < 0) {
+			// Os caches desta instância começam vazios; só interessam as invalidações a partir de agora.
+			lastId = repository.findMaxId();
+			return;
+		}
+		List<CacheInvalidation> rows;
+		List<Invalidation> received;
+		int consumed;
+		do {
+			rows = repository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+			received = new ArrayList<>(rows.size());
+			consumed = 0;
+
+			// Todas as lacunas do lote começam a contar já na primeira leitura, e não só depois de vencida a anterior.
+			long now = System.currentTimeMillis();
+			long expected = lastId + 1;
+			for (CacheInvalidation row : rows) {
+				if (row.getId() != expected) {
+					gapsSeenAt.putIfAbsent(expected, now);
+				}
+				expected = row.getId() + 1;
+			}
+
+			expected = lastId + 1;
+			for (CacheInvalidation row : rows) {
+				if (row.getId() != expected) {
+					if (now - gapsSeenAt.get(expected) < gapTimeoutMs) {
+						break;
+					}
+					logger.warn("Skipping cache invalidation gap before id " + row.getId());
+				}
+				if (!nodeId.equals(row.getNodeId())) {
+					received.add(new Invalidation(row.getRegion(), row.getEntityId()));
+				}
+				expected = row.getId() + 1;
+				consumed++;
+			}
+			if (consumed > 0) {
+				lastId = rows.get(consumed - 1).getId();
+				gapsSeenAt.keySet().removeIf(id -> id <= lastId);
+			}
+			if (!received.isEmpty()) {
+				consumer.accept(received);
+			}
+		} while (consumed == batchSize);
+	}
+
+	@Scheduled(fixedDelayString = "${catalog.invalidation.purge-ms:600000}")
+	@Transactional
+	public void purge() {
+		int removed = repository.deleteOlderThan(Instant.now().minusMillis(retentionMs));
+		if (removed > 0) {
+			logger.info("Cache invalidation purge removed " + removed + " rows");
+		}
+	}
+}
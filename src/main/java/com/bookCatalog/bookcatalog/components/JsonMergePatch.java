@@ -0,0 +1,88 @@
+/*
+ * Aplicação de JSON Merge Patch (RFC 7386) sobre os DTOs. O estado atual é convertido em árvore JSON, o patch é
+ * mesclado (membros null removem o valor, objetos são mesclados recursivamente e os demais valores, inclusive arrays,
+ * substituem o anterior) e o resultado é convertido de volta no tipo do DTO e validado com as mesmas anotações do
+ * PUT. Os serviços comparam o DTO resultante com a entidade e alteram apenas o que mudou.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.bookCatalog.bookcatalog.services.exceptions.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+@Component
+public class JsonMergePatch {
+
+	public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private Validator validator;
+
+	/**
+	 * Aplica o patch ao estado atual e valida o resultado.
+	 *
+	 * @param current O estado atual, serializado como na resposta do GET.
+	 * @param patch   O documento de merge patch; deve ser um objeto JSON.
+	 * @param type    O tipo do DTO resultante.
+	 * @return Um novo DTO com o patch aplicado.
+	 * @throws BadRequestException          Se o patch não for um objeto ou não puder ser convertido no DTO.
+	 * @throws ConstraintViolationException Se o resultado violar as validações do DTO.
+	 */
+	public <T> T apply(Object current, JsonNode patch, Class<T> type) {
+		if (patch == null || !patch.isObject()) {
+			throw new BadRequestException("Merge patch must be a JSON object");
+		}
+		JsonNode merged = merge(objectMapper.valueToTree(current), patch);
+		T result;
+		try {
+			result = objectMapper.treeToValue(merged, type);
+		}
+		catch (JsonProcessingException e) {
+			throw new BadRequestException("Invalid merge patch: " + e.getOriginalMessage());
+		}
+		Set<ConstraintViolation<T>> violations = validator.validate(result);
+		if (!violations.isEmpty()) {
+			throw new ConstraintViolationException(violations);
+		}
+		return result;
+	}
+
+	/**
+	 * Mescla o patch no documento, conforme a RFC 7386. O documento recebido pode ser alterado.
+	 */
+	public static JsonNode merge(JsonNode target, JsonNode patch) {
+		if (!patch.isObject()) {
+			return patch;
+		}
+		ObjectNode result = target != null && target.isObject() ? (ObjectNode) target
+				: ((ObjectNode) patch).objectNode();
+		Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			if (field.getValue().isNull()) {
+				result.remove(field.getKey());
+			}
+			else {
+				result.set(field.getKey(), merge(result.get(field.getKey()), field.getValue()));
+			}
+		}
+		return result;
+	}
+}
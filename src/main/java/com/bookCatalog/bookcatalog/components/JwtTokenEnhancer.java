@@ -1,6 +1,10 @@
 /*
  * Esta classe é responsável por aprimorar o token de acesso OAuth2 com informações adicionais do usuário.
  * Ela implementa a interface TokenEnhancer, permitindo a personalização do token antes de ser retornado ao cliente.
+ *
+ * As claims adicionadas formam um conjunto compacto e versionado ("cv"), incluindo a época de permissões ("pe")
+ * usada pelo EpochAwareAccessTokenConverter para rejeitar tokens emitidos antes de uma mudança de papéis.
+ * As autoridades do usuário já são gravadas pelo JwtAccessTokenConverter na claim "authorities".
  */
 
 package com.bookCatalog.bookcatalog.components;
@@ -9,6 +13,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
@@ -21,27 +26,65 @@ import com.bookCatalog.bookcatalog.repositories.UserRepository;
 @Component
 public class JwtTokenEnhancer implements TokenEnhancer {
 
+	public static final String USER_FIRST_NAME = "userFirstName";
+	public static final String USER_ID = "userId";
+	public static final String CLAIMS_VERSION = "cv";
+	public static final String PERMISSIONS_EPOCH = "pe";
+
+	public static final int CURRENT_CLAIMS_VERSION = 1;
+
 	@Autowired
 	private UserRepository userRepository;
-	
+
+	@Autowired
+	private PermissionEpochs permissionEpochs;
+
 	@Override
 	public OAuth2AccessToken enhance(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
-		
-		// Recupera as informações do usuário a partir do UserRepository usando o email obtido da autenticação OAuth2.
-		User user = userRepository.findByEmail(authentication.getName());
-		
+
+		Long userId;
+		String firstName;
+
+		// No fluxo password o principal já é o User carregado na autenticação. Na renovação (refresh_token) as
+		// claims do token anterior acompanham a autenticação. Só recorre ao banco de dados em último caso.
+		Object principal = authentication.getPrincipal();
+		Map<?, ?> previousClaims = previousClaims(authentication);
+		if (principal instanceof User) {
+			userId = ((User) principal).getId();
+			firstName = ((User) principal).getFirstName();
+		}
+		else if (previousClaims != null && previousClaims.get(USER_ID) instanceof Number) {
+			userId = ((Number) previousClaims.get(USER_ID)).longValue();
+			firstName = (String) previousClaims.get(USER_FIRST_NAME);
+		}
+		else {
+			User user = userRepository.findByEmail(authentication.getName());
+			userId = user.getId();
+			firstName = user.getFirstName();
+		}
+
 		// Cria um mapa para armazenar as informações adicionais do usuário a serem incluídas no token de acesso.
 		Map<String, Object> map = new HashMap<>();
-		map.put("userFirstName", user.getFirstName()); // Adiciona o primeiro nome do usuário ao mapa.
-		map.put("userId", user.getId()); // Adiciona o ID do usuário ao mapa.
+		map.put(USER_FIRST_NAME, firstName); // Adiciona o primeiro nome do usuário ao mapa.
+		map.put(USER_ID, userId); // Adiciona o ID do usuário ao mapa.
+		map.put(CLAIMS_VERSION, CURRENT_CLAIMS_VERSION); // Versão do conjunto de claims.
+		map.put(PERMISSIONS_EPOCH, permissionEpochs.current(userId)); // Época de permissões vigente.
 
 		// Realiza o cast do accessToken para DefaultOAuth2AccessToken para modificar suas informações adicionais.
 		DefaultOAuth2AccessToken token = (DefaultOAuth2AccessToken) accessToken;
-		
+
 		// Define o mapa de informações adicionais no token de acesso, incluindo o primeiro nome e o ID do usuário.
 		token.setAdditionalInformation(map);
-		
+
 		// Retorna o token de acesso modificado com informações adicionais do usuário.
 		return accessToken;
 	}
+
+	private Map<?, ?> previousClaims(OAuth2Authentication authentication) {
+		Authentication userAuthentication = authentication.getUserAuthentication();
+		if (userAuthentication != null && userAuthentication.getDetails() instanceof Map) {
+			return (Map<?, ?>) userAuthentication.getDetails();
+		}
+		return null;
+	}
 }
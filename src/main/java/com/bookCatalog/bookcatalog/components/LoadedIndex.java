@@ -0,0 +1,79 @@
+/*
+ * Último valor publicado de um índice em memória reconstruído a partir do banco (ProductCategoryIndex,
+ * ProductFacetIndex). As leituras nunca reconstroem o índice na thread da requisição: antes da primeira carga elas
+ * falham com ServiceUnavailableException e agendam a carga em segundo plano, uma por vez.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.scheduling.TaskScheduler;
+
+import com.bookCatalog.bookcatalog.services.exceptions.ServiceUnavailableException;
+
+final class LoadedIndex<T> {
+
+	private final String name;
+	private final Runnable loader;
+	private final Supplier<TaskScheduler> taskScheduler;
+
+	// Nulo até a primeira carga.
+	private volatile T value;
+
+	private final AtomicBoolean loading = new AtomicBoolean();
+
+	/**
+	 * @param name          O nome do índice, usado na mensagem de erro.
+	 * @param loader        A carga completa, que publica o índice com {@link #publish(Object)}.
+	 * @param taskScheduler O agendador da carga; lido só na primeira consulta, depois da injeção de dependências.
+	 */
+	LoadedIndex(String name, Runnable loader, Supplier<TaskScheduler> taskScheduler) {
+		this.name = name;
+		this.loader = loader;
+		this.taskScheduler = taskScheduler;
+	}
+
+	/**
+	 * Retorna o índice publicado.
+	 *
+	 * @throws ServiceUnavailableException Se o índice ainda não foi carregado; a carga é agendada.
+	 */
+	T get() {
+		T current = value;
+		if (current == null) {
+			loadInBackground();
+			throw new ServiceUnavailableException(name + " is not loaded yet");
+		}
+		return current;
+	}
+
+	/**
+	 * Retorna o índice publicado, ou nulo antes da primeira carga, sem agendá-la.
+	 */
+	T peek() {
+		return value;
+	}
+
+	void publish(T value) {
+		this.value = value;
+	}
+
+	// A carga do ApplicationReadyEvent pode já ter terminado quando a tarefa executar.
+	private void loadInBackground() {
+		if (loading.compareAndSet(false, true)) {
+			taskScheduler.get().schedule(() -> {
+				try {
+					if (value == null) {
+						loader.run();
+					}
+				}
+				finally {
+					loading.set(false);
+				}
+			}, Instant.now());
+		}
+	}
+}
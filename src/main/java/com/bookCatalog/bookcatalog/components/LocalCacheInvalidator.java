@@ -0,0 +1,63 @@
+/*
+ * Aplica nesta instância as invalidações recebidas das demais: cache de segundo nível, totais em cache das
+ * listagens e épocas de permissão. As gravações da própria instância já mantêm esses caches corretos.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.Collection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LocalCacheInvalidator {
+
+	private static Logger logger = LoggerFactory.getLogger(LocalCacheInvalidator.class);
+
+	@Autowired
+	private SecondLevelCache secondLevelCache;
+
+	@Autowired
+	private PageCounts pageCounts;
+
+	@Autowired
+	private PermissionEpochs permissionEpochs;
+
+	public void apply(Collection<Invalidation> invalidations) {
+		for (Invalidation invalidation : invalidations) {
+			Long key = invalidation.getKey();
+			switch (invalidation.getRegion()) {
+			case Invalidation.PRODUCT:
+				if (key == null) {
+					secondLevelCache.evictProducts();
+				}
+				else {
+					secondLevelCache.evictProduct(key);
+				}
+				pageCounts.evict(PageCounts.PRODUCT_TABLE);
+				break;
+			case Invalidation.CATEGORY:
+				if (key == null) {
+					secondLevelCache.evictCategories();
+				}
+				else {
+					secondLevelCache.evictCategory(key);
+				}
+				pageCounts.evict(PageCounts.CATEGORY_TABLE);
+				break;
+			case Invalidation.USER:
+				pageCounts.evict(PageCounts.USER_TABLE);
+				break;
+			case Invalidation.USER_PERMISSIONS:
+				// A época já foi incrementada e gravada pela instância de origem; aqui só se relê o valor do banco.
+				permissionEpochs.refresh(key);
+				break;
+			default:
+				logger.warn("Ignoring invalidation for unknown region " + invalidation);
+			}
+		}
+	}
+}
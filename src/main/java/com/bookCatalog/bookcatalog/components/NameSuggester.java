@@ -0,0 +1,368 @@
+/*
+ * Sugestões por prefixo para a busca, sobre os nomes de produtos e categorias mantidos em memória.
+ *
+ * Os nomes são normalizados (sem acentos, minúsculos, só letras e dígitos) e cada palavra gera uma entrada apontando
+ * para o início dela no nome, de modo que "gamer" encontra "PC Gamer". As entradas formam um array ordenado, uma trie
+ * achatada: o prefixo digitado corresponde a um intervalo contíguo, localizado por busca binária, e as k mais
+ * populares do intervalo são selecionadas com um heap. A popularidade de uma categoria é o número de produtos nela e a
+ * de um produto, o número de consultas a ele, reduzido à metade a cada catalog.suggestions.decay-ms.
+ *
+ * Como as demais estruturas em memória, o array é trocado por cópia a cada lote de alterações da outbox.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bookCatalog.bookcatalog.dto.SuggestionDTO;
+import com.bookCatalog.bookcatalog.entities.Category;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Aggregate;
+import com.bookCatalog.bookcatalog.repositories.CategoryRepository;
+import com.bookCatalog.bookcatalog.repositories.ProductRepository;
+import com.bookCatalog.bookcatalog.repositories.ProductSortKey;
+import com.bookCatalog.bookcatalog.services.exceptions.ServiceUnavailableException;
+
+@Component
+public class NameSuggester {
+
+	public static final String PRODUCT = "product";
+	public static final String CATEGORY = "category";
+
+	private static Logger logger = LoggerFactory.getLogger(NameSuggester.class);
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	// Intervalos maiores que este limite (prefixos de uma ou duas letras em catálogos grandes) são avaliados apenas
+	// no início, o que limita o custo por tecla.
+	@Value("${catalog.suggestions.max-scan:20000}")
+	private int maxScan;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private ProductCategoryIndex categoryIndex;
+
+	private final ConcurrentMap<Long, AtomicLong> productViews = new ConcurrentHashMap<>();
+
+	// Nulo até a primeira carga.
+	private volatile Entries entries;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${catalog.suggestions.rebuild-ms:3600000}", initialDelayString = "${catalog.suggestions.rebuild-ms:3600000}")
+	public synchronized void rebuild() {
+		List<Entry> list = new ArrayList<>();
+		for (ProductSortKey product : productRepository.findAllSortKeys()) {
+			addEntries(list, false, product.getId(), product.getName());
+		}
+		for (Category category : categoryRepository.findAll()) {
+			addEntries(list, true, category.getId(), category.getName());
+		}
+		Entry[] sorted = list.toArray(new Entry[0]);
+		Arrays.sort(sorted);
+		entries = Entries.of(sorted);
+		logger.info("Name suggester loaded: " + sorted.length + " entries");
+	}
+
+	@EventListener
+	public synchronized void onCatalogChange(CatalogChangeBatch batch) {
+		Entries current = entries;
+		Set<Long> products = batch.aggregateIds(Aggregate.PRODUCT);
+		Set<Long> categories = batch.aggregateIds(Aggregate.CATEGORY);
+		if (current == null || (products.isEmpty() && categories.isEmpty())) {
+			return;
+		}
+		Set<Long> changed = new HashSet<>();
+		List<Entry> list = new ArrayList<>();
+		for (Long id : products) {
+			changed.add(ref(false, id));
+		}
+		for (Long id : categories) {
+			changed.add(ref(true, id));
+		}
+		if (!products.isEmpty()) {
+			for (ProductSortKey product : productRepository.findSortKeys(products)) {
+				addEntries(list, false, product.getId(), product.getName());
+			}
+		}
+		if (!categories.isEmpty()) {
+			for (Category category : categoryRepository.findAllById(categories)) {
+				addEntries(list, true, category.getId(), category.getName());
+			}
+		}
+		Entry[] added = list.toArray(new Entry[0]);
+		Arrays.sort(added);
+		entries = current.replace(changed, added);
+	}
+
+	/**
+	 * Registra uma consulta ao produto, usada como popularidade nas sugestões.
+	 */
+	public void recordView(long productId) {
+		productViews.computeIfAbsent(productId, id -> new AtomicLong()).incrementAndGet();
+	}
+
+	@Scheduled(fixedDelayString = "${catalog.suggestions.decay-ms:3600000}", initialDelayString = "${catalog.suggestions.decay-ms:3600000}")
+	public void decay() {
+		productViews.values().removeIf(views -> views.updateAndGet(value -> value / 2) == 0);
+	}
+
+	/**
+	 * Retorna as sugestões mais populares cujo nome tem alguma palavra começando pelo texto informado.
+	 *
+	 * @param query O texto digitado; acentos e maiúsculas são ignorados.
+	 * @param limit O número máximo de sugestões.
+	 * @return As sugestões, da mais para a menos popular.
+	 */
+	public List<SuggestionDTO> suggest(String query, int limit) {
+		String prefix = normalize(query);
+		Entries current = entries;
+		if (prefix.isEmpty() || current == null) {
+			return List.of();
+		}
+		int from = current.lowerBound(prefix);
+		int to = Math.min(current.refs.length, from + maxScan);
+
+		Comparator<Candidate> ranking = Comparator.comparingLong((Candidate c) -> c.popularity)
+				.thenComparing(c -> c.name.length(), Comparator.reverseOrder());
+		PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, ranking);
+		Set<Long> seen = new HashSet<>();
+		Map<Long, BitSet> productsByCategory = null;
+		for (int i = from; i < to && current.startsWith(i, prefix); i++) {
+			long ref = current.refs[i];
+			if (!seen.add(ref)) {
+				continue;
+			}
+			long id = ref >>> 1;
+			boolean category = (ref & 1) == 1;
+			long popularity;
+			if (category) {
+				if (productsByCategory == null) {
+					productsByCategory = categoryBitmaps();
+				}
+				BitSet bits = productsByCategory.get(id);
+				popularity = bits == null ? 0 : bits.cardinality();
+			}
+			else {
+				AtomicLong views = productViews.get(id);
+				popularity = views == null ? 0 : views.get();
+			}
+			top.add(new Candidate(category, id, current.names[i], popularity));
+			if (top.size() > limit) {
+				top.poll();
+			}
+		}
+
+		List<SuggestionDTO> result = new ArrayList<>(top.size());
+		while (!top.isEmpty()) {
+			Candidate candidate = top.poll();
+			result.add(new SuggestionDTO(candidate.category ? CATEGORY : PRODUCT, candidate.id, candidate.name));
+		}
+		Collections.reverse(result);
+		return result;
+	}
+
+	// Consultado só quando uma categoria chega ao ranking; antes da primeira carga do índice (que a consulta agenda)
+	// as categorias ficam com popularidade 0, em vez de a sugestão inteira falhar.
+	private Map<Long, BitSet> categoryBitmaps() {
+		try {
+			return categoryIndex.productsByCategory();
+		}
+		catch (ServiceUnavailableException e) {
+			return Map.of();
+		}
+	}
+
+	/**
+	 * Normaliza um texto para comparação: remove acentos, converte para minúsculas e troca pontuação por espaço.
+	 */
+	public static String normalize(String text) {
+		if (text == null) {
+			return "";
+		}
+		String decomposed = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+		return SEPARATORS.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+	}
+
+	private static void addEntries(List<Entry> list, boolean category, long id, String name) {
+		String normalized = normalize(name);
+		long ref = ref(category, id);
+		for (int i = 0; i < normalized.length(); i++) {
+			if (i == 0 || normalized.charAt(i - 1) == ' ') {
+				list.add(new Entry(normalized, i, ref, name));
+			}
+		}
+	}
+
+	private static long ref(boolean category, long id) {
+		return id << 1 | (category ? 1 : 0);
+	}
+
+	// Compara o sufixo de a a partir de offsetA com o de b a partir de offsetB.
+	private static int compareSuffix(String a, int offsetA, String b, int offsetB) {
+		int lengthA = a.length() - offsetA;
+		int lengthB = b.length() - offsetB;
+		int n = Math.min(lengthA, lengthB);
+		for (int i = 0; i < n; i++) {
+			char x = a.charAt(offsetA + i);
+			char y = b.charAt(offsetB + i);
+			if (x != y) {
+				return x - y;
+			}
+		}
+		return lengthA - lengthB;
+	}
+
+	private static final class Entry implements Comparable<Entry> {
+		private final String key;
+		private final int offset;
+		private final long ref;
+		private final String name;
+
+		private Entry(String key, int offset, long ref, String name) {
+			this.key = key;
+			this.offset = offset;
+			this.ref = ref;
+			this.name = name;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			return compareTo(other.key, other.offset, other.ref);
+		}
+
+		private int compareTo(String otherKey, int otherOffset, long otherRef) {
+			int result = compareSuffix(key, offset, otherKey, otherOffset);
+			return result != 0 ? result : Long.compare(ref, otherRef);
+		}
+	}
+
+	// Arrays paralelos ordenados pelo sufixo normalizado; os nomes normalizados e originais são compartilhados
+	// entre as entradas de um mesmo produto ou categoria.
+	private static final class Entries {
+		private final String[] keys;
+		private final int[] offsets;
+		private final long[] refs;
+		private final String[] names;
+
+		private Entries(String[] keys, int[] offsets, long[] refs, String[] names) {
+			this.keys = keys;
+			this.offsets = offsets;
+			this.refs = refs;
+			this.names = names;
+		}
+
+		private static Entries of(Entry[] sorted) {
+			Entries entries = new Entries(new String[sorted.length], new int[sorted.length], new long[sorted.length],
+					new String[sorted.length]);
+			for (int i = 0; i < sorted.length; i++) {
+				entries.set(i, sorted[i]);
+			}
+			return entries;
+		}
+
+		private void set(int i, Entry entry) {
+			keys[i] = entry.key;
+			offsets[i] = entry.offset;
+			refs[i] = entry.ref;
+			names[i] = entry.name;
+		}
+
+		private boolean startsWith(int i, String prefix) {
+			return keys[i].startsWith(prefix, offsets[i]);
+		}
+
+		// Primeira entrada cujo sufixo é maior ou igual ao prefixo.
+		private int lowerBound(String prefix) {
+			int low = 0;
+			int high = refs.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (compareSuffix(keys[mid], offsets[mid], prefix, 0) < 0) {
+					low = mid + 1;
+				}
+				else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * Retorna novas entradas sem as referências alteradas, intercaladas com as novas entradas já ordenadas. As
+		 * entradas existentes são copiadas direto para os novos arrays, sem objetos intermediários.
+		 */
+		private Entries replace(Set<Long> changed, Entry[] added) {
+			long[] removed = changed.stream().mapToLong(Long::longValue).sorted().toArray();
+			int kept = 0;
+			for (long ref : refs) {
+				if (Arrays.binarySearch(removed, ref) < 0) {
+					kept++;
+				}
+			}
+			int length = kept + added.length;
+			Entries merged = new Entries(new String[length], new int[length], new long[length], new String[length]);
+			int n = 0;
+			int a = 0;
+			for (int i = 0; i < refs.length; i++) {
+				if (Arrays.binarySearch(removed, refs[i]) >= 0) {
+					continue;
+				}
+				while (a < added.length && added[a].compareTo(keys[i], offsets[i], refs[i]) < 0) {
+					merged.set(n++, added[a++]);
+				}
+				merged.keys[n] = keys[i];
+				merged.offsets[n] = offsets[i];
+				merged.refs[n] = refs[i];
+				merged.names[n] = names[i];
+				n++;
+			}
+			while (a < added.length) {
+				merged.set(n++, added[a++]);
+			}
+			return merged;
+		}
+	}
+
+	private static final class Candidate {
+		private final boolean category;
+		private final long id;
+		private final String name;
+		private final long popularity;
+
+		private Candidate(boolean category, long id, String name, long popularity) {
+			this.category = category;
+			this.id = id;
+			this.name = name;
+			this.popularity = popularity;
+		}
+	}
+}
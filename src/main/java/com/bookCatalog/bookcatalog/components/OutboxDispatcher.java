@@ -0,0 +1,178 @@
+/*
+ * Despachante local da tabela de outbox. Lê periodicamente, em lotes e em ordem de offset, os eventos confirmados,
+ * publica cada lote como CatalogChangeBatch para os listeners da aplicação e libera os consumidores em long-poll.
+ *
+ * Como o offset vem de uma coluna IDENTITY, uma transação que ainda não confirmou pode deixar uma lacuna antes de
+ * eventos mais novos já visíveis. O despachante para na lacuna e só a ignora depois de catalog.outbox.gap-timeout-ms,
+ * o que preserva a ordem de entrega por entidade sem perder eventos de transações lentas. O prazo conta a partir da
+ * primeira vez em que cada lacuna foi vista, então várias lacunas deixadas por transações desfeitas expiram juntas,
+ * em vez de atrasar o despacho um prazo inteiro por lacuna.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bookCatalog.bookcatalog.dto.CatalogEventDTO;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent;
+import com.bookCatalog.bookcatalog.repositories.OutboxEventRepository;
+import com.bookCatalog.bookcatalog.services.OutboxService;
+
+@Component
+public class OutboxDispatcher {
+
+	private static Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+	@Value("${catalog.outbox.batch-size:500}")
+	private int batchSize;
+
+	@Value("${catalog.outbox.gap-timeout-ms:5000}")
+	private long gapTimeoutMs;
+
+	@Value("${catalog.outbox.retention-hours:72}")
+	private long retentionHours;
+
+	@Autowired
+	private OutboxEventRepository repository;
+
+	@Autowired
+	private OutboxService outboxService;
+
+	@Autowired
+	private ApplicationEventPublisher publisher;
+
+	private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+	private volatile long dispatchedOffset = -1L;
+
+	// Offset inicial de cada lacuna ainda não despachada → instante em que ela foi observada pela primeira vez.
+	private final Map<Long, Long> gapsSeenAt = new HashMap<>();
+
+	/**
+	 * Retorna o maior offset já despachado. Consumidores só enxergam eventos até este offset.
+	 */
+	public long getDispatchedOffset() {
+		return dispatchedOffset;
+	}
+
+	@Scheduled(fixedDelayString = "${catalog.outbox.dispatch-ms:1000}")
+	public synchronized void dispatch() {
+		if (dispatchedOffset < 0) {
+			// Na inicialização os componentes em memória são construídos a partir do banco; começa do fim do log.
+			dispatchedOffset = repository.findMaxId();
+			return;
+		}
+		List<OutboxEvent> events;
+		List<CatalogEventDTO> batch;
+		do {
+			events = repository.findByIdGreaterThanOrderByIdAsc(dispatchedOffset, PageRequest.of(0, batchSize));
+			batch = contiguousPrefix(events);
+			if (batch.isEmpty()) {
+				break;
+			}
+			try {
+				publisher.publishEvent(new CatalogChangeBatch(batch));
+			}
+			catch (RuntimeException e) {
+				logger.error("Catalog change listener failed", e);
+			}
+			dispatchedOffset = batch.get(batch.size() - 1).getOffset();
+			gapsSeenAt.keySet().removeIf(offset -> offset <= dispatchedOffset);
+			notifyWaiters(batch);
+		} while (batch.size() == batchSize);
+	}
+
+	@Scheduled(fixedDelayString = "${catalog.outbox.purge-ms:3600000}")
+	public void purge() {
+		int removed = outboxService.purgeOlderThan(retentionHours);
+		if (removed > 0) {
+			logger.info("Outbox purge removed " + removed + " events");
+		}
+	}
+
+	/**
+	 * Registra um consumidor aguardando eventos com offset maior que {@code after}.
+	 *
+	 * @param after    O último offset já processado pelo consumidor.
+	 * @param limit    O número máximo de eventos entregues.
+	 * @param callback Chamado uma única vez com os eventos despachados.
+	 * @return Um handle para cancelar a espera.
+	 */
+	public Runnable await(long after, int limit, Consumer<List<CatalogEventDTO>> callback) {
+		Waiter waiter = new Waiter(after, limit, callback);
+		waiters.add(waiter);
+
+		// Eventos despachados entre a consulta do consumidor e o registro da espera.
+		if (dispatchedOffset > after && waiters.remove(waiter)) {
+			callback.accept(outboxService.findDispatched(after, dispatchedOffset, limit));
+		}
+		return () -> waiters.remove(waiter);
+	}
+
+	private List<CatalogEventDTO> contiguousPrefix(List<OutboxEvent> events) {
+		// Registra todas as lacunas visíveis no lote antes de decidir, para que o prazo de cada uma comece agora.
+		long now = System.currentTimeMillis();
+		long expected = dispatchedOffset + 1;
+		for (OutboxEvent event : events) {
+			if (event.getId() != expected) {
+				gapsSeenAt.putIfAbsent(expected, now);
+			}
+			expected = event.getId() + 1;
+		}
+
+		List<CatalogEventDTO> batch = new ArrayList<>(events.size());
+		expected = dispatchedOffset + 1;
+		for (OutboxEvent event : events) {
+			if (event.getId() != expected) {
+				if (now - gapsSeenAt.get(expected) < gapTimeoutMs) {
+					break;
+				}
+				logger.warn("Skipping outbox gap before offset " + event.getId());
+			}
+			batch.add(new CatalogEventDTO(event));
+			expected = event.getId() + 1;
+		}
+		return batch;
+	}
+
+	private void notifyWaiters(List<CatalogEventDTO> batch) {
+		for (Waiter waiter : waiters) {
+			List<CatalogEventDTO> events = new ArrayList<>();
+			for (CatalogEventDTO event : batch) {
+				if (event.getOffset() > waiter.after && events.size() < waiter.limit) {
+					events.add(event);
+				}
+			}
+			if (!events.isEmpty() && waiters.remove(waiter)) {
+				waiter.callback.accept(events);
+			}
+		}
+	}
+
+	private static class Waiter {
+		private final long after;
+		private final int limit;
+		private final Consumer<List<CatalogEventDTO>> callback;
+
+		private Waiter(long after, int limit, Consumer<List<CatalogEventDTO>> callback) {
+			this.after = after;
+			this.limit = limit;
+			this.callback = callback;
+		}
+	}
+}
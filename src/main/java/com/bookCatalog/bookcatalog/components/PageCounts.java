@@ -0,0 +1,147 @@
+/*
+ * Totais das listagens paginadas sem COUNT(*) a cada requisição.
+ *
+ * O modo CACHED guarda o último COUNT(*) de cada tabela por catalog.page.count-cache-ms e o descarta quando o
+ * despachante da outbox publica alterações de produtos ou categorias. O modo ESTIMATED lê a estimativa de linhas
+ * mantida pelo próprio banco (H2: INFORMATION_SCHEMA.TABLES, PostgreSQL: pg_class.reltuples) e recorre ao valor em
+ * cache quando o banco não oferece a estatística.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.sql.DatabaseMetaData;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Aggregate;
+import com.bookCatalog.bookcatalog.services.CountMode;
+
+@Component
+public class PageCounts {
+
+	public static final String PRODUCT_TABLE = "tb_product";
+	public static final String CATEGORY_TABLE = "tb_category";
+	public static final String USER_TABLE = "tb_user";
+
+	private static Logger logger = LoggerFactory.getLogger(PageCounts.class);
+
+	private static final String H2_ESTIMATE = "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_NAME) = UPPER(?)";
+	private static final String POSTGRES_ESTIMATE = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE relname = ?";
+
+	@Value("${catalog.page.count-cache-ms:30000}")
+	private long cacheMs;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final ConcurrentMap<String, CachedCount> cache = new ConcurrentHashMap<>();
+
+	private volatile String estimateQuery;
+
+	/**
+	 * Retorna o total de uma listagem conforme o modo solicitado.
+	 *
+	 * @param mode    O modo de contagem.
+	 * @param table   A tabela listada.
+	 * @param counter O COUNT(*) exato da tabela.
+	 * @return O total, ou null quando o modo é NONE.
+	 */
+	public Long total(CountMode mode, String table, LongSupplier counter) {
+		switch (mode) {
+		case EXACT:
+			return counter.getAsLong();
+		case CACHED:
+			return cached(table, counter);
+		case ESTIMATED:
+			Long estimate = estimate(table);
+			return estimate != null ? estimate : cached(table, counter);
+		default:
+			return null;
+		}
+	}
+
+	public void evict(String table) {
+		cache.remove(table);
+	}
+
+	@EventListener
+	public void onCatalogChange(CatalogChangeBatch batch) {
+		if (batch.contains(Aggregate.PRODUCT)) {
+			evict(PRODUCT_TABLE);
+		}
+		if (batch.contains(Aggregate.CATEGORY)) {
+			evict(CATEGORY_TABLE);
+		}
+	}
+
+	private long cached(String table, LongSupplier counter) {
+		long now = System.currentTimeMillis();
+		CachedCount count = cache.get(table);
+		if (count == null || now - count.at > cacheMs) {
+			count = new CachedCount(counter.getAsLong(), now);
+			cache.put(table, count);
+		}
+		return count.value;
+	}
+
+	private Long estimate(String table) {
+		String query = estimateQuery();
+		if (query.isEmpty()) {
+			return null;
+		}
+		try {
+			Long estimate = jdbcTemplate.queryForObject(query, Long.class, table);
+
+			// O PostgreSQL informa -1 para tabelas ainda não analisadas.
+			return estimate != null && estimate >= 0 ? estimate : null;
+		}
+		catch (DataAccessException e) {
+			return null;
+		}
+	}
+
+	private String estimateQuery() {
+		if (estimateQuery == null) {
+			String product = "";
+			try {
+				product = JdbcUtils.commonDatabaseName(JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+						DatabaseMetaData::getDatabaseProductName));
+			}
+			catch (MetaDataAccessException e) {
+				logger.warn("Could not detect database for row estimates", e);
+			}
+			if ("H2".equals(product)) {
+				estimateQuery = H2_ESTIMATE;
+			}
+			else if ("PostgreSQL".equals(product)) {
+				estimateQuery = POSTGRES_ESTIMATE;
+			}
+			else {
+				estimateQuery = "";
+			}
+		}
+		return estimateQuery;
+	}
+
+	private static class CachedCount {
+		private final long value;
+		private final long at;
+
+		private CachedCount(long value, long at) {
+			this.value = value;
+			this.at = at;
+		}
+	}
+}
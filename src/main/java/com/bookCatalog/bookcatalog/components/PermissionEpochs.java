@@ -0,0 +1,118 @@
+/*
+ * Épocas de permissão por usuário. Cada token carrega a época vigente no momento da emissão; quando os papéis de um
+ * usuário mudam, ou o usuário é excluído, a época é incrementada e os tokens antigos deixam de ser aceitos.
+ *
+ * A época é gravada em tb_permission_epoch na mesma transação da alteração, de modo que sobrevive a reinícios e é
+ * vista por instâncias que sobem depois. O Resource Server consulta apenas a cópia em memória, carregada do banco na
+ * primeira consulta e atualizada após o commit local ou ao receber a invalidação USER_PERMISSIONS de outra instância.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bookCatalog.bookcatalog.entities.PermissionEpoch;
+import com.bookCatalog.bookcatalog.repositories.PermissionEpochRepository;
+
+@Component
+public class PermissionEpochs {
+
+	private static Logger logger = LoggerFactory.getLogger(PermissionEpochs.class);
+
+	@Autowired
+	private PermissionEpochRepository repository;
+
+	private final ConcurrentMap<Long, Long> epochs = new ConcurrentHashMap<>();
+
+	private volatile boolean loaded;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		ensureLoaded();
+	}
+
+	/**
+	 * Obtém a época atual de um usuário. Usuários cujas permissões nunca mudaram estão na época 0.
+	 *
+	 * @param userId O ID do usuário.
+	 * @return A época atual.
+	 */
+	public long current(Long userId) {
+		ensureLoaded();
+		Long epoch = epochs.get(userId);
+		return epoch == null ? 0L : epoch;
+	}
+
+	/**
+	 * Verifica se um token emitido na época informada ainda reflete as permissões atuais do usuário.
+	 *
+	 * @param userId O ID do usuário.
+	 * @param epoch  A época registrada no token.
+	 * @return true se o token ainda é válido, false caso contrário.
+	 */
+	public boolean isCurrent(Long userId, long epoch) {
+		return epoch >= current(userId);
+	}
+
+	/**
+	 * Incrementa a época do usuário no banco de dados, invalidando todos os tokens emitidos anteriormente. Quando
+	 * chamado dentro de uma transação, o incremento é gravado nela e a cópia em memória só muda após o commit.
+	 *
+	 * @param userId O ID do usuário.
+	 */
+	@Transactional
+	public void bump(Long userId) {
+		if (repository.increment(userId) == 0) {
+			repository.save(new PermissionEpoch(userId, 1L));
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					refresh(userId);
+				}
+			});
+		}
+		else {
+			refresh(userId);
+		}
+	}
+
+	/**
+	 * Relê do banco de dados a época de um usuário alterada por outra instância.
+	 *
+	 * @param userId O ID do usuário.
+	 */
+	public void refresh(Long userId) {
+		Long epoch = repository.findEpoch(userId);
+		if (epoch != null) {
+			epochs.merge(userId, epoch, Math::max);
+		}
+	}
+
+	private void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		synchronized (this) {
+			if (!loaded) {
+				for (PermissionEpoch epoch : repository.findAll()) {
+					epochs.merge(epoch.getUserId(), epoch.getEpoch(), Math::max);
+				}
+				loaded = true;
+				logger.info("Permission epochs loaded: " + epochs.size() + " users");
+			}
+		}
+	}
+}
@@ -0,0 +1,241 @@
+/*
+ * Índice em memória dos vínculos entre produtos e categorias (tb_product_category), sem entidades JPA.
+ *
+ * Cada categoria guarda um BitSet indexado pelo próprio ID do produto, que por ser IDENTITY é denso o bastante para
+ * ocupar poucos bits por produto. "Produtos da categoria X" e as contagens são operações sobre os bitmaps; "categorias
+ * do produto Y" consulta o bit Y de cada categoria, que são poucas.
+ *
+ * Os bitmaps publicados nunca são alterados: a cada lote de alterações do OutboxDispatcher apenas os bitmaps afetados
+ * são copiados, alterados e trocados junto com o mapa, então as leituras não usam locks. As consultas sempre usam o
+ * último índice publicado e nunca o reconstroem na thread da requisição: antes da primeira carga elas falham com
+ * ServiceUnavailableException e disparam a carga em segundo plano.
+ *
+ * O índice também guarda os nomes das categorias, já em ordem de nome, para que as facetas não consultem tb_category
+ * a cada requisição.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bookCatalog.bookcatalog.dto.CatalogEventDTO;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Aggregate;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Operation;
+
+@Component
+public class ProductCategoryIndex {
+
+	private static Logger logger = LoggerFactory.getLogger(ProductCategoryIndex.class);
+
+	private static final BitSet EMPTY = new BitSet();
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TaskScheduler taskScheduler;
+
+	private final LoadedIndex<Map<Long, BitSet>> productsByCategory = new LoadedIndex<>("Product category index",
+			this::rebuild, () -> taskScheduler);
+
+	// Publicado antes de productsByCategory, então nunca é nulo depois da primeira carga.
+	private volatile Map<Long, String> categoryNames;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${catalog.category-index.rebuild-ms:3600000}", initialDelayString = "${catalog.category-index.rebuild-ms:3600000}")
+	public synchronized void rebuild() {
+		Map<Long, BitSet> map = new HashMap<>();
+		Map<Long, String> names = new HashMap<>();
+		jdbcTemplate.query("SELECT id, name FROM tb_category", rs -> {
+			map.put(rs.getLong(1), new BitSet());
+			names.put(rs.getLong(1), rs.getString(2));
+		});
+		jdbcTemplate.query("SELECT product_id, category_id FROM tb_product_category", rs -> {
+			map.computeIfAbsent(rs.getLong(2), id -> new BitSet()).set(bit(rs.getLong(1)));
+		});
+		categoryNames = sortedByName(names);
+		productsByCategory.publish(Collections.unmodifiableMap(map));
+		logger.info("Product category index loaded: " + map.size() + " categories");
+	}
+
+	@EventListener
+	public synchronized void onCatalogChange(CatalogChangeBatch batch) {
+		Map<Long, BitSet> current = productsByCategory.peek();
+		if (current == null) {
+			return;
+		}
+		Map<Long, BitSet> map = new HashMap<>(current);
+		Map<Long, String> names = new HashMap<>(categoryNames);
+		Set<Long> categories = new HashSet<>();
+		for (CatalogEventDTO event : batch.getEvents()) {
+			if (event.getAggregateType() == Aggregate.CATEGORY) {
+				if (event.getOperation() == Operation.DELETED) {
+					map.remove(event.getAggregateId());
+					names.remove(event.getAggregateId());
+					categories.remove(event.getAggregateId());
+				}
+				else {
+					map.putIfAbsent(event.getAggregateId(), EMPTY);
+					categories.add(event.getAggregateId());
+				}
+			}
+		}
+		if (!categories.isEmpty()) {
+			new NamedParameterJdbcTemplate(jdbcTemplate).query("SELECT id, name FROM tb_category WHERE id IN (:ids)",
+					Collections.singletonMap("ids", categories), rs -> {
+						names.put(rs.getLong(1), rs.getString(2));
+					});
+		}
+
+		Set<Long> products = batch.aggregateIds(Aggregate.PRODUCT);
+		if (!products.isEmpty()) {
+			// Relê os vínculos atuais dos produtos alterados; os excluídos não têm mais vínculos.
+			Map<Long, Set<Long>> links = new HashMap<>();
+			new NamedParameterJdbcTemplate(jdbcTemplate).query(
+					"SELECT product_id, category_id FROM tb_product_category WHERE product_id IN (:ids)",
+					Collections.singletonMap("ids", products), rs -> {
+						links.computeIfAbsent(rs.getLong(2), id -> new HashSet<>()).add(rs.getLong(1));
+					});
+			Map<Long, BitSet> copies = new HashMap<>();
+			for (Map.Entry<Long, BitSet> entry : map.entrySet()) {
+				for (Long productId : products) {
+					boolean linked = links.containsKey(entry.getKey()) && links.get(entry.getKey()).contains(productId);
+					if (entry.getValue().get(bit(productId)) != linked) {
+						copies.computeIfAbsent(entry.getKey(), id -> (BitSet) entry.getValue().clone()).set(bit(productId), linked);
+					}
+				}
+			}
+			for (Map.Entry<Long, Set<Long>> entry : links.entrySet()) {
+				if (!map.containsKey(entry.getKey())) {
+					BitSet bits = copies.computeIfAbsent(entry.getKey(), id -> new BitSet());
+					entry.getValue().forEach(productId -> bits.set(bit(productId)));
+				}
+			}
+			map.putAll(copies);
+		}
+		categoryNames = sortedByName(names);
+		productsByCategory.publish(Collections.unmodifiableMap(map));
+	}
+
+	/**
+	 * Retorna os produtos vinculados a todas as categorias informadas.
+	 *
+	 * @param categoryIds As categorias; não pode ser vazio.
+	 * @return Um novo BitSet com os IDs dos produtos, que pode ser alterado pelo chamador.
+	 */
+	public BitSet productsInAll(Collection<Long> categoryIds) {
+		Map<Long, BitSet> map = index();
+		BitSet result = null;
+		for (Long categoryId : categoryIds) {
+			BitSet bits = map.getOrDefault(categoryId, EMPTY);
+			if (result == null) {
+				result = (BitSet) bits.clone();
+			}
+			else {
+				result.and(bits);
+			}
+		}
+		return result == null ? new BitSet() : result;
+	}
+
+	/**
+	 * Conta os produtos vinculados a todas as categorias informadas.
+	 */
+	public int countInAll(Collection<Long> categoryIds) {
+		if (categoryIds.size() == 1) {
+			return index().getOrDefault(categoryIds.iterator().next(), EMPTY).cardinality();
+		}
+		return productsInAll(categoryIds).cardinality();
+	}
+
+	/**
+	 * Retorna o bitmap de produtos de cada categoria. Os BitSets são compartilhados e não podem ser alterados.
+	 */
+	public Map<Long, BitSet> productsByCategory() {
+		return index();
+	}
+
+	/**
+	 * Retorna o nome de cada categoria, em ordem de nome e, nos empates, de ID.
+	 */
+	public Map<Long, String> categoryNames() {
+		index();
+		return categoryNames;
+	}
+
+	/**
+	 * Retorna os IDs das categorias de um produto, em ordem crescente.
+	 */
+	public long[] categoriesOf(long productId) {
+		int bit = bit(productId);
+		List<Long> ids = new ArrayList<>();
+		for (Map.Entry<Long, BitSet> entry : index().entrySet()) {
+			if (entry.getValue().get(bit)) {
+				ids.add(entry.getKey());
+			}
+		}
+		long[] array = new long[ids.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = ids.get(i);
+		}
+		Arrays.sort(array);
+		return array;
+	}
+
+	/**
+	 * Retorna uma página de IDs de um conjunto de produtos, em ordem de ID.
+	 */
+	public static List<Long> page(BitSet products, boolean ascending, long offset, int size) {
+		List<Long> ids = new ArrayList<>(size);
+		long skipped = 0;
+		int bit = ascending ? products.nextSetBit(0) : products.previousSetBit(products.length() - 1);
+		while (bit >= 0 && ids.size() < size) {
+			if (skipped++ >= offset) {
+				ids.add((long) bit);
+			}
+			bit = ascending ? products.nextSetBit(bit + 1) : products.previousSetBit(bit - 1);
+		}
+		return ids;
+	}
+
+	private Map<Long, BitSet> index() {
+		return productsByCategory.get();
+	}
+
+	private static Map<Long, String> sortedByName(Map<Long, String> names) {
+		Map<Long, String> sorted = new LinkedHashMap<>();
+		names.entrySet().stream()
+				.sorted(Map.Entry.<Long, String>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+				.forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+		return Collections.unmodifiableMap(sorted);
+	}
+
+	/**
+	 * Posição do produto nos bitmaps dos índices em memória. Um ID acima de Integer.MAX_VALUE não cabe em um BitSet e
+	 * falha com ArithmeticException, em vez de o produto ser omitido em silêncio.
+	 */
+	static int bit(long productId) {
+		return Math.toIntExact(productId);
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Bitmaps das faixas de preço usadas na navegação facetada, no mesmo formato do ProductCategoryIndex (um bit por ID
+ * de produto). Com eles, a contagem de uma faixa ou categoria dentro de um filtro é a cardinalidade de uma interseção
+ * de bitmaps, sem COUNT(*) por faceta.
+ *
+ * As faixas são definidas por catalog.facets.price-buckets (limites crescentes; cada faixa é [limite, próximo limite)
+ * e a última não tem fim). Produtos sem preço ficam apenas no bitmap de todos os produtos. A atualização segue o
+ * ProductSortIndex: carga na inicialização, reconstrução periódica e cópia dos bitmaps afetados a cada lote da outbox.
+ * Como no ProductCategoryIndex, a thread da requisição nunca reconstrói os bitmaps: antes da primeira carga as
+ * consultas falham com ServiceUnavailableException e disparam a carga em segundo plano.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Aggregate;
+import com.bookCatalog.bookcatalog.repositories.ProductRepository;
+import com.bookCatalog.bookcatalog.repositories.ProductSortKey;
+
+@Component
+public class ProductFacetIndex {
+
+	private static Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+	@Value("${catalog.facets.price-buckets:0,50,100,500,1000,5000}")
+	private double[] bounds;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private TaskScheduler taskScheduler;
+
+	private final LoadedIndex<State> state = new LoadedIndex<>("Product facet index", this::rebuild,
+			() -> taskScheduler);
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${catalog.facets.rebuild-ms:3600000}", initialDelayString = "${catalog.facets.rebuild-ms:3600000}")
+	public synchronized void rebuild() {
+		List<ProductSortKey> rows = repository.findAllSortKeys();
+		BitSet all = new BitSet();
+		BitSet[] buckets = new BitSet[bounds.length];
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new BitSet();
+		}
+		for (ProductSortKey row : rows) {
+			int bit = ProductCategoryIndex.bit(row.getId());
+			all.set(bit);
+			int bucket = bucketOf(row.getPrice());
+			if (bucket >= 0) {
+				buckets[bucket].set(bit);
+			}
+		}
+		state.publish(new State(all, buckets));
+		logger.info("Product facet index loaded: " + rows.size() + " products");
+	}
+
+	@EventListener
+	public synchronized void onCatalogChange(CatalogChangeBatch batch) {
+		Set<Long> changed = batch.aggregateIds(Aggregate.PRODUCT);
+		State current = state.peek();
+		if (changed.isEmpty() || current == null) {
+			return;
+		}
+		BitSet all = (BitSet) current.all.clone();
+		BitSet[] buckets = current.buckets.clone();
+		boolean[] copied = new boolean[buckets.length];
+
+		// Remove os produtos alterados de todas as faixas e os recoloca conforme o preço atual; os excluídos não
+		// retornam linha.
+		for (Long id : changed) {
+			int bit = ProductCategoryIndex.bit(id);
+			all.clear(bit);
+			for (int i = 0; i < buckets.length; i++) {
+				if (buckets[i].get(bit)) {
+					bucket(buckets, copied, i).clear(bit);
+				}
+			}
+		}
+		for (ProductSortKey row : repository.findSortKeys(changed)) {
+			int bit = ProductCategoryIndex.bit(row.getId());
+			all.set(bit);
+			int bucket = bucketOf(row.getPrice());
+			if (bucket >= 0) {
+				bucket(buckets, copied, bucket).set(bit);
+			}
+		}
+		state.publish(new State(all, buckets));
+	}
+
+	/**
+	 * Retorna um novo BitSet com todos os produtos, que pode ser alterado pelo chamador.
+	 */
+	public BitSet allProducts() {
+		return (BitSet) state.get().all.clone();
+	}
+
+	public double[] getBounds() {
+		return bounds.clone();
+	}
+
+	/**
+	 * Conta, para cada faixa de preço, os produtos do filtro.
+	 *
+	 * @param filter  Os produtos do filtro.
+	 * @param scratch Um BitSet de trabalho, reaproveitado entre as interseções.
+	 * @return As quantidades, na ordem das faixas.
+	 */
+	public int[] countByPrice(BitSet filter, BitSet scratch) {
+		BitSet[] buckets = state.get().buckets;
+		int[] counts = new int[buckets.length];
+		for (int i = 0; i < buckets.length; i++) {
+			counts[i] = intersectionCount(filter, buckets[i], scratch);
+		}
+		return counts;
+	}
+
+	/**
+	 * Conta os elementos comuns a dois bitmaps usando scratch como área de trabalho, sem alocar um novo BitSet.
+	 */
+	public static int intersectionCount(BitSet a, BitSet b, BitSet scratch) {
+		scratch.clear();
+		scratch.or(a);
+		scratch.and(b);
+		return scratch.cardinality();
+	}
+
+	private int bucketOf(Double price) {
+		if (price == null) {
+			return -1;
+		}
+		for (int i = bounds.length - 1; i >= 0; i--) {
+			if (price >= bounds[i]) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// Copia a faixa na primeira alteração do lote, preservando o bitmap publicado.
+	private static BitSet bucket(BitSet[] buckets, boolean[] copied, int i) {
+		if (!copied[i]) {
+			buckets[i] = (BitSet) buckets[i].clone();
+			copied[i] = true;
+		}
+		return buckets[i];
+	}
+
+	private static final class State {
+		private final BitSet all;
+		private final BitSet[] buckets;
+
+		private State(BitSet all, BitSet[] buckets) {
+			this.all = all;
+			this.buckets = buckets;
+		}
+	}
+}
@@ -0,0 +1,292 @@
+/*
+ * Ordenações pré-calculadas dos produtos por nome, preço e data. Cada ordenação é um par de arrays (IDs e chaves)
+ * já ordenado por (chave, id), de modo que uma página é apenas um trecho do array: nenhuma ordenação é feita no banco,
+ * que só busca as linhas da página por chave primária.
+ *
+ * Os arrays são imutáveis e trocados por cópia a cada lote de alterações publicado pelo OutboxDispatcher, então as
+ * leituras não usam locks. Como o despachante também entrega as alterações de outros nós, todos os nós convergem;
+ * a reconstrução completa periódica corrige alterações feitas fora da aplicação.
+ *
+ * A ordem dos nomes depende da collation do banco. Por padrão o índice compara os nomes como String (ordem binária,
+ * a do H2 e da collation "C" do PostgreSQL); catalog.sort-index.name-collation define outro locale para o Collator.
+ * A cada reconstrução completa a ordem por nome é conferida com um ORDER BY no banco e, se divergir, o índice deixa
+ * de atender essa ordenação, que volta a ser feita pelo banco.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Aggregate;
+import com.bookCatalog.bookcatalog.repositories.ProductRepository;
+import com.bookCatalog.bookcatalog.repositories.ProductSortKey;
+
+@Component
+public class ProductSortIndex {
+
+	private static Logger logger = LoggerFactory.getLogger(ProductSortIndex.class);
+
+	// Chaves nulas primeiro e demais em ordem natural; a ordem dos nomes pode ser trocada por um Collator.
+	@SuppressWarnings("unchecked")
+	private static final Comparator<Object> NATURAL_ORDER = Comparator
+			.nullsFirst((a, b) -> ((Comparable<Object>) a).compareTo(b));
+
+	private static final Map<String, Function<ProductSortKey, Comparable<?>>> KEYS = Map.of(
+			"name", ProductSortKey::getName,
+			"price", ProductSortKey::getPrice,
+			"date", ProductSortKey::getDate);
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Value("${catalog.sort-index.name-collation:}")
+	private String nameCollation;
+
+	// Nulo até a primeira carga.
+	private volatile Map<String, View> views;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${catalog.sort-index.rebuild-ms:3600000}", initialDelayString = "${catalog.sort-index.rebuild-ms:3600000}")
+	public synchronized void rebuild() {
+		List<ProductSortKey> rows = repository.findAllSortKeys();
+		Map<String, View> map = new LinkedHashMap<>();
+		for (Map.Entry<String, Function<ProductSortKey, Comparable<?>>> key : KEYS.entrySet()) {
+			Comparator<Object> order = keyOrder(key.getKey());
+			map.put(key.getKey(), View.of(entries(rows, key.getValue(), order), order));
+		}
+		if (!matchesDatabaseOrder(map.get("name"))) {
+			logger.warn("Product names are ordered differently by the database collation; sorting by name is left to "
+					+ "the database (see catalog.sort-index.name-collation)");
+			map.remove("name");
+		}
+		views = Collections.unmodifiableMap(map);
+		logger.info("Product sort index loaded: " + rows.size() + " products");
+	}
+
+	@EventListener
+	public synchronized void onCatalogChange(CatalogChangeBatch batch) {
+		Set<Long> changed = batch.aggregateIds(Aggregate.PRODUCT);
+		Map<String, View> current = views;
+		if (changed.isEmpty() || current == null) {
+			return;
+		}
+		// Produtos excluídos não retornam linha e apenas saem das ordenações.
+		List<ProductSortKey> rows = repository.findSortKeys(changed);
+		Map<String, View> map = new LinkedHashMap<>();
+		for (Map.Entry<String, View> view : current.entrySet()) {
+			Entry[] added = entries(rows, KEYS.get(view.getKey()), view.getValue().order);
+			map.put(view.getKey(), view.getValue().replace(changed, added));
+		}
+		views = Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * Indica se a ordenação pode ser atendida pelo índice: uma única propriedade entre name, price e date, com o
+	 * índice já carregado e, para name, com a ordem conferida com a do banco.
+	 */
+	public boolean supports(Sort sort) {
+		Map<String, View> current = views;
+		if (current == null) {
+			return false;
+		}
+		List<Sort.Order> orders = sort.toList();
+		return orders.size() == 1 && current.containsKey(orders.get(0).getProperty());
+	}
+
+	/**
+	 * Retorna os IDs de uma página na ordem solicitada. O custo é proporcional ao tamanho da página.
+	 *
+	 * @param sort   Uma ordenação aceita por {@link #supports(Sort)}.
+	 * @param offset A posição do primeiro elemento da página.
+	 * @param size   O tamanho da página.
+	 * @return Os IDs da página, possivelmente menos que size no fim da ordenação.
+	 */
+	public List<Long> page(Sort sort, long offset, int size) {
+		Sort.Order order = sort.toList().get(0);
+		View view = views.get(order.getProperty());
+		int n = view.ids.length;
+		int from = (int) Math.min(offset, n);
+		int to = Math.min(from + size, n);
+		List<Long> ids = new ArrayList<>(to - from);
+		for (int i = from; i < to; i++) {
+			ids.add(view.ids[order.isAscending() ? i : n - 1 - i]);
+		}
+		return ids;
+	}
+
+	/**
+	 * Retorna os IDs de uma página considerando apenas os produtos do conjunto informado. Percorre a ordenação desde
+	 * o início até completar a página, portanto o custo cresce com o offset e com a raridade dos produtos do conjunto;
+	 * o ProductService só usa este método até catalog.sort-index.max-filtered-offset.
+	 *
+	 * @param sort     Uma ordenação aceita por {@link #supports(Sort)}.
+	 * @param products Os IDs dos produtos aceitos.
+	 * @param offset   A posição do primeiro elemento da página, contada entre os produtos aceitos.
+	 * @param size     O tamanho da página.
+	 * @return Os IDs da página.
+	 */
+	public List<Long> page(Sort sort, BitSet products, long offset, int size) {
+		Sort.Order order = sort.toList().get(0);
+		View view = views.get(order.getProperty());
+		int n = view.ids.length;
+		List<Long> ids = new ArrayList<>(size);
+		long skipped = 0;
+		for (int i = 0; i < n && ids.size() < size; i++) {
+			long id = view.ids[order.isAscending() ? i : n - 1 - i];
+			if (products.get(ProductCategoryIndex.bit(id)) && skipped++ >= offset) {
+				ids.add(id);
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Retorna os produtos cuja chave está no intervalo [from, to), localizado por busca binária na ordenação.
+	 *
+	 * @param property Uma das propriedades indexadas.
+	 * @param from     O início do intervalo, ou null para começar na menor chave não nula.
+	 * @param to       O fim (exclusivo) do intervalo, ou null para ir até a maior chave.
+	 * @return Um novo BitSet com os IDs dos produtos.
+	 */
+	public BitSet range(String property, Comparable<?> from, Comparable<?> to) {
+		View view = views.get(property);
+		int start = view.lowerBound(from);
+		int end = to == null ? view.ids.length : view.lowerBound(to);
+		BitSet products = new BitSet();
+		for (int i = start; i < end; i++) {
+			products.set(ProductCategoryIndex.bit(view.ids[i]));
+		}
+		return products;
+	}
+
+	/**
+	 * Retorna o número de produtos indexados. O valor acompanha os lotes do OutboxDispatcher e pode estar atrasado
+	 * em relação ao banco, portanto é um total aproximado.
+	 */
+	public long size() {
+		return views.get("price").ids.length;
+	}
+
+	private boolean matchesDatabaseOrder(View names) {
+		long[] ids = repository.findIdsOrderByName().stream().mapToLong(Long::longValue).toArray();
+		return Arrays.equals(names.ids, ids);
+	}
+
+	private Comparator<Object> keyOrder(String property) {
+		if (!"name".equals(property) || nameCollation.isEmpty()) {
+			return NATURAL_ORDER;
+		}
+		return Comparator.nullsFirst(Collator.getInstance(Locale.forLanguageTag(nameCollation)));
+	}
+
+	private static Entry[] entries(List<ProductSortKey> rows, Function<ProductSortKey, Comparable<?>> key,
+			Comparator<Object> order) {
+		Entry[] entries = new Entry[rows.size()];
+		for (int i = 0; i < entries.length; i++) {
+			ProductSortKey row = rows.get(i);
+			entries[i] = new Entry(row.getId(), key.apply(row));
+		}
+		Arrays.sort(entries, (a, b) -> a.compareTo(b.id, b.key, order));
+		return entries;
+	}
+
+	private static final class Entry {
+		private final long id;
+		private final Object key;
+
+		private Entry(long id, Object key) {
+			this.id = id;
+			this.key = key;
+		}
+
+		private int compareTo(long otherId, Object otherKey, Comparator<Object> order) {
+			int result = order.compare(key, otherKey);
+			return result != 0 ? result : Long.compare(id, otherId);
+		}
+	}
+
+	private static final class View {
+		private final long[] ids;
+		private final Object[] keys;
+		private final Comparator<Object> order;
+
+		private View(long[] ids, Object[] keys, Comparator<Object> order) {
+			this.ids = ids;
+			this.keys = keys;
+			this.order = order;
+		}
+
+		private static View of(Entry[] entries, Comparator<Object> order) {
+			long[] ids = new long[entries.length];
+			Object[] keys = new Object[entries.length];
+			for (int i = 0; i < entries.length; i++) {
+				ids[i] = entries[i].id;
+				keys[i] = entries[i].key;
+			}
+			return new View(ids, keys, order);
+		}
+
+		// Primeira posição com chave maior ou igual a key; uma key nula pula as chaves nulas, que vêm primeiro.
+		private int lowerBound(Comparable<?> key) {
+			int low = 0;
+			int high = ids.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (keys[mid] == null || (key != null && order.compare(keys[mid], key) < 0)) {
+					low = mid + 1;
+				}
+				else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * Retorna uma nova ordenação sem os IDs alterados, intercalada com as novas entradas já ordenadas.
+		 */
+		private View replace(Set<Long> changed, Entry[] added) {
+			long[] newIds = new long[ids.length + added.length];
+			Object[] newKeys = new Object[newIds.length];
+			int size = 0;
+			int a = 0;
+			for (int i = 0; i < ids.length; i++) {
+				if (changed.contains(ids[i])) {
+					continue;
+				}
+				while (a < added.length && added[a].compareTo(ids[i], keys[i], order) < 0) {
+					newIds[size] = added[a].id;
+					newKeys[size++] = added[a++].key;
+				}
+				newIds[size] = ids[i];
+				newKeys[size++] = keys[i];
+			}
+			while (a < added.length) {
+				newIds[size] = added[a].id;
+				newKeys[size++] = added[a++].key;
+			}
+			return new View(Arrays.copyOf(newIds, size), Arrays.copyOf(newKeys, size), order);
+		}
+	}
+}
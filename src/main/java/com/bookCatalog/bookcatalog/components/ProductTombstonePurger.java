@@ -0,0 +1,31 @@
+/*
+ * Remoção periódica dos registros de exclusão de produtos (tb_product_tombstone) mais antigos que a retenção da
+ * sincronização incremental. Clientes cujo token seja anterior à retenção recebem uma sincronização completa.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bookCatalog.bookcatalog.services.ProductService;
+
+@Component
+public class ProductTombstonePurger {
+
+	private static Logger logger = LoggerFactory.getLogger(ProductTombstonePurger.class);
+
+	@Autowired
+	private ProductService productService;
+
+	@Scheduled(fixedDelayString = "${catalog.sync.tombstone-purge-ms:3600000}")
+	public void purge() {
+		int removed = productService.purgeTombstones();
+		if (removed > 0) {
+			logger.info("Product tombstone purge removed " + removed + " records");
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Registro em memória dos refresh tokens emitidos, usado para rotação e detecção de reuso.
+ *
+ * Cada login (grant password) inicia uma "família" de refresh tokens. Cada renovação consome o token apresentado e
+ * registra o novo na mesma família. Se um token já consumido for apresentado novamente, a família inteira é revogada,
+ * pois isso indica que o token vazou. Os registros expirados são removidos em lote por uma tarefa agendada.
+ *
+ * Como o registro é mantido apenas em memória, refresh tokens emitidos antes de um reinício deixam de ser aceitos.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.common.exceptions.InvalidGrantException;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RefreshTokenRegistry {
+
+	private static Logger logger = LoggerFactory.getLogger(RefreshTokenRegistry.class);
+
+	private final ConcurrentMap<String, Entry> tokens = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Family> families = new ConcurrentHashMap<>();
+
+	/**
+	 * Inicia uma nova família de refresh tokens.
+	 *
+	 * @return O identificador da família.
+	 */
+	public String newFamily() {
+		return UUID.randomUUID().toString();
+	}
+
+	/**
+	 * Registra um refresh token recém-emitido.
+	 *
+	 * @param jti       O identificador (claim "jti") do refresh token.
+	 * @param family    A família à qual o token pertence.
+	 * @param expiresAt O instante de expiração do token.
+	 */
+	public void register(String jti, String family, Instant expiresAt) {
+		Family f = families.computeIfAbsent(family, Family::new);
+		f.extend(expiresAt);
+		tokens.put(jti, new Entry(f, expiresAt));
+	}
+
+	/**
+	 * Consome um refresh token. Cada token só pode ser usado uma vez.
+	 *
+	 * @param jti O identificador (claim "jti") do refresh token apresentado.
+	 * @return A família do token, para que o novo token seja registrado nela.
+	 * @throws InvalidGrantException Se o token for desconhecido, tiver sido revogado ou reutilizado.
+	 */
+	public String consume(String jti) {
+		Entry entry = jti == null ? null : tokens.get(jti);
+		if (entry == null) {
+			throw new InvalidGrantException("Unknown refresh token");
+		}
+		if (entry.family.revoked) {
+			throw new InvalidGrantException("Refresh token revoked");
+		}
+		if (!entry.consumed.compareAndSet(false, true)) {
+			entry.family.revoked = true;
+			logger.warn("Refresh token reuse detected, revoking token family");
+			throw new InvalidGrantException("Refresh token reuse detected");
+		}
+		return entry.family.id;
+	}
+
+	/**
+	 * Remove em lote os tokens e famílias expirados.
+	 */
+	@Scheduled(fixedDelayString = "${jwt.refresh-sweep-ms:60000}")
+	public void sweep() {
+		Instant now = Instant.now();
+		int removed = 0;
+		for (Iterator<Entry> it = tokens.values().iterator(); it.hasNext();) {
+			if (it.next().expiresAt.isBefore(now)) {
+				it.remove();
+				removed++;
+			}
+		}
+		families.values().removeIf(f -> f.expiresAt.isBefore(now));
+		if (removed > 0) {
+			logger.info("Refresh token sweep removed " + removed + " expired tokens");
+		}
+	}
+
+	private static class Family {
+		private final String id;
+		private volatile boolean revoked;
+		private volatile Instant expiresAt = Instant.EPOCH;
+
+		private Family(String id) {
+			this.id = id;
+		}
+
+		private synchronized void extend(Instant instant) {
+			if (instant.isAfter(expiresAt)) {
+				expiresAt = instant;
+			}
+		}
+	}
+
+	private static class Entry {
+		private final Family family;
+		private final Instant expiresAt;
+		private final AtomicBoolean consumed = new AtomicBoolean();
+
+		private Entry(Family family, Instant expiresAt) {
+			this.family = family;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Registro em memória dos papéis (tb_role). A tabela possui poucas linhas e quase nunca muda, então ela é carregada
+ * uma única vez na inicialização e servida a partir de um mapa imutável, sem consultas por papel.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.bookCatalog.bookcatalog.entities.Role;
+import com.bookCatalog.bookcatalog.repositories.RoleRepository;
+import com.bookCatalog.bookcatalog.services.exceptions.ResourceNotFoundException;
+
+@Component
+public class RoleRegistry {
+
+	private static Logger logger = LoggerFactory.getLogger(RoleRegistry.class);
+
+	// Instâncias de GrantedAuthority internadas por nome, compartilhadas por todos os usuários.
+	private static final ConcurrentMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+	@Autowired
+	private RoleRepository repository;
+
+	private volatile Map<Long, Role> rolesById;
+
+	/**
+	 * Retorna a instância internada de GrantedAuthority para o nome informado.
+	 * É estático para poder ser usado pelas entidades, que não recebem injeção de dependências.
+	 *
+	 * @param authority O nome da autoridade, por exemplo "ROLE_ADMIN".
+	 * @return A instância compartilhada de GrantedAuthority.
+	 */
+	public static GrantedAuthority authority(String authority) {
+		return AUTHORITIES.computeIfAbsent(authority, SimpleGrantedAuthority::new);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		reload();
+	}
+
+	/**
+	 * Recarrega os papéis do banco de dados e troca o mapa atual de forma atômica.
+	 *
+	 * @return Os papéis carregados.
+	 */
+	public synchronized Collection<Role> reload() {
+		Map<Long, Role> map = new LinkedHashMap<>();
+		for (Role role : repository.findAll()) {
+			map.put(role.getId(), role);
+			authority(role.getAuthority());
+		}
+		rolesById = Collections.unmodifiableMap(map);
+		logger.info("Role registry loaded: " + map.size() + " roles");
+		return rolesById.values();
+	}
+
+	/**
+	 * Obtém um papel pelo seu ID sem acessar o banco de dados.
+	 *
+	 * @param id O ID do papel.
+	 * @return O papel correspondente.
+	 * @throws ResourceNotFoundException Se o papel não existir.
+	 */
+	public Role getRole(Long id) {
+		Role role = roles().get(id);
+		if (role == null) {
+			throw new ResourceNotFoundException("Role not found " + id);
+		}
+		return role;
+	}
+
+	public List<Role> findAll() {
+		return new ArrayList<>(roles().values());
+	}
+
+	private Map<Long, Role> roles() {
+		Map<Long, Role> map = rolesById;
+		if (map == null) {
+			reload();
+			map = rolesById;
+		}
+		return map;
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Serviço de tokens do Authorization Server com rotação de refresh tokens.
+ *
+ * Cada renovação consome o refresh token apresentado e emite um novo, com validade completa (sessão deslizante).
+ * A renovação não reautentica o usuário: a autenticação é reconstruída a partir das claims assinadas do refresh
+ * token, portanto nem o PasswordEncoder nem o UserService.loadUserByUsername são executados.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.time.Instant;
+
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidGrantException;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.TokenRequest;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+
+public class RotatingTokenServices extends DefaultTokenServices {
+
+	private static final String JTI = "jti";
+
+	private final EpochAwareAccessTokenConverter accessTokenConverter;
+	private final RefreshTokenRegistry refreshTokenRegistry;
+
+	public RotatingTokenServices(EpochAwareAccessTokenConverter accessTokenConverter, RefreshTokenRegistry refreshTokenRegistry) {
+		this.accessTokenConverter = accessTokenConverter;
+		this.refreshTokenRegistry = refreshTokenRegistry;
+		setSupportRefreshToken(true);
+		setReuseRefreshToken(false);
+	}
+
+	@Override
+	public OAuth2AccessToken createAccessToken(OAuth2Authentication authentication) throws AuthenticationException {
+		OAuth2AccessToken token = super.createAccessToken(authentication);
+		register(token, refreshTokenRegistry.newFamily());
+		return token;
+	}
+
+	@Override
+	public OAuth2AccessToken refreshAccessToken(String refreshTokenValue, TokenRequest tokenRequest) throws AuthenticationException {
+		String family = refreshTokenRegistry.consume(jtiOf(refreshTokenValue));
+		OAuth2AccessToken token = super.refreshAccessToken(refreshTokenValue, tokenRequest);
+		register(token, family);
+		return token;
+	}
+
+	private void register(OAuth2AccessToken token, String family) {
+		OAuth2RefreshToken refreshToken = token.getRefreshToken();
+		if (refreshToken == null) {
+			return;
+		}
+		Instant expiresAt = Instant.MAX;
+		if (refreshToken instanceof ExpiringOAuth2RefreshToken) {
+			expiresAt = ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration().toInstant();
+		}
+		refreshTokenRegistry.register(jtiOf(refreshToken.getValue()), family, expiresAt);
+	}
+
+	private String jtiOf(String tokenValue) {
+		try {
+			Object jti = accessTokenConverter.readClaims(tokenValue).get(JTI);
+			return jti == null ? null : jti.toString();
+		}
+		catch (InvalidTokenException e) {
+			throw new InvalidGrantException("Invalid refresh token");
+		}
+	}
+}
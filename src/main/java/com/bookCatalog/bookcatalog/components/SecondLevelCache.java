@@ -0,0 +1,88 @@
+/*
+ * Operação do cache de segundo nível do Hibernate (Ehcache via JCache, configurado em ehcache.xml).
+ *
+ * As gravações feitas pelas entidades atualizam o cache de forma transacional (READ_WRITE) e as atualizações em
+ * lote em JPQL invalidam as regiões das entidades afetadas. Consultas nativas com @Modifying invalidariam todas as
+ * regiões, pois o Hibernate não sabe quais tabelas foram alteradas; por isso cada uma declara as tabelas que altera
+ * na dica org.hibernate.query.native.spaces. Em várias instâncias, as demais precisam ser avisadas: os métodos
+ * evict* são o ponto de entrada para esse aviso vindo de fora do nó.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.bookCatalog.bookcatalog.dto.CacheRegionDTO;
+import com.bookCatalog.bookcatalog.entities.Category;
+import com.bookCatalog.bookcatalog.entities.Product;
+import com.bookCatalog.bookcatalog.entities.Role;
+
+@Component
+public class SecondLevelCache {
+
+	public static final String PRODUCT_CATEGORIES = Product.class.getName() + ".categories";
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	public void evictProduct(Long id) {
+		cache().evictEntityData(Product.class, id);
+		cache().evictCollectionData(PRODUCT_CATEGORIES, id);
+	}
+
+	public void evictProducts() {
+		cache().evictEntityData(Product.class);
+		cache().evictCollectionData(PRODUCT_CATEGORIES);
+	}
+
+	public void evictCategory(Long id) {
+		cache().evictEntityData(Category.class, id);
+	}
+
+	public void evictCategories() {
+		cache().evictEntityData(Category.class);
+	}
+
+	public void evictRoles() {
+		cache().evictEntityData(Role.class);
+	}
+
+	public void evictAll() {
+		cache().evictAllRegions();
+	}
+
+	/**
+	 * Retorna as estatísticas de cada região do cache de segundo nível.
+	 */
+	public List<CacheRegionDTO> statistics() {
+		Statistics statistics = sessionFactory().getStatistics();
+		String[] regions = statistics.getSecondLevelCacheRegionNames();
+		List<CacheRegionDTO> list = new ArrayList<>(regions.length);
+		for (String region : regions) {
+			CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+			if (stats == null) {
+				continue;
+			}
+			list.add(new CacheRegionDTO(region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount(),
+					stats.getElementCountInMemory()));
+		}
+		return list;
+	}
+
+	private org.hibernate.Cache cache() {
+		return sessionFactory().getCache();
+	}
+
+	private SessionFactory sessionFactory() {
+		return entityManagerFactory.unwrap(SessionFactory.class);
+	}
+}
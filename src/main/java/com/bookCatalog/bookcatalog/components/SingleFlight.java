@@ -0,0 +1,18 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um método de leitura cujas chamadas concorrentes com os mesmos argumentos devem compartilhar uma única
+ * execução (ver SingleFlightAspect). Os argumentos precisam implementar equals/hashCode e o resultado é entregue
+ * à mesma instância para todos os chamadores, portanto não deve ser alterado por eles.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SingleFlight {
+}
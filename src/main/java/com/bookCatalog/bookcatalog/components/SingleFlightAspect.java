@@ -0,0 +1,116 @@
+/*
+ * Coalescência de leituras idênticas concorrentes (single-flight). A primeira chamada a um método @SingleFlight com
+ * determinados argumentos executa o método; as que chegam enquanto ela está em andamento aguardam e recebem o mesmo
+ * resultado, ou a mesma exceção, sem consultar o banco de dados.
+ *
+ * O aspecto tem precedência sobre o advice de @Transactional, então as chamadas coalescidas não abrem transação nem
+ * ocupam conexão. Uma chamada coalescida pode receber o resultado de uma leitura iniciada pouco antes de uma escrita
+ * confirmada, a mesma defasagem de uma leitura que tivesse chegado alguns milissegundos antes. Chamadas feitas dentro
+ * de uma transação já aberta não são coalescidas, pois precisam enxergar as próprias escritas ainda não confirmadas.
+ */
+
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bookCatalog.bookcatalog.dto.SingleFlightStatsDTO;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SingleFlightAspect {
+
+	private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+	@Around("@annotation(com.bookCatalog.bookcatalog.components.SingleFlight)")
+	public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return joinPoint.proceed();
+		}
+		String method = joinPoint.getSignature().toShortString();
+		Key key = new Key(method, joinPoint.getArgs());
+		Stats methodStats = stats.computeIfAbsent(method, m -> new Stats());
+		methodStats.calls.increment();
+
+		CompletableFuture<Object> flight = new CompletableFuture<>();
+		CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+		if (existing != null) {
+			methodStats.coalesced.increment();
+			try {
+				return existing.join();
+			}
+			catch (CompletionException e) {
+				throw e.getCause();
+			}
+		}
+		try {
+			Object result = joinPoint.proceed();
+			flight.complete(result);
+			return result;
+		}
+		catch (Throwable e) {
+			flight.completeExceptionally(e);
+			throw e;
+		}
+		finally {
+			inFlight.remove(key, flight);
+		}
+	}
+
+	public List<SingleFlightStatsDTO> statistics() {
+		List<SingleFlightStatsDTO> list = new ArrayList<>(stats.size());
+		stats.forEach((method, s) -> list.add(new SingleFlightStatsDTO(method, s.calls.sum(), s.coalesced.sum())));
+		return list;
+	}
+
+	private static final class Key {
+		private final String method;
+		private final Object[] args;
+		private final int hash;
+
+		private Key(String method, Object[] args) {
+			this.method = method;
+			this.args = args;
+			this.hash = 31 * method.hashCode() + Arrays.hashCode(args);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return method.equals(other.method) && Arrays.equals(args, other.args);
+		}
+	}
+
+	private static final class Stats {
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder coalesced = new LongAdder();
+	}
+}
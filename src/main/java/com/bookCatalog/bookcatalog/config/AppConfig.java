@@ -1,17 +1,23 @@
 package com.bookCatalog.bookcatalog.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
 import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
 
+import com.bookCatalog.bookcatalog.components.EpochAwareAccessTokenConverter;
+import com.bookCatalog.bookcatalog.components.PermissionEpochs;
+
 @Configuration
 public class AppConfig {
 
 	@Value("${jwt.secret}")
 	private String jwtSecret;
+
+	@Autowired
+	private PermissionEpochs permissionEpochs;
 	
 	@Bean
 	public BCryptPasswordEncoder passwordEncoder() {
@@ -19,8 +25,8 @@ public class AppConfig {
 	}
 	
 	@Bean
-	public JwtAccessTokenConverter accessTokenConverter() {
-		JwtAccessTokenConverter tokenConverter = new JwtAccessTokenConverter();
+	public EpochAwareAccessTokenConverter accessTokenConverter() {
+		EpochAwareAccessTokenConverter tokenConverter = new EpochAwareAccessTokenConverter(permissionEpochs);
 		tokenConverter.setSigningKey(jwtSecret);
 		return tokenConverter;
 	}
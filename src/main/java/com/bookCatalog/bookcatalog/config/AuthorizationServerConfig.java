@@ -13,10 +13,12 @@ import org.springframework.security.oauth2.config.annotation.web.configuration.E
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerEndpointsConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerSecurityConfigurer;
 import org.springframework.security.oauth2.provider.token.TokenEnhancerChain;
-import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
 import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
 
+import com.bookCatalog.bookcatalog.components.EpochAwareAccessTokenConverter;
 import com.bookCatalog.bookcatalog.components.JwtTokenEnhancer;
+import com.bookCatalog.bookcatalog.components.RefreshTokenRegistry;
+import com.bookCatalog.bookcatalog.components.RotatingTokenServices;
 
 /**
  * A classe AuthorizationServerConfig é uma classe de configuração do Spring responsável por configurar as
@@ -36,13 +38,16 @@ public class AuthorizationServerConfig extends AuthorizationServerConfigurerAdap
     @Value("${jwt.duration}")
     private Integer jwtDuration;
 
+    @Value("${jwt.refresh-duration}")
+    private Integer jwtRefreshDuration;
+
     // Injetando o BCryptPasswordEncoder para codificar o segredo do cliente
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
 
     // Injetando o JwtAccessTokenConverter responsável por converter os tokens de acesso para o formato JWT
     @Autowired
-    private JwtAccessTokenConverter accessTokenConverter;
+    private EpochAwareAccessTokenConverter accessTokenConverter;
 
     // Injetando o JwtTokenStore responsável por armazenar os tokens JWT
     @Autowired
@@ -56,6 +61,10 @@ public class AuthorizationServerConfig extends AuthorizationServerConfigurerAdap
     @Autowired
     private JwtTokenEnhancer tokenEnhancer;
 
+    // Injetando o registro de refresh tokens usado na rotação e detecção de reuso
+    @Autowired
+    private RefreshTokenRegistry refreshTokenRegistry;
+
     /**
      * Configura as configurações de segurança para o Authorization Server.
      *
@@ -79,8 +88,9 @@ public class AuthorizationServerConfig extends AuthorizationServerConfigurerAdap
                 .withClient(clientId)
                 .secret(passwordEncoder.encode(clientSecret))
                 .scopes("read", "write")
-                .authorizedGrantTypes("password")
-                .accessTokenValiditySeconds(jwtDuration);
+                .authorizedGrantTypes("password", "refresh_token")
+                .accessTokenValiditySeconds(jwtDuration)
+                .refreshTokenValiditySeconds(jwtRefreshDuration);
     }
 
     /**
@@ -91,14 +101,23 @@ public class AuthorizationServerConfig extends AuthorizationServerConfigurerAdap
      */
     @Override
     public void configure(AuthorizationServerEndpointsConfigurer endpoints) throws Exception {
-        // Criando uma TokenEnhancerChain para encadear vários aprimoradores de token juntos
+        // Criando uma TokenEnhancerChain para encadear vários aprimoradores de token juntos.
+        // O JwtTokenEnhancer vem primeiro para que suas claims sejam assinadas dentro do JWT pelo conversor.
         TokenEnhancerChain chain = new TokenEnhancerChain();
-        chain.setTokenEnhancers(Arrays.asList(accessTokenConverter, tokenEnhancer));
+        chain.setTokenEnhancers(Arrays.asList(tokenEnhancer, accessTokenConverter));
+
+        // Serviço de tokens com rotação de refresh tokens. Sem AuthenticationManager, a renovação não recarrega o usuário.
+        RotatingTokenServices tokenServices = new RotatingTokenServices(accessTokenConverter, refreshTokenRegistry);
+        tokenServices.setTokenStore(tokenStore);
+        tokenServices.setTokenEnhancer(chain);
+        tokenServices.setAccessTokenValiditySeconds(jwtDuration);
+        tokenServices.setRefreshTokenValiditySeconds(jwtRefreshDuration);
 
         // Configurando o gerenciador de autenticação, armazenamento de token, conversor de token de acesso e aprimorador de token
         endpoints.authenticationManager(authenticationManager)
                 .tokenStore(tokenStore)
                 .accessTokenConverter(accessTokenConverter)
-                .tokenEnhancer(chain);
+                .tokenEnhancer(chain)
+                .tokenServices(tokenServices);
     }
 }
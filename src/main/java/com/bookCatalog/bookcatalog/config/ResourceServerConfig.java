@@ -28,10 +28,10 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
     private static final String[] PUBLIC = { "/oauth/token", "/h2-console/**" };
 
     // Endpoints acessíveis por OPERATOR e ADMIN, mas só leitura (HTTP GET)
-    private static final String[] OPERATOR_OR_ADMIN = { "/products/**", "/categories/**" };
+    private static final String[] OPERATOR_OR_ADMIN = { "/products/**", "/categories/**", "/catalog/**" };
 
     // Endpoints acessíveis apenas por ADMIN
-    private static final String[] ADMIN = { "/users/**" };    
+    private static final String[] ADMIN = { "/users/**", "/admin/**" };    
 
     // Configuração do Resource Server para utilizar o token store JWT
     @Override
@@ -0,0 +1,37 @@
+package com.bookCatalog.bookcatalog.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * StartupConfig mantém a inicialização antecipada dos beans que não podem esperar o primeiro uso quando o perfil
+ * faststart liga spring.main.lazy-initialization. Um bean com métodos @Scheduled só tem as tarefas registradas
+ * quando é criado; se fosse preguiçoso, a outbox, a expiração de tokens e os expurgos periódicos nunca rodariam.
+ * Os demais beans (serviços, recursos, índices em memória) são criados sob demanda.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        if (!AnnotationUtils.isCandidateClass(beanType, Scheduled.class)) {
+            return false;
+        }
+        Map<Method, Scheduled> methods = MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Scheduled>) method -> AnnotatedElementUtils
+                        .findMergedAnnotation(method, Scheduled.class));
+        return !methods.isEmpty();
+    }
+}
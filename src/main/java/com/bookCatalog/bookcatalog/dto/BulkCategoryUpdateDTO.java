@@ -0,0 +1,54 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * Inclusão e/ou remoção de uma categoria em massa. Os produtos são os IDs informados ou, sem IDs, os produtos da
+ * categoria categoryId.
+ */
+public class BulkCategoryUpdateDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private List<@NotNull(message = "IDs não podem ser nulos") Long> ids;
+	private Long categoryId;
+	private Long add;
+	private Long remove;
+
+	public BulkCategoryUpdateDTO() {
+	}
+
+	public List<Long> getIds() {
+		return ids;
+	}
+
+	public void setIds(List<Long> ids) {
+		this.ids = ids;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public void setCategoryId(Long categoryId) {
+		this.categoryId = categoryId;
+	}
+
+	public Long getAdd() {
+		return add;
+	}
+
+	public void setAdd(Long add) {
+		this.add = add;
+	}
+
+	public Long getRemove() {
+		return remove;
+	}
+
+	public void setRemove(Long remove) {
+		this.remove = remove;
+	}
+}
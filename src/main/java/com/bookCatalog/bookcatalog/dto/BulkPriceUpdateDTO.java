@@ -0,0 +1,66 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * Alteração de preço em massa. Os produtos são os IDs informados ou, sem IDs, os produtos da categoria informada.
+ */
+public class BulkPriceUpdateDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	public enum Operation {
+		// Define o preço como value.
+		SET,
+		// Soma value ao preço (negativo para descontos).
+		ADD,
+		// Aplica value por cento ao preço (negativo para descontos), arredondado em duas casas.
+		PERCENT
+	}
+
+	private List<@NotNull(message = "IDs não podem ser nulos") Long> ids;
+	private Long categoryId;
+
+	@NotNull(message = "Campo requerido")
+	private Operation operation;
+
+	@NotNull(message = "Campo requerido")
+	private Double value;
+
+	public BulkPriceUpdateDTO() {
+	}
+
+	public List<Long> getIds() {
+		return ids;
+	}
+
+	public void setIds(List<Long> ids) {
+		this.ids = ids;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public void setCategoryId(Long categoryId) {
+		this.categoryId = categoryId;
+	}
+
+	public Operation getOperation() {
+		return operation;
+	}
+
+	public void setOperation(Operation operation) {
+		this.operation = operation;
+	}
+
+	public Double getValue() {
+		return value;
+	}
+
+	public void setValue(Double value) {
+		this.value = value;
+	}
+}
@@ -0,0 +1,31 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Resultado de uma alteração em massa: quantos produtos foram alterados e quais. Para cada um foi gravado um evento
+ * UPDATED na outbox, entregue em /catalog/events após o commit.
+ */
+public class BulkUpdateResultDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private int affected;
+	private List<Long> updated;
+
+	public BulkUpdateResultDTO() {
+	}
+
+	public BulkUpdateResultDTO(int affected, List<Long> updated) {
+		this.affected = affected;
+		this.updated = updated;
+	}
+
+	public int getAffected() {
+		return affected;
+	}
+
+	public List<Long> getUpdated() {
+		return updated;
+	}
+}
@@ -0,0 +1,50 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.io.Serializable;
+
+/**
+ * Estatísticas de uma região do cache de segundo nível.
+ */
+public class CacheRegionDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private String region;
+	private long hits;
+	private long misses;
+	private long puts;
+	private long elementsInMemory;
+
+	public CacheRegionDTO() {
+	}
+
+	public CacheRegionDTO(String region, long hits, long misses, long puts, long elementsInMemory) {
+		this.region = region;
+		this.hits = hits;
+		this.misses = misses;
+		this.puts = puts;
+		this.elementsInMemory = elementsInMemory;
+	}
+
+	public String getRegion() {
+		return region;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public long getPuts() {
+		return puts;
+	}
+
+	/**
+	 * Número de elementos na região, ou -1 quando o provedor de cache não informa.
+	 */
+	public long getElementsInMemory() {
+		return elementsInMemory;
+	}
+}
@@ -0,0 +1,49 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.bookCatalog.bookcatalog.entities.OutboxEvent;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Aggregate;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Operation;
+
+public class CatalogEventDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long offset;
+	private Aggregate aggregateType;
+	private Long aggregateId;
+	private Operation operation;
+	private Instant createdAt;
+
+	public CatalogEventDTO() {
+	}
+
+	public CatalogEventDTO(OutboxEvent entity) {
+		this.offset = entity.getId();
+		this.aggregateType = entity.getAggregateType();
+		this.aggregateId = entity.getAggregateId();
+		this.operation = entity.getOperation();
+		this.createdAt = entity.getCreatedAt();
+	}
+
+	public Long getOffset() {
+		return offset;
+	}
+
+	public Aggregate getAggregateType() {
+		return aggregateType;
+	}
+
+	public Long getAggregateId() {
+		return aggregateId;
+	}
+
+	public Operation getOperation() {
+		return operation;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+}
@@ -0,0 +1,30 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Lote de eventos do catálogo entregue a um consumidor, com o offset a partir do qual ele deve continuar.
+ */
+public class CatalogEventsDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private List<CatalogEventDTO> events;
+	private Long nextOffset;
+
+	public CatalogEventsDTO() {
+	}
+
+	public CatalogEventsDTO(List<CatalogEventDTO> events, Long after) {
+		this.events = events;
+		this.nextOffset = events.isEmpty() ? after : events.get(events.size() - 1).getOffset();
+	}
+
+	public List<CatalogEventDTO> getEvents() {
+		return events;
+	}
+
+	public Long getNextOffset() {
+		return nextOffset;
+	}
+}
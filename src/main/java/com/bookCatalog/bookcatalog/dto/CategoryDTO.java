@@ -9,6 +9,7 @@ public class CategoryDTO implements Serializable {
 
 	private Long id;
 	private String name;
+	private Integer productCount;
 	
 	public CategoryDTO() {
 	}
@@ -21,6 +22,7 @@ public class CategoryDTO implements Serializable {
 	public CategoryDTO(Category entity) {
 		this.id = entity.getId();
 		this.name = entity.getName();
+		this.productCount = entity.getProductCount();
 	}
 
 	public Long getId() {
@@ -38,4 +40,8 @@ public class CategoryDTO implements Serializable {
 	public void setName(String name) {
 		this.name = name;
 	}
+
+	public Integer getProductCount() {
+		return productCount;
+	}
 }
@@ -0,0 +1,35 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.io.Serializable;
+
+/**
+ * Quantidade de produtos de uma categoria dentro do filtro atual.
+ */
+public class CategoryFacetDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long id;
+	private String name;
+	private int count;
+
+	public CategoryFacetDTO() {
+	}
+
+	public CategoryFacetDTO(Long id, String name, int count) {
+		this.id = id;
+		this.name = name;
+		this.count = count;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getCount() {
+		return count;
+	}
+}
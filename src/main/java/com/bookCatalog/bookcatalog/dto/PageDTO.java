@@ -0,0 +1,84 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * Envelope compacto das listagens paginadas, usado no lugar da serialização direta do PageImpl. Os totais são
+ * opcionais: ficam ausentes quando a contagem não foi solicitada.
+ */
+@JsonInclude(Include.NON_NULL)
+public class PageDTO<T> implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private List<T> content;
+	private int page;
+	private int size;
+	private boolean hasNext;
+	private Long totalElements;
+	private Integer totalPages;
+	private Boolean approximate;
+
+	public PageDTO() {
+	}
+
+	public PageDTO(Page<T> page) {
+		this(page, page.getTotalElements(), false);
+	}
+
+	public PageDTO(Slice<T> slice, Long totalElements, boolean approximate) {
+		this(slice, slice.getContent(), totalElements, approximate);
+	}
+
+	/**
+	 * Monta o envelope com o conteúdo já convertido, usando a paginação da fatia de entidades de origem.
+	 */
+	public PageDTO(Slice<?> slice, List<T> content, Long totalElements, boolean approximate) {
+		this.content = content;
+		this.page = slice.getNumber();
+		this.size = slice.getSize();
+		this.hasNext = slice.hasNext();
+		if (totalElements != null) {
+			this.totalElements = totalElements;
+			this.totalPages = size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+			this.approximate = approximate;
+		}
+	}
+
+	public List<T> getContent() {
+		return content;
+	}
+
+	public int getPage() {
+		return page;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public boolean isHasNext() {
+		return hasNext;
+	}
+
+	public Long getTotalElements() {
+		return totalElements;
+	}
+
+	public Integer getTotalPages() {
+		return totalPages;
+	}
+
+	/**
+	 * Indica que os totais vêm do cache ou das estatísticas da tabela e podem divergir do valor exato.
+	 */
+	public Boolean getApproximate() {
+		return approximate;
+	}
+}
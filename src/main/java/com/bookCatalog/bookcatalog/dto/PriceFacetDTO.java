@@ -0,0 +1,38 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Quantidade de produtos de uma faixa de preço [min, max) dentro do filtro atual. A última faixa não tem max.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PriceFacetDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Double min;
+	private Double max;
+	private int count;
+
+	public PriceFacetDTO() {
+	}
+
+	public PriceFacetDTO(Double min, Double max, int count) {
+		this.min = min;
+		this.max = max;
+		this.count = count;
+	}
+
+	public Double getMin() {
+		return min;
+	}
+
+	public Double getMax() {
+		return max;
+	}
+
+	public int getCount() {
+		return count;
+	}
+}
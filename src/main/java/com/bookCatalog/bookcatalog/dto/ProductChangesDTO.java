@@ -0,0 +1,56 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Delta de produtos desde um token de sincronização: produtos criados ou alterados, ids de produtos excluídos e o
+ * token a ser enviado na próxima chamada.
+ */
+public class ProductChangesDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private List<ProductDTO> updated;
+	private List<Long> deleted;
+	private String nextToken;
+	private boolean hasMore;
+	private boolean fullResync;
+
+	public ProductChangesDTO() {
+	}
+
+	public ProductChangesDTO(List<ProductDTO> updated, List<Long> deleted, String nextToken, boolean hasMore, boolean fullResync) {
+		this.updated = updated;
+		this.deleted = deleted;
+		this.nextToken = nextToken;
+		this.hasMore = hasMore;
+		this.fullResync = fullResync;
+	}
+
+	public List<ProductDTO> getUpdated() {
+		return updated;
+	}
+
+	public List<Long> getDeleted() {
+		return deleted;
+	}
+
+	public String getNextToken() {
+		return nextToken;
+	}
+
+	/**
+	 * Indica que há mais alterações além deste lote; o cliente deve chamar novamente com o nextToken.
+	 */
+	public boolean isHasMore() {
+		return hasMore;
+	}
+
+	/**
+	 * Indica que o lote parte do início do catálogo e o cliente deve descartar sua cópia local: ocorre na primeira
+	 * sincronização e quando o token é mais antigo que a retenção dos registros de exclusão.
+	 */
+	public boolean isFullResync() {
+		return fullResync;
+	}
+}
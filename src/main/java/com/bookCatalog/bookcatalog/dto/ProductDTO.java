@@ -4,6 +4,7 @@ import java.io.Serializable;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.validation.constraints.NotBlank;
@@ -14,6 +15,8 @@ import javax.validation.constraints.Size;
 
 import com.bookCatalog.bookcatalog.entities.Category;
 import com.bookCatalog.bookcatalog.entities.Product;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 public class ProductDTO implements Serializable {
 	private static final long serialVersionUID = 1L;
@@ -35,13 +38,21 @@ public class ProductDTO implements Serializable {
 	@PastOrPresent(message = "A data do produto não pode ser futura")
 	private Instant date;
 	
+	// Inicializada em cada construtor, já com a capacidade necessária, para não alocar uma lista descartada.
 	@NotEmpty(message = "Produto sem categoria não é permitido")
-	private List<CategoryDTO> categories = new ArrayList<>();
+	private List<CategoryDTO> categories;
+
+	// Miniaturas geradas pelo ImagePipeline, por largura em pixels; ausente enquanto não houver variantes.
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	private Map<Integer, String> imgVariants;
 	
 	public ProductDTO() {
+		this.categories = new ArrayList<>();
 	}
 
 	public ProductDTO(Long id, String name, String description, Double price, String imgUrl, Instant date) {
+		this.categories = new ArrayList<>();
 		this.id = id;
 		this.name = name;
 		this.description = description;
@@ -51,6 +62,18 @@ public class ProductDTO implements Serializable {
 	}
 	
 	public ProductDTO(Product entity) {
+		this(entity, 0);
+	}
+	
+	public ProductDTO(Product entity, Set<Category> categories) {
+		this(entity, categories.size());
+		for (Category category : categories) {
+			this.categories.add(new CategoryDTO(category));
+		}
+	}
+
+	private ProductDTO(Product entity, int categoryCount) {
+		this.categories = new ArrayList<>(categoryCount);
 		this.id = entity.getId();
 		this.name = entity.getName();
 		this.description = entity.getDescription();
@@ -58,11 +81,6 @@ public class ProductDTO implements Serializable {
 		this.imgUrl = entity.getImgUrl();
 		this.date = entity.getDate();
 	}
-	
-	public ProductDTO(Product entity, Set<Category> categories) {
-		this(entity);
-		categories.forEach(cat -> this.categories.add(new CategoryDTO(cat)));
-	}
 
 	public Long getId() {
 		return id;
@@ -112,6 +130,14 @@ public class ProductDTO implements Serializable {
 		this.date = date;
 	}
 
+	public Map<Integer, String> getImgVariants() {
+		return imgVariants;
+	}
+
+	public void setImgVariants(Map<Integer, String> imgVariants) {
+		this.imgVariants = imgVariants;
+	}
+
 	public List<CategoryDTO> getCategories() {
 		return categories;
 	}
@@ -0,0 +1,37 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Contagens para a navegação facetada: o total de produtos do filtro e, dentro dele, por categoria e por faixa de
+ * preço.
+ */
+public class ProductFacetsDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private int total;
+	private List<CategoryFacetDTO> categories;
+	private List<PriceFacetDTO> prices;
+
+	public ProductFacetsDTO() {
+	}
+
+	public ProductFacetsDTO(int total, List<CategoryFacetDTO> categories, List<PriceFacetDTO> prices) {
+		this.total = total;
+		this.categories = categories;
+		this.prices = prices;
+	}
+
+	public int getTotal() {
+		return total;
+	}
+
+	public List<CategoryFacetDTO> getCategories() {
+		return categories;
+	}
+
+	public List<PriceFacetDTO> getPrices() {
+		return prices;
+	}
+}
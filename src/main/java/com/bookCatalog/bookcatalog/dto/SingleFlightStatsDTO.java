@@ -0,0 +1,39 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.io.Serializable;
+
+/**
+ * Chamadas recebidas por um método @SingleFlight e quantas delas aproveitaram uma execução já em andamento.
+ */
+public class SingleFlightStatsDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private String method;
+	private long calls;
+	private long coalesced;
+
+	public SingleFlightStatsDTO() {
+	}
+
+	public SingleFlightStatsDTO(String method, long calls, long coalesced) {
+		this.method = method;
+		this.calls = calls;
+		this.coalesced = coalesced;
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public long getCalls() {
+		return calls;
+	}
+
+	public long getCoalesced() {
+		return coalesced;
+	}
+
+	public double getCoalescingRate() {
+		return calls == 0 ? 0.0 : (double) coalesced / calls;
+	}
+}
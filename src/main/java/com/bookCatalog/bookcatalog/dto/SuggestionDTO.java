@@ -0,0 +1,35 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.io.Serializable;
+
+/**
+ * Sugestão da busca: um produto ou uma categoria cujo nome começa, em alguma palavra, pelo texto digitado.
+ */
+public class SuggestionDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private String type;
+	private Long id;
+	private String name;
+
+	public SuggestionDTO() {
+	}
+
+	public SuggestionDTO(String type, Long id, String name) {
+		this.type = type;
+		this.id = id;
+		this.name = name;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+}
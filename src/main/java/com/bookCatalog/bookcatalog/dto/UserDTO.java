@@ -7,6 +7,7 @@ import java.util.Set;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 
+import com.bookCatalog.bookcatalog.entities.Role;
 import com.bookCatalog.bookcatalog.entities.User;
 
 /**
@@ -42,12 +43,13 @@ public class UserDTO implements Serializable {
     /**
      * Conjunto de papéis (roles) associados ao usuário.
      */
-    Set<RoleDTO> roles = new HashSet<>();
+    Set<RoleDTO> roles;
 
     /**
      * Construtor padrão sem argumentos.
      */
     public UserDTO() {
+        roles = new HashSet<>();
     }
 
     /**
@@ -58,6 +60,7 @@ public class UserDTO implements Serializable {
      * @param email O endereço de email do usuário.
      */
     public UserDTO(Long id, String firstName, String lastName, String email) {
+        this.roles = new HashSet<>();
         this.id = id;
         this.firstName = firstName;
         this.lastName = lastName;
@@ -73,7 +76,12 @@ public class UserDTO implements Serializable {
         firstName = entity.getFirstName();
         lastName = entity.getLastName();
         email = entity.getEmail();
-        entity.getRoles().forEach(role -> this.roles.add(new RoleDTO(role)));
+        Set<Role> entityRoles = entity.getRoles();
+        // Capacidade calculada para o fator de carga padrão, evitando o redimensionamento do HashSet.
+        roles = new HashSet<>(entityRoles.size() * 4 / 3 + 1);
+        for (Role role : entityRoles) {
+            roles.add(new RoleDTO(role));
+        }
     }
 	public Long getId() {
 		return id;
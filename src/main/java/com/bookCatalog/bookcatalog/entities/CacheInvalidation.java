@@ -0,0 +1,90 @@
+package com.bookCatalog.bookcatalog.entities;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.Table;
+
+/**
+ * Invalidação de cache gravada pelo JdbcInvalidationTransport para ser lida pelas demais instâncias.
+ */
+@Entity
+@Table(name = "tb_cache_invalidation")
+public class CacheInvalidation implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	private String nodeId;
+	private String region;
+	private Long entityId;
+
+	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+	private Instant createdAt;
+
+	public CacheInvalidation() {
+	}
+
+	public CacheInvalidation(String nodeId, String region, Long entityId) {
+		this.nodeId = nodeId;
+		this.region = region;
+		this.entityId = entityId;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	public String getRegion() {
+		return region;
+	}
+
+	public Long getEntityId() {
+		return entityId;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	@PrePersist
+	public void prePersist() {
+		createdAt = Instant.now();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((id == null) ? 0 : id.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		CacheInvalidation other = (CacheInvalidation) obj;
+		if (id == null) {
+			if (other.id != null)
+				return false;
+		} else if (!id.equals(other.id))
+			return false;
+		return true;
+	}
+}
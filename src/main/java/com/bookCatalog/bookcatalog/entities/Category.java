@@ -5,18 +5,27 @@ import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToMany;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+
 @Entity
-@Table(name = "tb_category")
+@Table(name = "tb_category", indexes = @Index(name = "idx_category_name", columnList = "name"))
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 public class Category implements Serializable {
 	private static final long serialVersionUID = 1L;
 
@@ -31,6 +40,10 @@ public class Category implements Serializable {
 	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
 	private Instant updatedAt;
 
+	// Contador desnormalizado mantido por instruções de UPDATE em lote; nunca é gravado a partir da entidade.
+	@Column(columnDefinition = "INTEGER DEFAULT 0 NOT NULL", insertable = false, updatable = false)
+	private Integer productCount = 0;
+
 	@ManyToMany(mappedBy = "categories")
 	private Set<Product> products = new HashSet<>();
 	
@@ -66,6 +79,10 @@ public class Category implements Serializable {
 		return updatedAt;
 	}
 
+	public Integer getProductCount() {
+		return productCount;
+	}
+
 	@PrePersist
 	public void prePersist() {
 		createdAt = Instant.now();
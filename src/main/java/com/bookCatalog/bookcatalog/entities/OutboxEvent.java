@@ -0,0 +1,105 @@
+package com.bookCatalog.bookcatalog.entities;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.Table;
+
+/**
+ * Evento de alteração do catálogo gravado na mesma transação da alteração (transactional outbox).
+ * O ID é sequencial e funciona como offset retomável para os consumidores.
+ */
+@Entity
+@Table(name = "tb_outbox_event")
+public class OutboxEvent implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	public enum Aggregate {
+		PRODUCT, CATEGORY
+	}
+
+	public enum Operation {
+		CREATED, UPDATED, DELETED
+	}
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Enumerated(EnumType.STRING)
+	private Aggregate aggregateType;
+	private Long aggregateId;
+
+	@Enumerated(EnumType.STRING)
+	private Operation operation;
+
+	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+	private Instant createdAt;
+
+	public OutboxEvent() {
+	}
+
+	public OutboxEvent(Aggregate aggregateType, Long aggregateId, Operation operation) {
+		this.aggregateType = aggregateType;
+		this.aggregateId = aggregateId;
+		this.operation = operation;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Aggregate getAggregateType() {
+		return aggregateType;
+	}
+
+	public Long getAggregateId() {
+		return aggregateId;
+	}
+
+	public Operation getOperation() {
+		return operation;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	@PrePersist
+	public void prePersist() {
+		createdAt = Instant.now();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((id == null) ? 0 : id.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		OutboxEvent other = (OutboxEvent) obj;
+		if (id == null) {
+			if (other.id != null)
+				return false;
+		} else if (!id.equals(other.id))
+			return false;
+		return true;
+	}
+}
@@ -0,0 +1,62 @@
+package com.bookCatalog.bookcatalog.entities;
+
+import java.io.Serializable;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Época de permissões de um usuário, mantida pelo PermissionEpochs. A linha não referencia tb_user para sobreviver à
+ * exclusão do usuário: os tokens emitidos antes da exclusão continuam recusados.
+ */
+@Entity
+@Table(name = "tb_permission_epoch")
+public class PermissionEpoch implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	private Long userId;
+	private long epoch;
+
+	public PermissionEpoch() {
+	}
+
+	public PermissionEpoch(Long userId, long epoch) {
+		this.userId = userId;
+		this.epoch = epoch;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public long getEpoch() {
+		return epoch;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((userId == null) ? 0 : userId.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		PermissionEpoch other = (PermissionEpoch) obj;
+		if (userId == null) {
+			if (other.userId != null)
+				return false;
+		} else if (!userId.equals(other.userId))
+			return false;
+		return true;
+	}
+}
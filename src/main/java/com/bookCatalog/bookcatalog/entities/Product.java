@@ -5,18 +5,34 @@ import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
+import javax.persistence.PrePersist;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicInsert;
+import org.hibernate.annotations.DynamicUpdate;
+
 @Entity
-@Table(name = "tb_product")
+@Table(name = "tb_product", indexes = {
+	@Index(name = "idx_product_updated_at", columnList = "updatedAt, id"),
+	@Index(name = "idx_product_name", columnList = "name"),
+	@Index(name = "idx_product_price", columnList = "price"),
+	@Index(name = "idx_product_date", columnList = "date") })
+@DynamicInsert
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
 public class Product implements Serializable {
 	private static final long serialVersionUID = 1L;
 
@@ -32,11 +48,19 @@ public class Product implements Serializable {
 	
 	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
 	private Instant date;
+
+	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP")
+	private Instant createdAt;
+
+	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP")
+	private Instant updatedAt;
 	
 	@ManyToMany
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product.categories")
 	@JoinTable(name = "tb_product_category",
 		joinColumns = @JoinColumn(name = "product_id"),
-		inverseJoinColumns = @JoinColumn(name = "category_id"))	
+		inverseJoinColumns = @JoinColumn(name = "category_id"),
+		indexes = @Index(name = "idx_product_category_category", columnList = "category_id"))
 	Set<Category> categories = new HashSet<>();
 	
 	public Product() {
@@ -99,6 +123,28 @@ public class Product implements Serializable {
 		this.date = date;
 	}
 
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public Instant getUpdatedAt() {
+		return updatedAt;
+	}
+
+	// Sem touch, as colunas ficam fora do INSERT (@DynamicInsert) e recebem o DEFAULT CURRENT_TIMESTAMP do banco.
+	@PrePersist
+	public void prePersist() {
+		createdAt = updatedAt;
+	}
+
+	/**
+	 * Marca o produto como alterado no instante informado, que deve vir do relógio do banco de dados
+	 * (ProductRepository.currentTimestamp), o mesmo das atualizações em massa e da sincronização incremental.
+	 */
+	public void touch(Instant instant) {
+		updatedAt = instant;
+	}
+
 	public Set<Category> getCategories() {
 		return categories;
 	}
@@ -0,0 +1,75 @@
+package com.bookCatalog.bookcatalog.entities;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * Registro de exclusão de um produto, usado pela sincronização incremental para informar aos clientes
+ * quais produtos deixaram de existir.
+ */
+@Entity
+@Table(name = "tb_product_tombstone", indexes = @Index(name = "idx_product_tombstone_deleted_at", columnList = "deletedAt, id"))
+public class ProductTombstone implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	private Long productId;
+
+	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+	private Instant deletedAt;
+
+	public ProductTombstone() {
+	}
+
+	public ProductTombstone(Long productId, Instant deletedAt) {
+		this.productId = productId;
+		this.deletedAt = deletedAt;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public Instant getDeletedAt() {
+		return deletedAt;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((id == null) ? 0 : id.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ProductTombstone other = (ProductTombstone) obj;
+		if (id == null) {
+			if (other.id != null)
+				return false;
+		} else if (!id.equals(other.id))
+			return false;
+		return true;
+	}
+}
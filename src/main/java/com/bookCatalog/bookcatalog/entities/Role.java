@@ -2,18 +2,24 @@ package com.bookCatalog.bookcatalog.entities;
 
 import java.io.Serializable;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * A classe Role representa uma entidade de papel/autoridade utilizada para autenticação e autorização.
  * É uma entidade persistente mapeada para a tabela "tb_role" no banco de dados.
  */
 @Entity
 @Table(name = "tb_role")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "role")
 public class Role implements Serializable {
 	private static final long serialVersionUID = 1L;
 
@@ -1,10 +1,11 @@
 package com.bookCatalog.bookcatalog.entities;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -12,24 +13,29 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.bookCatalog.bookcatalog.components.RoleRegistry;
+
 /**
  * A classe User representa uma entidade de usuário no aplicativo.
  *
  * Essa classe é anotada com @Entity da JPA para indicar que ela é uma entidade
  * e pode ser mantida no banco de dados. A anotação @Table especifica o nome
- * da tabela na qual os registros do usuário serão armazenados.
+ * da tabela na qual os registros do usuário serão armazenados. Com @DynamicUpdate
+ * o UPDATE inclui apenas as colunas alteradas.
  */
 @Entity
-@Table(name = "tb_user")
+@DynamicUpdate
+@Table(name = "tb_user", indexes = @Index(name = "idx_user_first_name", columnList = "firstName"))
 public class User implements UserDetails, Serializable {
 	private static final long serialVersionUID = 1L;
 
@@ -212,12 +218,17 @@ public class User implements UserDetails, Serializable {
 	/**
 	 * Obtenha as autoridades (funções) atribuídas ao usuário.
 	 *
+	 * As instâncias vêm do RoleRegistry, que as mantém internadas, evitando novas alocações a cada chamada.
+	 *
 	 * @return Uma coleção de objetos GrantedAuthority que representam as funções do usuário.
 	 */
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
-		return roles.stream().map(role -> new SimpleGrantedAuthority(role.getAuthority()))
-				.collect(Collectors.toList());
+		List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+		for (Role role : roles) {
+			authorities.add(RoleRegistry.authority(role.getAuthority()));
+		}
+		return authorities;
 	}
 
 	/**
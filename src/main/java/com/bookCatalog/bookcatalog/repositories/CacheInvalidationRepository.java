@@ -0,0 +1,26 @@
+package com.bookCatalog.bookcatalog.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bookCatalog.bookcatalog.entities.CacheInvalidation;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+	List<CacheInvalidation> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+	@Query("SELECT COALESCE(MAX(c.id), 0) FROM CacheInvalidation c")
+	Long findMaxId();
+
+	@Modifying
+	@Query("DELETE FROM CacheInvalidation c WHERE c.createdAt < :instant")
+	int deleteOlderThan(@Param("instant") Instant instant);
+}
@@ -1,6 +1,17 @@
 package com.bookCatalog.bookcatalog.repositories;
 
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bookCatalog.bookcatalog.entities.Category;
@@ -8,4 +19,44 @@ import com.bookCatalog.bookcatalog.entities.Category;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+	// Página sem COUNT(*): busca um elemento a mais apenas para saber se há próxima página.
+	Slice<Category> findSliceBy(Pageable pageable);
+
+	@Query(nativeQuery = true, value = "SELECT COUNT(*) FROM tb_category WHERE product_count <> "
+			+ "(SELECT COUNT(*) FROM tb_product_category pc WHERE pc.category_id = tb_category.id)")
+	long countDivergentProductCounts();
+
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "tb_category"))
+	@Modifying
+	@Query(nativeQuery = true, value = "UPDATE tb_category SET product_count = "
+			+ "(SELECT COUNT(*) FROM tb_product_category pc WHERE pc.category_id = tb_category.id) "
+			+ "WHERE product_count <> (SELECT COUNT(*) FROM tb_product_category pc WHERE pc.category_id = tb_category.id)")
+	int reconcileProductCounts();
+
+	// Verifica existência e dependências em uma única consulta: vazio se a categoria não existe.
+	@Query("SELECT SIZE(c.products) FROM Category c WHERE c.id = :id")
+	Optional<Integer> countProductsById(@Param("id") Long id);
+
+	@Modifying
+	@Query("DELETE FROM Category c WHERE c.id = :id")
+	int deleteDirectlyById(@Param("id") Long id);
+
+	@Query("SELECT p.id FROM Product p JOIN p.categories c WHERE c.id = :id")
+	List<Long> findProductIds(@Param("id") Long id);
+
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "tb_product_category"))
+	@Modifying
+	@Query(nativeQuery = true, value = "DELETE FROM tb_product_category WHERE category_id = :id")
+	int detachProducts(@Param("id") Long id);
+
+	@Modifying
+	@Query("UPDATE Category c SET c.productCount = 0 WHERE c.id = :id")
+	int resetProductCount(@Param("id") Long id);
+
+	// Atualizações em massa não disparam o @PreUpdate; marca os produtos para a sincronização incremental.
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "tb_product"))
+	@Modifying
+	@Query(nativeQuery = true, value = "UPDATE tb_product SET updated_at = CURRENT_TIMESTAMP "
+			+ "WHERE id IN (SELECT pc.product_id FROM tb_product_category pc WHERE pc.category_id = :id)")
+	int touchProductsOf(@Param("id") Long id);
 }
@@ -0,0 +1,44 @@
+package com.bookCatalog.bookcatalog.repositories;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bookCatalog.bookcatalog.entities.OutboxEvent;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+	List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+	List<OutboxEvent> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long after, Long until, Pageable pageable);
+
+	@Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+	Long findMaxId();
+
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "tb_outbox_event"))
+	@Modifying
+	@Query(nativeQuery = true, value = "INSERT INTO tb_outbox_event (aggregate_type, aggregate_id, operation, created_at) "
+			+ "SELECT 'PRODUCT', p.id, :operation, CURRENT_TIMESTAMP FROM tb_product p WHERE p.id IN :ids")
+	int insertProductEvents(@Param("ids") Collection<Long> ids, @Param("operation") String operation);
+
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "tb_outbox_event"))
+	@Modifying
+	@Query(nativeQuery = true, value = "INSERT INTO tb_outbox_event (aggregate_type, aggregate_id, operation, created_at) "
+			+ "SELECT 'PRODUCT', pc.product_id, 'UPDATED', CURRENT_TIMESTAMP FROM tb_product_category pc WHERE pc.category_id = :categoryId")
+	int insertProductEventsForCategory(@Param("categoryId") Long categoryId);
+
+	@Modifying
+	@Query("DELETE FROM OutboxEvent e WHERE e.createdAt < :instant")
+	int deleteOlderThan(@Param("instant") Instant instant);
+}
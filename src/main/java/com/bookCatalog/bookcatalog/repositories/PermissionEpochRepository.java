@@ -0,0 +1,20 @@
+package com.bookCatalog.bookcatalog.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bookCatalog.bookcatalog.entities.PermissionEpoch;
+
+@Repository
+public interface PermissionEpochRepository extends JpaRepository<PermissionEpoch, Long> {
+
+	@Query("SELECT e.epoch FROM PermissionEpoch e WHERE e.userId = :userId")
+	Long findEpoch(@Param("userId") Long userId);
+
+	@Modifying
+	@Query("UPDATE PermissionEpoch e SET e.epoch = e.epoch + 1 WHERE e.userId = :userId")
+	int increment(@Param("userId") Long userId);
+}
@@ -1,6 +1,20 @@
 package com.bookCatalog.bookcatalog.repositories;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bookCatalog.bookcatalog.entities.Product;
@@ -8,4 +22,106 @@ import com.bookCatalog.bookcatalog.entities.Product;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+	// Relógio único para updated_at e para a janela da sincronização incremental: o do banco de dados, o mesmo usado
+	// pelas atualizações em massa (CURRENT_TIMESTAMP), e não o da JVM, que pode divergir entre as instâncias.
+	@Query(nativeQuery = true, value = "SELECT LOCALTIMESTAMP")
+	Timestamp currentTimestamp();
+
+	// Página sem COUNT(*): busca um elemento a mais apenas para saber se há próxima página.
+	Slice<Product> findSliceBy(Pageable pageable);
+
+	// Lê a página por um cursor (ScrollableResults), sem materializar a lista; os produtos lidos não são
+	// colocados no cache de segundo nível, para que uma varredura grande não desaloje os mais acessados.
+	@QueryHints({ @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+			@QueryHint(name = "org.hibernate.cacheMode", value = "GET") })
+	Stream<Product> streamAllBy(Pageable pageable);
+
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "tb_product_category"))
+	@Modifying
+	@Query(nativeQuery = true, value = "DELETE FROM tb_product_category WHERE product_id = :id")
+	int deleteCategoryLinks(@Param("id") Long id);
+
+	@Query("SELECT c.id FROM Product p JOIN p.categories c WHERE p.id = :id")
+	List<Long> findCategoryIds(@Param("id") Long id);
+
+	@Modifying
+	@Query("DELETE FROM Product p WHERE p.id = :id")
+	int deleteDirectlyById(@Param("id") Long id);
+
+	// Keyset por (updatedAt, id), apoiado pelo índice idx_product_updated_at.
+	@Query("SELECT p FROM Product p WHERE (p.updatedAt > :since OR (p.updatedAt = :since AND p.id > :id)) "
+			+ "AND p.updatedAt <= :until ORDER BY p.updatedAt, p.id")
+	List<Product> findChangedSince(@Param("since") Instant since, @Param("id") Long id,
+			@Param("until") Instant until, Pageable pageable);
+
+	@Query("SELECT p.id AS id, p.name AS name, p.price AS price, p.date AS date FROM Product p")
+	List<ProductSortKey> findAllSortKeys();
+
+	@Query("SELECT p.id AS id, p.name AS name, p.price AS price, p.date AS date FROM Product p WHERE p.id IN :ids")
+	List<ProductSortKey> findSortKeys(@Param("ids") Collection<Long> ids);
+
+	// Ordem por nome segundo a collation do banco, para conferir a do ProductSortIndex.
+	@Query("SELECT p.id FROM Product p ORDER BY p.name, p.id")
+	List<Long> findIdsOrderByName();
+
+	// Produtos vinculados a todas as categorias informadas, para as páginas distantes demais para o ProductSortIndex.
+	@Query("SELECT p FROM Product p WHERE (SELECT COUNT(c) FROM Product q JOIN q.categories c "
+			+ "WHERE q = p AND c.id IN :categoryIds) = :count")
+	Slice<Product> findInAllCategories(@Param("categoryIds") Collection<Long> categoryIds, @Param("count") long count,
+			Pageable pageable);
+
+	@Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.categories WHERE p IN :products")
+	List<Product> findProductsWithCategories(@Param("products") List<Product> products);
+
+	@Query("SELECT p.id FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+	List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+	@Query("SELECT p.id FROM Product p WHERE p.id IN :ids AND p.price IS NOT NULL ORDER BY p.id")
+	List<Long> findIdsWithPrice(@Param("ids") Collection<Long> ids);
+
+	@Query("SELECT p.id FROM Product p JOIN p.categories c WHERE c.id = :categoryId ORDER BY p.id")
+	List<Long> findIdsByCategory(@Param("categoryId") Long categoryId);
+
+	@Query("SELECT p.id FROM Product p JOIN p.categories c WHERE c.id = :categoryId AND p.id IN :ids ORDER BY p.id")
+	List<Long> findIdsLinkedTo(@Param("ids") Collection<Long> ids, @Param("categoryId") Long categoryId);
+
+	// Alterações em massa: instruções UPDATE/INSERT/DELETE diretas sobre os IDs já resolvidos pelo serviço. Não
+	// disparam o @PreUpdate, então marcam updated_at para a sincronização incremental. O contexto de persistência é
+	// gravado antes e esvaziado depois de cada instrução, para que nenhuma entidade carregada guarde o estado anterior.
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "tb_product"))
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query(nativeQuery = true, value = "UPDATE tb_product SET price = :price, updated_at = CURRENT_TIMESTAMP WHERE id IN :ids")
+	int setPrice(@Param("ids") Collection<Long> ids, @Param("price") double price);
+
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "tb_product"))
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query(nativeQuery = true, value = "UPDATE tb_product SET price = price + :delta, updated_at = CURRENT_TIMESTAMP "
+			+ "WHERE id IN :ids")
+	int addToPrice(@Param("ids") Collection<Long> ids, @Param("delta") double delta);
+
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "tb_product"))
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query(nativeQuery = true, value = "UPDATE tb_product SET price = ROUND(price * :factor, 2), updated_at = CURRENT_TIMESTAMP "
+			+ "WHERE id IN :ids")
+	int multiplyPrice(@Param("ids") Collection<Long> ids, @Param("factor") double factor);
+
+	@Query("SELECT COUNT(p) FROM Product p WHERE p.id IN :ids AND p.price < 0")
+	long countNegativePrices(@Param("ids") Collection<Long> ids);
+
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "tb_product_category"))
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query(nativeQuery = true, value = "INSERT INTO tb_product_category (product_id, category_id) "
+			+ "SELECT p.id, :categoryId FROM tb_product p WHERE p.id IN :ids AND NOT EXISTS "
+			+ "(SELECT 1 FROM tb_product_category pc WHERE pc.product_id = p.id AND pc.category_id = :categoryId)")
+	int addCategoryLinks(@Param("ids") Collection<Long> ids, @Param("categoryId") Long categoryId);
+
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "tb_product_category"))
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query(nativeQuery = true, value = "DELETE FROM tb_product_category WHERE category_id = :categoryId AND product_id IN :ids")
+	int removeCategoryLinks(@Param("ids") Collection<Long> ids, @Param("categoryId") Long categoryId);
+
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "tb_product"))
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query(nativeQuery = true, value = "UPDATE tb_product SET updated_at = CURRENT_TIMESTAMP WHERE id IN :ids")
+	int touchAll(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,17 @@
+package com.bookCatalog.bookcatalog.repositories;
+
+import java.time.Instant;
+
+/**
+ * Projeção com apenas as colunas usadas pelas ordenações pré-calculadas do ProductSortIndex.
+ */
+public interface ProductSortKey {
+
+	Long getId();
+
+	String getName();
+
+	Double getPrice();
+
+	Instant getDate();
+}
@@ -0,0 +1,26 @@
+package com.bookCatalog.bookcatalog.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bookCatalog.bookcatalog.entities.ProductTombstone;
+
+@Repository
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Long> {
+
+	@Query("SELECT t FROM ProductTombstone t WHERE (t.deletedAt > :since OR (t.deletedAt = :since AND t.id > :id)) "
+			+ "AND t.deletedAt <= :until ORDER BY t.deletedAt, t.id")
+	List<ProductTombstone> findDeletedSince(@Param("since") Instant since, @Param("id") Long id,
+			@Param("until") Instant until, Pageable pageable);
+
+	@Modifying
+	@Query("DELETE FROM ProductTombstone t WHERE t.deletedAt < :instant")
+	int deleteOlderThan(@Param("instant") Instant instant);
+}
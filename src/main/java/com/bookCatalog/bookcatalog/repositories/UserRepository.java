@@ -1,5 +1,7 @@
 package com.bookCatalog.bookcatalog.repositories;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,5 +10,8 @@ import com.bookCatalog.bookcatalog.entities.User;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+	// Página sem COUNT(*): busca um elemento a mais apenas para saber se há próxima página.
+	Slice<User> findSliceBy(Pageable pageable);
+
 	User findByEmail(String email);
 }
@@ -0,0 +1,83 @@
+package com.bookCatalog.bookcatalog.resources;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bookCatalog.bookcatalog.components.RoleRegistry;
+import com.bookCatalog.bookcatalog.components.SecondLevelCache;
+import com.bookCatalog.bookcatalog.components.SingleFlightAspect;
+import com.bookCatalog.bookcatalog.dto.CacheRegionDTO;
+import com.bookCatalog.bookcatalog.dto.RoleDTO;
+import com.bookCatalog.bookcatalog.dto.SingleFlightStatsDTO;
+import com.bookCatalog.bookcatalog.entities.Role;
+
+/**
+ * Endpoints administrativos para operar os componentes em memória da aplicação (acessíveis apenas por ADMIN).
+ */
+@RestController
+@RequestMapping(value = "/admin")
+public class AdminResource {
+
+	@Autowired
+	private RoleRegistry roleRegistry;
+
+	@Autowired
+	private SecondLevelCache secondLevelCache;
+
+	@Autowired
+	private SingleFlightAspect singleFlight;
+
+	/**
+	 * Recarrega o registro de papéis a partir da tabela tb_role.
+	 *
+	 * @return Um ResponseEntity contendo os papéis recarregados e um status 200 (OK).
+	 */
+	@PostMapping(value = "/roles/reload")
+	public ResponseEntity<List<RoleDTO>> reloadRoles() {
+		secondLevelCache.evictRoles();
+		List<RoleDTO> list = new ArrayList<>();
+		for (Role role : roleRegistry.reload()) {
+			list.add(new RoleDTO(role));
+		}
+		return ResponseEntity.ok().body(list);
+	}
+
+	/**
+	 * Retorna as estatísticas por região do cache de segundo nível.
+	 *
+	 * @return Um ResponseEntity contendo as estatísticas e um status 200 (OK).
+	 */
+	@GetMapping(value = "/cache")
+	public ResponseEntity<List<CacheRegionDTO>> cacheStatistics() {
+		return ResponseEntity.ok().body(secondLevelCache.statistics());
+	}
+
+	/**
+	 * Esvazia todas as regiões do cache de segundo nível deste nó.
+	 *
+	 * @return Um ResponseEntity vazio e um status 204 (No Content).
+	 */
+	@DeleteMapping(value = "/cache")
+	public ResponseEntity<Void> evictCache() {
+		secondLevelCache.evictAll();
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * Retorna, por método @SingleFlight, as chamadas recebidas e quantas foram coalescidas.
+	 *
+	 * @return Um ResponseEntity contendo as estatísticas e um status 200 (OK).
+	 */
+	@GetMapping(value = "/single-flight")
+	public ResponseEntity<List<SingleFlightStatsDTO>> singleFlightStatistics() {
+		return ResponseEntity.ok().body(singleFlight.statistics());
+	}
+}
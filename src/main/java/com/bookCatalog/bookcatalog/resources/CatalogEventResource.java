@@ -0,0 +1,64 @@
+package com.bookCatalog.bookcatalog.resources;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.bookCatalog.bookcatalog.components.OutboxDispatcher;
+import com.bookCatalog.bookcatalog.dto.CatalogEventDTO;
+import com.bookCatalog.bookcatalog.dto.CatalogEventsDTO;
+import com.bookCatalog.bookcatalog.services.OutboxService;
+
+/**
+ * Endpoint de long-poll para consumidores acompanharem as alterações do catálogo a partir de um offset retomável.
+ */
+@RestController
+@RequestMapping(value = "/catalog/events")
+public class CatalogEventResource {
+
+	private static final int MAX_LIMIT = 1000;
+	private static final long MAX_WAIT_SECONDS = 60;
+
+	@Autowired
+	private OutboxService service;
+
+	@Autowired
+	private OutboxDispatcher dispatcher;
+
+	/**
+	 * Retorna os eventos com offset maior que {@code after}. Se não houver eventos, a requisição fica aberta por até
+	 * {@code waitSeconds} segundos e é respondida assim que um novo lote for despachado.
+	 *
+	 * @param after       O último offset já processado pelo consumidor (0 para começar do início do log retido).
+	 * @param limit       O número máximo de eventos na resposta.
+	 * @param waitSeconds O tempo máximo de espera por novos eventos.
+	 * @return Os eventos e o offset a ser usado na próxima chamada.
+	 */
+	@GetMapping
+	public DeferredResult<ResponseEntity<CatalogEventsDTO>> events(
+			@RequestParam(value = "after", defaultValue = "0") Long after,
+			@RequestParam(value = "limit", defaultValue = "100") Integer limit,
+			@RequestParam(value = "waitSeconds", defaultValue = "30") Long waitSeconds) {
+
+		int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+		long wait = Math.max(0, Math.min(waitSeconds, MAX_WAIT_SECONDS));
+
+		DeferredResult<ResponseEntity<CatalogEventsDTO>> result = new DeferredResult<>(wait * 1000,
+				ResponseEntity.ok().body(new CatalogEventsDTO(List.of(), after)));
+
+		List<CatalogEventDTO> events = service.findDispatched(after, dispatcher.getDispatchedOffset(), size);
+		if (!events.isEmpty() || wait == 0) {
+			result.setResult(ResponseEntity.ok().body(new CatalogEventsDTO(events, after)));
+			return result;
+		}
+		Runnable cancel = dispatcher.await(after, size, list -> result.setResult(ResponseEntity.ok().body(new CatalogEventsDTO(list, after))));
+		result.onCompletion(cancel);
+		return result;
+	}
+}
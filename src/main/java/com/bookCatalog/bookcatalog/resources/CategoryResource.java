@@ -3,21 +3,28 @@ package com.bookCatalog.bookcatalog.resources;
 import java.net.URI;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.bookCatalog.bookcatalog.components.JsonMergePatch;
 import com.bookCatalog.bookcatalog.dto.CategoryDTO;
+import com.bookCatalog.bookcatalog.dto.PageDTO;
 import com.bookCatalog.bookcatalog.services.CategoryService;
+import com.bookCatalog.bookcatalog.services.CountMode;
+import com.fasterxml.jackson.databind.JsonNode;
 
 @RestController
 @RequestMapping(value = "/categories")
@@ -27,8 +34,10 @@ public class CategoryResource {
 	private CategoryService service;
 	
 	@GetMapping
-	public ResponseEntity<Page<CategoryDTO>> findAll(Pageable pageable) {
-		Page<CategoryDTO> list = service.findAllPaged(pageable);		
+	public ResponseEntity<PageDTO<CategoryDTO>> findAll(@PageableDefault(size = 50, sort = "id") Pageable pageable,
+			@RequestParam(value = "count", defaultValue = "exact") String count) {
+		SortableProperties.check(pageable, SortableProperties.CATEGORY);
+		PageDTO<CategoryDTO> list = service.findPage(pageable, CountMode.fromParam(count));
 		return ResponseEntity.ok().body(list);
 	}
 
@@ -52,9 +61,22 @@ public class CategoryResource {
 		return ResponseEntity.ok().body(dto);
 	}
 
+	@PatchMapping(value = "/{id}", consumes = { JsonMergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE })
+	public ResponseEntity<CategoryDTO> patch(@PathVariable Long id, @RequestBody JsonNode patch) {
+		CategoryDTO dto = service.patch(id, patch);
+		return ResponseEntity.ok().body(dto);
+	}
+
 	@DeleteMapping(value = "/{id}")
-	public ResponseEntity<Void> delete(@PathVariable Long id) {
-		service.delete(id);
+	public ResponseEntity<Void> delete(@PathVariable Long id,
+			@RequestParam(value = "detachProducts", defaultValue = "false") boolean detachProducts) {
+		service.delete(id, detachProducts);
+		return ResponseEntity.noContent().build();
+	}
+
+	@DeleteMapping(value = "/{id}/products")
+	public ResponseEntity<Void> detachProducts(@PathVariable Long id) {
+		service.detachProducts(id);
 		return ResponseEntity.noContent().build();
 	}
 } 
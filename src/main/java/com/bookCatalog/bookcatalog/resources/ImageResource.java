@@ -0,0 +1,77 @@
+package com.bookCatalog.bookcatalog.resources;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bookCatalog.bookcatalog.components.ImagePipeline;
+import com.bookCatalog.bookcatalog.services.exceptions.ResourceNotFoundException;
+
+/**
+ * Variantes das imagens de produtos geradas pelo ImagePipeline. O nome é o hash do conteúdo, então a resposta nunca
+ * muda e pode ficar em cache por um ano. Quando o conector do Tomcat suporta sendfile, o arquivo é entregue pelo
+ * próprio sistema operacional, sem passar pelo heap; nos demais casos é copiado com FileChannel.transferTo.
+ */
+@RestController
+@RequestMapping(value = "/catalog/images")
+public class ImageResource {
+
+	private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	@Autowired
+	private ImagePipeline images;
+
+	@GetMapping(value = "/{name:.+}")
+	public void findByName(@PathVariable String name, HttpServletRequest request, HttpServletResponse response)
+			throws IOException {
+		Path file = images.resolve(name);
+		if (file == null || !Files.isRegularFile(file)) {
+			throw new ResourceNotFoundException("Image not found " + name);
+		}
+		String etag = "\"" + name + "\"";
+		response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+		response.setHeader(HttpHeaders.ETAG, etag);
+		if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+			response.setStatus(HttpStatus.NOT_MODIFIED.value());
+			return;
+		}
+
+		long length = Files.size(file);
+		response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+		response.setContentLengthLong(length);
+		if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+			request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+			request.setAttribute(SENDFILE_START, 0L);
+			request.setAttribute(SENDFILE_END, length);
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+			long position = 0;
+			while (position < length) {
+				position += channel.transferTo(position, length - position, out);
+			}
+		}
+	}
+}
@@ -1,25 +1,48 @@
 package com.bookCatalog.bookcatalog.resources;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.util.List;
 
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.bookCatalog.bookcatalog.components.JsonMergePatch;
+import com.bookCatalog.bookcatalog.dto.BulkCategoryUpdateDTO;
+import com.bookCatalog.bookcatalog.dto.BulkPriceUpdateDTO;
+import com.bookCatalog.bookcatalog.dto.BulkUpdateResultDTO;
+import com.bookCatalog.bookcatalog.dto.PageDTO;
+import com.bookCatalog.bookcatalog.dto.ProductChangesDTO;
 import com.bookCatalog.bookcatalog.dto.ProductDTO;
+import com.bookCatalog.bookcatalog.dto.ProductFacetsDTO;
+import com.bookCatalog.bookcatalog.services.CountMode;
 import com.bookCatalog.bookcatalog.services.ProductService;
+import com.bookCatalog.bookcatalog.services.exceptions.BadRequestException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 @RestController
 @RequestMapping(value = "/products")
@@ -27,13 +50,78 @@ public class ProductResource {
 
 	@Autowired
 	private ProductService service;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${catalog.stream.max-page-size:10000}")
+	private int streamMaxPageSize;
 	
 	@GetMapping
-	public ResponseEntity<Page<ProductDTO>> findAll(Pageable pageable) {
-		Page<ProductDTO> list = service.findAllPaged(pageable);		
+	public ResponseEntity<PageDTO<ProductDTO>> findAll(@PageableDefault(size = 24, sort = "id") Pageable pageable,
+			@RequestParam(value = "count", defaultValue = "exact") String count,
+			@RequestParam(value = "categoryId", required = false) List<Long> categoryIds) {
+		SortableProperties.check(pageable, SortableProperties.PRODUCT);
+		PageDTO<ProductDTO> list = categoryIds == null || categoryIds.isEmpty()
+				? service.findPage(pageable, CountMode.fromParam(count))
+				: service.findPageByCategories(categoryIds, pageable, CountMode.fromParam(count));
 		return ResponseEntity.ok().body(list);
 	}
 
+	/**
+	 * Variante de listagem para páginas grandes: os produtos são lidos por cursor e escritos um a um na resposta,
+	 * sem montar a página inteira em memória. Não informa totais. Como não está sujeita ao limite global de
+	 * spring.data.web.pageable.max-page-size, tem limite próprio e recusa páginas maiores em vez de reduzi-las.
+	 */
+	@GetMapping(value = "/stream")
+	public ResponseEntity<StreamingResponseBody> stream(@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "size", defaultValue = "1000") Integer size,
+			@RequestParam(value = "sort", defaultValue = "id") String sort) {
+		if (page < 0 || size < 1 || size > streamMaxPageSize) {
+			throw new BadRequestException("Page size must be between 1 and " + streamMaxPageSize);
+		}
+		Pageable pageable = PageRequest.of(page, size, SortableProperties.parse(sort, SortableProperties.PRODUCT));
+		// Sem flush a cada produto: o gerador descarrega seu buffer na resposta conforme ele enche.
+		ObjectWriter writer = objectMapper.writerFor(ProductDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		StreamingResponseBody body = out -> {
+			// O close do gerador libera seus buffers e descarrega o restante; o stream da resposta é fechado pelo Spring.
+			try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+					.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+				generator.writeStartObject();
+				generator.writeNumberField("page", pageable.getPageNumber());
+				generator.writeNumberField("size", pageable.getPageSize());
+				generator.writeArrayFieldStart("content");
+				service.streamPage(pageable, dto -> {
+					try {
+						writer.writeValue(generator, dto);
+					}
+					catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+				generator.writeEndArray();
+				generator.writeEndObject();
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+	}
+
+	@GetMapping(value = "/facets")
+	public ResponseEntity<ProductFacetsDTO> facets(
+			@RequestParam(value = "categoryId", required = false) List<Long> categoryIds,
+			@RequestParam(value = "minPrice", required = false) Double minPrice,
+			@RequestParam(value = "maxPrice", required = false) Double maxPrice) {
+		ProductFacetsDTO facets = service.findFacets(categoryIds, minPrice, maxPrice);
+		return ResponseEntity.ok().body(facets);
+	}
+
+	@GetMapping(value = "/changes")
+	public ResponseEntity<ProductChangesDTO> changes(@RequestParam(value = "since", required = false) String since,
+			@RequestParam(value = "limit", defaultValue = "200") Integer limit) {
+		ProductChangesDTO changes = service.findChanges(since, limit);
+		return ResponseEntity.ok().body(changes);
+	}
+
 	@GetMapping(value = "/{id}")
 	public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
 		ProductDTO dto = service.findById(id);
@@ -48,12 +136,30 @@ public class ProductResource {
 		return ResponseEntity.created(uri).body(dto);
 	}
 
+	@PostMapping(value = "/bulk/prices")
+	public ResponseEntity<BulkUpdateResultDTO> updatePrices(@Valid @RequestBody BulkPriceUpdateDTO dto) {
+		BulkUpdateResultDTO result = service.updatePrices(dto);
+		return ResponseEntity.ok().body(result);
+	}
+
+	@PostMapping(value = "/bulk/categories")
+	public ResponseEntity<BulkUpdateResultDTO> updateCategories(@Valid @RequestBody BulkCategoryUpdateDTO dto) {
+		BulkUpdateResultDTO result = service.updateCategories(dto);
+		return ResponseEntity.ok().body(result);
+	}
+
 	@PutMapping(value = "/{id}")
 	public ResponseEntity<ProductDTO> update(@PathVariable Long id, @Valid @RequestBody ProductDTO dto) {
 		dto = service.update(id, dto);
 		return ResponseEntity.ok().body(dto);
 	}
 
+	@PatchMapping(value = "/{id}", consumes = { JsonMergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE })
+	public ResponseEntity<ProductDTO> patch(@PathVariable Long id, @RequestBody JsonNode patch) {
+		ProductDTO dto = service.patch(id, patch);
+		return ResponseEntity.ok().body(dto);
+	}
+
 	@DeleteMapping(value = "/{id}")
 	public ResponseEntity<Void> delete(@PathVariable Long id) {
 		service.delete(id);
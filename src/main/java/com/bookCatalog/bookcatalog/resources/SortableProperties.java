@@ -0,0 +1,57 @@
+package com.bookCatalog.bookcatalog.resources;
+
+import java.util.Set;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.bookCatalog.bookcatalog.services.exceptions.BadRequestException;
+
+/**
+ * Propriedades pelas quais cada listagem pode ser ordenada. Todas são apoiadas por índice, para que a ordenação não
+ * exija um sort completo da tabela no banco de dados; as demais (como description) são recusadas.
+ */
+public final class SortableProperties {
+
+	public static final Set<String> PRODUCT = Set.of("id", "name", "price", "date", "updatedAt");
+	public static final Set<String> CATEGORY = Set.of("id", "name");
+	public static final Set<String> USER = Set.of("id", "firstName", "email");
+
+	private SortableProperties() {
+	}
+
+	/**
+	 * Verifica se a ordenação da página usa apenas propriedades permitidas.
+	 *
+	 * @param pageable A página solicitada.
+	 * @param allowed  As propriedades permitidas.
+	 * @throws BadRequestException Se alguma propriedade não for permitida.
+	 */
+	public static void check(Pageable pageable, Set<String> allowed) {
+		for (Sort.Order order : pageable.getSort()) {
+			if (!allowed.contains(order.getProperty())) {
+				throw new BadRequestException("Sorting by " + order.getProperty() + " is not supported");
+			}
+		}
+	}
+
+	/**
+	 * Interpreta um parâmetro de ordenação no formato "propriedade" ou "propriedade,asc|desc".
+	 *
+	 * @param sort    O valor do parâmetro.
+	 * @param allowed As propriedades permitidas.
+	 * @return A ordenação correspondente.
+	 * @throws BadRequestException Se o formato for inválido ou a propriedade não for permitida.
+	 */
+	public static Sort parse(String sort, Set<String> allowed) {
+		String[] parts = sort.split(",");
+		if (parts.length > 2 || !allowed.contains(parts[0])) {
+			throw new BadRequestException("Sorting by " + sort + " is not supported");
+		}
+		if (parts.length == 1) {
+			return Sort.by(parts[0]);
+		}
+		return Sort.by(Sort.Direction.fromOptionalString(parts[1])
+				.orElseThrow(() -> new BadRequestException("Invalid sort direction " + parts[1])), parts[0]);
+	}
+}
@@ -0,0 +1,33 @@
+package com.bookCatalog.bookcatalog.resources;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bookCatalog.bookcatalog.components.NameSuggester;
+import com.bookCatalog.bookcatalog.dto.SuggestionDTO;
+
+/**
+ * Sugestões da caixa de busca enquanto o usuário digita, atendidas pelo NameSuggester em memória.
+ */
+@RestController
+@RequestMapping(value = "/catalog/suggestions")
+public class SuggestionResource {
+
+	private static final int MAX_LIMIT = 50;
+
+	@Autowired
+	private NameSuggester suggester;
+
+	@GetMapping
+	public ResponseEntity<List<SuggestionDTO>> suggest(@RequestParam(value = "q") String query,
+			@RequestParam(value = "limit", defaultValue = "10") Integer limit) {
+		List<SuggestionDTO> list = suggester.suggest(query, Math.max(1, Math.min(limit, MAX_LIMIT)));
+		return ResponseEntity.ok().body(list);
+	}
+}
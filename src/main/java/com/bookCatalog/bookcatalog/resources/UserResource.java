@@ -8,23 +8,30 @@ import java.net.URI;
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.bookCatalog.bookcatalog.components.JsonMergePatch;
+import com.bookCatalog.bookcatalog.dto.PageDTO;
 import com.bookCatalog.bookcatalog.dto.UserDTO;
 import com.bookCatalog.bookcatalog.dto.UserInsertDTO;
 import com.bookCatalog.bookcatalog.dto.UserUpdateDTO;
+import com.bookCatalog.bookcatalog.services.CountMode;
 import com.bookCatalog.bookcatalog.services.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
 
 @RestController
 @RequestMapping(value = "/users")
@@ -37,11 +44,14 @@ public class UserResource {
 	 * Recupera uma lista paginada de usuários.
 	 *
 	 * @param pageable Informações de paginação (número da página, tamanho, ordenação).
+	 * @param count    Modo de contagem do total: exact, cached, estimated ou none.
 	 * @return Um ResponseEntity contendo a lista paginada de usuários e um status 200 (OK).
 	 */
 	@GetMapping
-	public ResponseEntity<Page<UserDTO>> findAll(Pageable pageable) {
-		Page<UserDTO> list = service.findAllPaged(pageable);		
+	public ResponseEntity<PageDTO<UserDTO>> findAll(@PageableDefault(size = 20, sort = "id") Pageable pageable,
+			@RequestParam(value = "count", defaultValue = "exact") String count) {
+		SortableProperties.check(pageable, SortableProperties.USER);
+		PageDTO<UserDTO> list = service.findPage(pageable, CountMode.fromParam(count));
 		return ResponseEntity.ok().body(list);
 	}
 
@@ -59,7 +69,8 @@ public class UserResource {
 	}
 	
 	/**
-	 * Cria um novo usuário com as informações fornecidas.
+	 * Cria um novo usuário com as informações fornecidas. Com o cabeçalho Idempotency-Key, as repetições da mesma
+	 * requisição recebem a resposta da primeira (ver IdempotencyFilter).
 	 *
 	 * @param dto O DTO contendo as informações do usuário a ser inserido.
 	 * @return Um ResponseEntity contendo o novo DTO do usuário criado e um status 201 (Criado),
@@ -87,6 +98,21 @@ public class UserResource {
 		return ResponseEntity.ok().body(newDto);
 	}
 
+	/**
+	 * Atualiza parcialmente um usuário com um JSON Merge Patch: apenas os campos presentes no patch mudam, e o
+	 * resultado passa pelas mesmas validações do PUT.
+	 *
+	 * @param id    O ID do usuário a ser atualizado.
+	 * @param patch O documento de merge patch.
+	 * @return Um ResponseEntity contendo o DTO do usuário atualizado e um status 200 (OK), ou um status 404 (Não
+	 *         Encontrado) se o usuário não for encontrado.
+	 */
+	@PatchMapping(value = "/{id}", consumes = { JsonMergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE })
+	public ResponseEntity<UserDTO> patch(@PathVariable Long id, @RequestBody JsonNode patch) {
+		UserDTO newDto = service.patch(id, patch);
+		return ResponseEntity.ok().body(newDto);
+	}
+
 	/**
 	 * Exclui um usuário com o ID especificado.
 	 *
@@ -3,6 +3,8 @@ package com.bookCatalog.bookcatalog.resources.exceptions;
 import java.time.Instant;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,16 +13,21 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.bookCatalog.bookcatalog.services.exceptions.BadRequestException;
 import com.bookCatalog.bookcatalog.services.exceptions.DatabaseException;
 import com.bookCatalog.bookcatalog.services.exceptions.ResourceNotFoundException;
+import com.bookCatalog.bookcatalog.services.exceptions.ServiceUnavailableException;
 
 /**
  * A classe ResourceExceptionHandler é um Controller Advice que lida e fornece respostas padronizadas de erro para várias exceções que podem ocorrer durante as solicitações da API.
  *
- * Ela trata três tipos de exceções:
+ * Ela trata os seguintes tipos de exceções:
  * - ResourceNotFoundException: Quando um recurso solicitado não é encontrado no sistema.
  * - DatabaseException: Quando ocorre um erro relacionado ao banco de dados.
+ * - BadRequestException: Quando um parâmetro da solicitação é inválido.
+ * - ServiceUnavailableException: Quando um índice em memória necessário ainda não foi carregado.
  * - MethodArgumentNotValidException: Quando ocorrem erros de validação durante o processamento da carga de dados da solicitação.
+ * - ConstraintViolationException: Quando o resultado de um merge patch viola as validações do DTO.
  */
 @ControllerAdvice
 public class ResourceExceptionHandler {
@@ -63,6 +70,44 @@ public class ResourceExceptionHandler {
 		return ResponseEntity.status(status).body(err);
 	}
 
+	/**
+	 * Manipula a BadRequestException e retorna um ResponseEntity com um objeto de erro padronizado.
+	 *
+	 * @param e       O objeto BadRequestException gerado.
+	 * @param request O objeto HttpServletRequest que representa a solicitação atual.
+	 * @return Um ResponseEntity com o objeto StandardError contendo os detalhes do erro.
+	 */
+	@ExceptionHandler(BadRequestException.class)
+	public ResponseEntity<StandardError> badRequest(BadRequestException e, HttpServletRequest request) {
+		HttpStatus status = HttpStatus.BAD_REQUEST;
+		StandardError err = new StandardError();
+		err.setTimestamp(Instant.now());
+		err.setStatus(status.value());
+		err.setError("Requisição inválida");
+		err.setMessage(e.getMessage());
+		err.setPath(request.getRequestURI());
+		return ResponseEntity.status(status).body(err);
+	}
+
+	/**
+	 * Manipula a ServiceUnavailableException e retorna um ResponseEntity com um objeto de erro padronizado.
+	 *
+	 * @param e       O objeto ServiceUnavailableException gerado.
+	 * @param request O objeto HttpServletRequest que representa a solicitação atual.
+	 * @return Um ResponseEntity com o objeto StandardError contendo os detalhes do erro.
+	 */
+	@ExceptionHandler(ServiceUnavailableException.class)
+	public ResponseEntity<StandardError> serviceUnavailable(ServiceUnavailableException e, HttpServletRequest request) {
+		HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+		StandardError err = new StandardError();
+		err.setTimestamp(Instant.now());
+		err.setStatus(status.value());
+		err.setError("Serviço indisponível");
+		err.setMessage(e.getMessage());
+		err.setPath(request.getRequestURI());
+		return ResponseEntity.status(status).body(err);
+	}
+
 	/**
 	 * Manipula a MethodArgumentNotValidException e retorna um ResponseEntity com um objeto de erro padronizado contendo erros de validação.
 	 *
@@ -87,4 +132,29 @@ public class ResourceExceptionHandler {
 
 		return ResponseEntity.status(status).body(err);
 	}
+
+	/**
+	 * Manipula a ConstraintViolationException, lançada na validação de um merge patch já aplicado, e retorna o mesmo
+	 * ValidationError de uma MethodArgumentNotValidException.
+	 *
+	 * @param e       O objeto ConstraintViolationException gerado.
+	 * @param request O objeto HttpServletRequest que representa a solicitação atual.
+	 * @return Um ResponseEntity com o objeto ValidationError contendo os detalhes do erro de validação.
+	 */
+	@ExceptionHandler(ConstraintViolationException.class)
+	public ResponseEntity<ValidationError> constraintViolation(ConstraintViolationException e, HttpServletRequest request) {
+		HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY;
+		ValidationError err = new ValidationError();
+		err.setTimestamp(Instant.now());
+		err.setStatus(status.value());
+		err.setError("Exceção de validação");
+		err.setMessage(e.getMessage());
+		err.setPath(request.getRequestURI());
+
+		for (ConstraintViolation<?> violation : e.getConstraintViolations()) {
+			err.addError(violation.getPropertyPath().toString(), violation.getMessage());
+		}
+
+		return ResponseEntity.status(status).body(err);
+	}
 }
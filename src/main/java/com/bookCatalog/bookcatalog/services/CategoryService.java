@@ -1,28 +1,55 @@
 package com.bookCatalog.bookcatalog.services;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import javax.persistence.EntityNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bookCatalog.bookcatalog.components.CatalogSnapshotStore;
+import com.bookCatalog.bookcatalog.components.Invalidation;
+import com.bookCatalog.bookcatalog.components.InvalidationBus;
+import com.bookCatalog.bookcatalog.components.JsonMergePatch;
+import com.bookCatalog.bookcatalog.components.PageCounts;
 import com.bookCatalog.bookcatalog.dto.CategoryDTO;
+import com.bookCatalog.bookcatalog.dto.PageDTO;
 import com.bookCatalog.bookcatalog.entities.Category;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Aggregate;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Operation;
 import com.bookCatalog.bookcatalog.repositories.CategoryRepository;
 import com.bookCatalog.bookcatalog.services.exceptions.DatabaseException;
 import com.bookCatalog.bookcatalog.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.JsonNode;
 
 @Service
 public class CategoryService {
 
 	@Autowired
 	private CategoryRepository repository;
+
+	@Autowired
+	private OutboxService outboxService;
+
+	@Autowired
+	private PageCounts pageCounts;
+
+	@Autowired
+	private InvalidationBus invalidationBus;
+
+	@Autowired
+	private CatalogSnapshotStore snapshots;
+
+	@Autowired
+	private JsonMergePatch mergePatch;
 	
 	@Transactional(readOnly = true)
 	public Page<CategoryDTO> findAllPaged(Pageable pageable) {
@@ -30,6 +57,32 @@ public class CategoryService {
 		return list.map(x -> new CategoryDTO(x));
 	}
 
+	/**
+	 * Retorna uma página no envelope compacto, com o total obtido conforme o modo de contagem solicitado.
+	 */
+	@Transactional(readOnly = true)
+	public PageDTO<CategoryDTO> findPage(Pageable pageable, CountMode count) {
+		Slice<Category> slice;
+		Long total;
+		if (count == CountMode.EXACT) {
+			Page<Category> page = repository.findAll(pageable);
+			slice = page;
+			total = page.getTotalElements();
+		}
+		else {
+			slice = repository.findSliceBy(pageable);
+			total = pageCounts.total(count, PageCounts.CATEGORY_TABLE, repository::count);
+		}
+
+		// Converte direto para uma lista com a capacidade exata, sem a Page intermediária do Page.map.
+		List<Category> entities = slice.getContent();
+		List<CategoryDTO> content = new ArrayList<>(entities.size());
+		for (Category entity : entities) {
+			content.add(new CategoryDTO(entity));
+		}
+		return new PageDTO<>(slice, content, total, count != CountMode.EXACT);
+	}
+
 	@Transactional(readOnly = true)
 	public CategoryDTO findById(Long id) {
 		Optional<Category> obj = repository.findById(id);
@@ -42,6 +95,8 @@ public class CategoryService {
 		Category entity = new Category();
 		entity.setName(dto.getName());
 		entity = repository.save(entity);
+		outboxService.record(Aggregate.CATEGORY, entity.getId(), Operation.CREATED);
+		invalidationBus.publish(Invalidation.CATEGORY, entity.getId());
 		return new CategoryDTO(entity);
 	}
 
@@ -51,6 +106,8 @@ public class CategoryService {
 			Category entity = repository.getOne(id);
 			entity.setName(dto.getName());
 			entity = repository.save(entity);
+			outboxService.record(Aggregate.CATEGORY, id, Operation.UPDATED);
+			invalidationBus.publish(Invalidation.CATEGORY, id);
 			return new CategoryDTO(entity);
 		}
 		catch (EntityNotFoundException e) {
@@ -58,15 +115,76 @@ public class CategoryService {
 		}		
 	}
 
+	/**
+	 * Aplica um JSON Merge Patch à categoria; um patch que não altera o nome não gera UPDATE nem evento.
+	 */
+	@Transactional
+	public CategoryDTO patch(Long id, JsonNode patch) {
+		Category entity = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Id not found " + id));
+		CategoryDTO dto = mergePatch.apply(new CategoryDTO(entity), patch, CategoryDTO.class);
+		if (!Objects.equals(entity.getName(), dto.getName())) {
+			entity.setName(dto.getName());
+			outboxService.record(Aggregate.CATEGORY, id, Operation.UPDATED);
+			invalidationBus.publish(Invalidation.CATEGORY, id);
+		}
+		return new CategoryDTO(entity);
+	}
+
+	@Transactional
 	public void delete(Long id) {
-		try {
-			repository.deleteById(id);
+		delete(id, false);
+	}
+
+	/**
+	 * Exclui a categoria verificando existência e dependências com uma única consulta antes do DELETE,
+	 * em vez de depender das exceções lançadas pelo banco de dados.
+	 *
+	 * @param id             O ID da categoria.
+	 * @param detachProducts Se true, desvincula antes todos os produtos da categoria.
+	 */
+	@Transactional
+	public void delete(Long id, boolean detachProducts) {
+		Integer products = repository.countProductsById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Id not found " + id));
+		if (detachProducts) {
+			detach(id);
 		}
-		catch (EmptyResultDataAccessException e) {
-			throw new ResourceNotFoundException("Id not found " + id);
+		else if (products > 0) {
+			throw new DatabaseException("Integrity violation");
+		}
+		try {
+			repository.deleteDirectlyById(id);
+			outboxService.record(Aggregate.CATEGORY, id, Operation.DELETED);
+			invalidationBus.publish(Invalidation.CATEGORY, id);
 		}
 		catch (DataIntegrityViolationException e) {
 			throw new DatabaseException("Integrity violation");
 		}
 	}
+
+	/**
+	 * Desvincula todos os produtos da categoria com uma única instrução em lote.
+	 *
+	 * @param id O ID da categoria.
+	 * @return O número de produtos desvinculados.
+	 */
+	@Transactional
+	public int detachProducts(Long id) {
+		if (!repository.existsById(id)) {
+			throw new ResourceNotFoundException("Id not found " + id);
+		}
+		return detach(id);
+	}
+
+	private int detach(Long id) {
+		List<Long> products = repository.findProductIds(id);
+		outboxService.recordProductsOfCategory(id);
+		repository.touchProductsOf(id);
+		int detached = repository.detachProducts(id);
+		repository.resetProductCount(id);
+		snapshots.markChanged(products);
+		invalidationBus.publish(Invalidation.PRODUCT, null);
+		invalidationBus.publish(Invalidation.CATEGORY, id);
+		return detached;
+	}
 }
@@ -0,0 +1,30 @@
+package com.bookCatalog.bookcatalog.services;
+
+import com.bookCatalog.bookcatalog.services.exceptions.BadRequestException;
+
+/**
+ * Como o total de elementos de uma listagem paginada é obtido.
+ */
+public enum CountMode {
+
+	/** Executa o COUNT(*) a cada requisição. */
+	EXACT,
+
+	/** Reutiliza um COUNT(*) recente, invalidado pelas alterações do catálogo. */
+	CACHED,
+
+	/** Usa a estimativa das estatísticas da tabela, recorrendo ao valor em cache quando indisponível. */
+	ESTIMATED,
+
+	/** Não calcula o total; indicado para rolagem infinita, que só precisa saber se há próxima página. */
+	NONE;
+
+	public static CountMode fromParam(String value) {
+		for (CountMode mode : values()) {
+			if (mode.name().equalsIgnoreCase(value)) {
+				return mode;
+			}
+		}
+		throw new BadRequestException("Invalid count mode " + value);
+	}
+}
@@ -0,0 +1,73 @@
+package com.bookCatalog.bookcatalog.services;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bookCatalog.bookcatalog.dto.CatalogEventDTO;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Aggregate;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Operation;
+import com.bookCatalog.bookcatalog.repositories.OutboxEventRepository;
+
+/**
+ * Grava os eventos de alteração do catálogo (transactional outbox) e consulta os eventos já despachados.
+ * A gravação exige uma transação em andamento, para que o evento seja confirmado junto com a alteração.
+ */
+@Service
+public class OutboxService {
+
+	@Autowired
+	private OutboxEventRepository repository;
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void record(Aggregate aggregateType, Long aggregateId, Operation operation) {
+		repository.save(new OutboxEvent(aggregateType, aggregateId, operation));
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public int recordProducts(Collection<Long> productIds, Operation operation) {
+		if (productIds.isEmpty()) {
+			return 0;
+		}
+		return repository.insertProductEvents(productIds, operation.name());
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public int recordProductsOfCategory(Long categoryId) {
+		return repository.insertProductEventsForCategory(categoryId);
+	}
+
+	/**
+	 * Retorna os eventos com offset maior que {@code after} e que já foram despachados.
+	 *
+	 * @param after O último offset já processado pelo consumidor.
+	 * @param until O offset despachado mais recente.
+	 * @param limit O número máximo de eventos.
+	 * @return Os eventos em ordem de offset.
+	 */
+	@Transactional(readOnly = true)
+	public List<CatalogEventDTO> findDispatched(Long after, Long until, int limit) {
+		List<CatalogEventDTO> list = new ArrayList<>();
+		if (after >= until) {
+			return list;
+		}
+		for (OutboxEvent event : repository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(after, until, PageRequest.of(0, limit))) {
+			list.add(new CatalogEventDTO(event));
+		}
+		return list;
+	}
+
+	@Transactional
+	public int purgeOlderThan(long hours) {
+		return repository.deleteOlderThan(Instant.now().minus(hours, ChronoUnit.HOURS));
+	}
+}
@@ -1,93 +1,784 @@
 package com.bookCatalog.bookcatalog.services;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolationException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bookCatalog.bookcatalog.components.CatalogSnapshot;
+import com.bookCatalog.bookcatalog.components.CatalogSnapshotStore;
+import com.bookCatalog.bookcatalog.components.CategoryCounters;
+import com.bookCatalog.bookcatalog.components.ImagePipeline;
+import com.bookCatalog.bookcatalog.components.Invalidation;
+import com.bookCatalog.bookcatalog.components.InvalidationBus;
+import com.bookCatalog.bookcatalog.components.JsonMergePatch;
+import com.bookCatalog.bookcatalog.components.NameSuggester;
+import com.bookCatalog.bookcatalog.components.PageCounts;
+import com.bookCatalog.bookcatalog.components.ProductCategoryIndex;
+import com.bookCatalog.bookcatalog.components.ProductFacetIndex;
+import com.bookCatalog.bookcatalog.components.ProductSortIndex;
+import com.bookCatalog.bookcatalog.components.SecondLevelCache;
+import com.bookCatalog.bookcatalog.components.SingleFlight;
+import com.bookCatalog.bookcatalog.dto.BulkCategoryUpdateDTO;
+import com.bookCatalog.bookcatalog.dto.BulkPriceUpdateDTO;
+import com.bookCatalog.bookcatalog.dto.BulkUpdateResultDTO;
 import com.bookCatalog.bookcatalog.dto.CategoryDTO;
+import com.bookCatalog.bookcatalog.dto.CategoryFacetDTO;
+import com.bookCatalog.bookcatalog.dto.PageDTO;
+import com.bookCatalog.bookcatalog.dto.PriceFacetDTO;
+import com.bookCatalog.bookcatalog.dto.ProductChangesDTO;
 import com.bookCatalog.bookcatalog.dto.ProductDTO;
+import com.bookCatalog.bookcatalog.dto.ProductFacetsDTO;
 import com.bookCatalog.bookcatalog.entities.Category;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Aggregate;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Operation;
 import com.bookCatalog.bookcatalog.entities.Product;
+import com.bookCatalog.bookcatalog.entities.ProductTombstone;
 import com.bookCatalog.bookcatalog.repositories.CategoryRepository;
 import com.bookCatalog.bookcatalog.repositories.ProductRepository;
+import com.bookCatalog.bookcatalog.repositories.ProductTombstoneRepository;
+import com.bookCatalog.bookcatalog.services.exceptions.BadRequestException;
 import com.bookCatalog.bookcatalog.services.exceptions.DatabaseException;
 import com.bookCatalog.bookcatalog.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.JsonNode;
 
 @Service
 public class ProductService {
 
+	public static final int MAX_SYNC_LIMIT = 1000;
+
+	private static final int BULK_CHUNK_SIZE = 1000;
+
+	// Alterações mais recentes que esta janela ficam para a próxima chamada, dando tempo para que transações
+	// concorrentes com carimbo de tempo anterior confirmem antes que o cursor do cliente passe por elas.
+	@Value("${catalog.sync.settle-ms:2000}")
+	private long syncSettleMs;
+
+	@Value("${catalog.sync.tombstone-retention-days:30}")
+	private long tombstoneRetentionDays;
+
+	@Value("${catalog.stream.chunk-size:200}")
+	private int streamChunkSize;
+
+	@Value("${catalog.bulk.max-products:10000}")
+	private int bulkMaxProducts;
+
+	// O ProductSortIndex percorre a ordenação desde o início até completar a página filtrada; além deste offset a
+	// página é buscada no banco.
+	@Value("${catalog.sort-index.max-filtered-offset:10000}")
+	private long maxFilteredOffset;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
 	@Autowired
 	private ProductRepository repository;
+
+	@Autowired
+	private ProductTombstoneRepository tombstoneRepository;
 	
 	@Autowired
 	private CategoryRepository categoryRepository;
 	
+	@Autowired
+	private OutboxService outboxService;
+
+	@Autowired
+	private PageCounts pageCounts;
+
+	@Autowired
+	private InvalidationBus invalidationBus;
+
+	@Autowired
+	private SecondLevelCache secondLevelCache;
+
+	@Autowired
+	private CategoryCounters categoryCounters;
+
+	@Autowired
+	private ProductSortIndex sortIndex;
+
+	@Autowired
+	private CatalogSnapshotStore snapshots;
+
+	@Autowired
+	private ProductCategoryIndex categoryIndex;
+
+	@Autowired
+	private ProductFacetIndex facetIndex;
+
+	@Autowired
+	private NameSuggester suggester;
+
+	@Autowired
+	private JsonMergePatch mergePatch;
+
+	@Autowired
+	private ImagePipeline images;
+	
+	@SingleFlight
 	@Transactional(readOnly = true)
 	public Page<ProductDTO> findAllPaged(Pageable pageable) {
+		CatalogSnapshot snapshot = snapshots.current();
+		if (snapshot != null && supportsSnapshot(pageable)) {
+			List<ProductDTO> content = findSnapshotContent(snapshot, pageable, pageable.getPageSize());
+			return new PageImpl<>(content, pageable, snapshotTotal(snapshot, pageable));
+		}
 		Page<Product> list = repository.findAll(pageable);
-		return list.map(x -> new ProductDTO(x));
+		return list.map(x -> images.decorate(new ProductDTO(x)));
+	}
+
+	/**
+	 * Retorna uma página no envelope compacto, com o total obtido conforme o modo de contagem solicitado.
+	 */
+	@SingleFlight
+	@Transactional(readOnly = true)
+	public PageDTO<ProductDTO> findPage(Pageable pageable, CountMode count) {
+		CatalogSnapshot snapshot = snapshots.current();
+		if (snapshot != null && supportsSnapshot(pageable)) {
+			List<ProductDTO> content = findSnapshotContent(snapshot, pageable, pageable.getPageSize() + 1);
+			boolean hasNext = content.size() > pageable.getPageSize();
+			if (hasNext) {
+				content = content.subList(0, pageable.getPageSize());
+			}
+			Long total = count == CountMode.NONE ? null : snapshotTotal(snapshot, pageable);
+			return new PageDTO<>(new SliceImpl<>(content, pageable, hasNext), content, total, true);
+		}
+		if (sortIndex.supports(pageable.getSort())) {
+			Slice<Product> slice = findSliceByIds(
+					sortIndex.page(pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1), pageable);
+			// O total do índice acompanha os lotes do OutboxDispatcher: é sempre aproximado, mesmo com count=exact.
+			return toPageDTO(slice, count == CountMode.NONE ? null : sortIndex.size(), true);
+		}
+		Slice<Product> slice;
+		Long total;
+		if (count == CountMode.EXACT) {
+			Page<Product> page = repository.findAll(pageable);
+			slice = page;
+			total = page.getTotalElements();
+		}
+		else {
+			slice = repository.findSliceBy(pageable);
+			total = count == CountMode.NONE ? null : pageCounts.total(count, PageCounts.PRODUCT_TABLE, repository::count);
+		}
+		return toPageDTO(slice, total, count != CountMode.EXACT);
+	}
+
+	/**
+	 * Retorna uma página dos produtos vinculados a todas as categorias informadas. O filtro e o total vêm dos bitmaps
+	 * do ProductCategoryIndex, sem JOIN nem COUNT(*); a ordenação por id é a do próprio bitmap e as ordenações por
+	 * name, price e date vêm do ProductSortIndex, até o offset catalog.sort-index.max-filtered-offset. Páginas mais
+	 * distantes são ordenadas pelo banco, com o id como desempate, como no índice.
+	 *
+	 * @throws BadRequestException Se a ordenação não puder ser combinada com o filtro.
+	 */
+	@Transactional(readOnly = true)
+	public PageDTO<ProductDTO> findPageByCategories(List<Long> categoryIds, Pageable pageable, CountMode count) {
+		BitSet products = categoryIndex.productsInAll(categoryIds);
+		// Como o do ProductSortIndex, o total dos bitmaps acompanha os lotes do OutboxDispatcher e é aproximado.
+		Long total = count == CountMode.NONE ? null : (long) products.cardinality();
+		Sort sort = pageable.getSort();
+		if (sortIndex.supports(sort) && pageable.getOffset() > maxFilteredOffset) {
+			return toPageDTO(findSliceInAllCategories(categoryIds, pageable), total, true);
+		}
+		int size = pageable.getPageSize() + 1;
+		List<Long> ids;
+		if (sortIndex.supports(sort)) {
+			ids = sortIndex.page(sort, products, pageable.getOffset(), size);
+		}
+		else if (sort.isUnsorted() || isIdOrder(sort)) {
+			ids = ProductCategoryIndex.page(products, sort.isUnsorted() || sort.toList().get(0).isAscending(),
+					pageable.getOffset(), size);
+		}
+		else {
+			throw new BadRequestException("Sorting by " + sort + " is not supported with a category filter");
+		}
+		return toPageDTO(findSliceByIds(ids, pageable), total, true);
+	}
+
+	/**
+	 * Calcula as facetas de categoria e de faixa de preço para o filtro informado. O filtro é montado por interseção
+	 * dos bitmaps em memória e cada contagem é a cardinalidade de mais uma interseção, reaproveitando o mesmo BitSet
+	 * de trabalho. Os nomes das categorias também vêm do ProductCategoryIndex, então nenhuma faceta consulta o banco.
+	 *
+	 * @param categoryIds Categorias exigidas, ou null/vazio para não filtrar.
+	 * @param minPrice    Preço mínimo (inclusive), ou null.
+	 * @param maxPrice    Preço máximo (exclusive), ou null.
+	 * @return O total do filtro e as contagens por categoria e por faixa.
+	 */
+	public ProductFacetsDTO findFacets(List<Long> categoryIds, Double minPrice, Double maxPrice) {
+		if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+			throw new BadRequestException("minPrice must not be greater than maxPrice");
+		}
+		BitSet filter = facetIndex.allProducts();
+		if (categoryIds != null && !categoryIds.isEmpty()) {
+			filter.and(categoryIndex.productsInAll(categoryIds));
+		}
+		if (minPrice != null || maxPrice != null) {
+			if (!sortIndex.supports(Sort.by("price"))) {
+				throw new BadRequestException("Price filter is not available yet");
+			}
+			filter.and(sortIndex.range("price", minPrice, maxPrice));
+		}
+
+		BitSet scratch = new BitSet(filter.length());
+		Map<Long, BitSet> productsByCategory = categoryIndex.productsByCategory();
+		Map<Long, String> names = categoryIndex.categoryNames();
+		List<CategoryFacetDTO> categories = new ArrayList<>(names.size());
+		for (Map.Entry<Long, String> category : names.entrySet()) {
+			BitSet products = productsByCategory.get(category.getKey());
+			int count = products == null ? 0 : ProductFacetIndex.intersectionCount(filter, products, scratch);
+			categories.add(new CategoryFacetDTO(category.getKey(), category.getValue(), count));
+		}
+
+		double[] bounds = facetIndex.getBounds();
+		int[] counts = facetIndex.countByPrice(filter, scratch);
+		List<PriceFacetDTO> prices = new ArrayList<>(bounds.length);
+		for (int i = 0; i < bounds.length; i++) {
+			prices.add(new PriceFacetDTO(bounds[i], i + 1 < bounds.length ? bounds[i + 1] : null, counts[i]));
+		}
+		return new ProductFacetsDTO(filter.cardinality(), categories, prices);
+	}
+
+	// Converte direto para uma lista com a capacidade exata, sem a Page intermediária do Page.map.
+	private PageDTO<ProductDTO> toPageDTO(Slice<Product> slice, Long total, boolean approximate) {
+		List<Product> entities = slice.getContent();
+		List<ProductDTO> content = new ArrayList<>(entities.size());
+		for (Product entity : entities) {
+			content.add(images.decorate(new ProductDTO(entity)));
+		}
+		return new PageDTO<>(slice, content, total, approximate);
+	}
+
+	private static boolean isIdOrder(Sort sort) {
+		List<Sort.Order> orders = sort.toList();
+		return orders.size() == 1 && "id".equals(orders.get(0).getProperty());
+	}
+
+	/**
+	 * O snapshot atende páginas sem ordenação ou ordenadas por id e, junto com o ProductSortIndex, as ordenadas por
+	 * name, price ou date.
+	 */
+	private boolean supportsSnapshot(Pageable pageable) {
+		Sort sort = pageable.getSort();
+		return sort.isUnsorted() || sortIndex.supports(sort) || isIdOrder(sort);
+	}
+
+	private List<ProductDTO> findSnapshotContent(CatalogSnapshot snapshot, Pageable pageable, int size) {
+		Sort sort = pageable.getSort();
+		List<Long> ids = sort.isSorted() && sortIndex.supports(sort)
+				? sortIndex.page(sort, pageable.getOffset(), size)
+				: snapshot.productIds(sort.isUnsorted() || sort.toList().get(0).isAscending(), pageable.getOffset(), size);
+		List<ProductDTO> content = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			ProductDTO dto = snapshot.findProduct(id, false);
+			if (dto != null) {
+				content.add(images.decorate(dto));
+			}
+		}
+		return content;
+	}
+
+	private long snapshotTotal(CatalogSnapshot snapshot, Pageable pageable) {
+		return sortIndex.supports(pageable.getSort()) ? sortIndex.size() : snapshot.productCount();
+	}
+
+	/**
+	 * Busca por chave primária os produtos de uma página cujos IDs, já ordenados, vêm de um índice em memória.
+	 * A lista pode ter um ID além do tamanho da página, que só indica se há próxima página. Produtos excluídos ainda
+	 * não removidos do índice apenas deixam a página mais curta.
+	 */
+	private Slice<Product> findSliceInAllCategories(List<Long> categoryIds, Pageable pageable) {
+		Set<Long> categories = new HashSet<>(categoryIds);
+		Sort.Order order = pageable.getSort().toList().get(0);
+		Pageable byKeyAndId = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+				pageable.getSort().and(Sort.by(order.getDirection(), "id")));
+		Slice<Product> slice = repository.findInAllCategories(categories, categories.size(), byKeyAndId);
+		return new SliceImpl<>(slice.getContent(), pageable, slice.hasNext());
+	}
+
+	private Slice<Product> findSliceByIds(List<Long> ids, Pageable pageable) {
+		boolean hasNext = ids.size() > pageable.getPageSize();
+		if (hasNext) {
+			ids = ids.subList(0, pageable.getPageSize());
+		}
+		Map<Long, Product> byId = new HashMap<>();
+		for (Product product : repository.findAllById(ids)) {
+			byId.put(product.getId(), product);
+		}
+		List<Product> content = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			Product product = byId.get(id);
+			if (product != null) {
+				content.add(product);
+			}
+		}
+		return new SliceImpl<>(content, pageable, hasNext);
 	}
 
+	@SingleFlight
 	@Transactional(readOnly = true)
 	public ProductDTO findById(Long id) {
+		CatalogSnapshot snapshot = snapshots.current(id);
+		if (snapshot != null) {
+			// Produtos criados depois do snapshot ainda são buscados no banco.
+			ProductDTO dto = snapshot.findProduct(id);
+			if (dto != null) {
+				suggester.recordView(id);
+				return images.decorate(dto);
+			}
+		}
 		Optional<Product> obj = repository.findById(id);
 		Product entity = obj.orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
-		return new ProductDTO(entity, entity.getCategories());
+		// Só produtos existentes contam como consulta; IDs inexistentes não criam contadores no NameSuggester.
+		suggester.recordView(id);
+		return images.decorate(new ProductDTO(entity, entity.getCategories()));
+	}
+
+	/**
+	 * Percorre uma página de produtos por cursor, entregando cada DTO assim que é lido. O contexto de persistência é
+	 * esvaziado a cada catalog.stream.chunk-size produtos, de modo que a memória usada não cresce com o tamanho da
+	 * página.
+	 *
+	 * @param pageable A página solicitada.
+	 * @param action   Recebe cada produto, na ordem da página.
+	 * @return O número de produtos entregues.
+	 */
+	@Transactional(readOnly = true)
+	public int streamPage(Pageable pageable, Consumer<ProductDTO> action) {
+		int count = 0;
+		try (Stream<Product> stream = repository.streamAllBy(pageable)) {
+			Iterator<Product> it = stream.iterator();
+			while (it.hasNext()) {
+				action.accept(images.decorate(new ProductDTO(it.next())));
+				if (++count % streamChunkSize == 0) {
+					entityManager.clear();
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Retorna os produtos alterados e excluídos desde o token informado, em ordem de keyset, de modo que o custo da
+	 * sincronização acompanha o volume de alterações e não o tamanho do catálogo.
+	 *
+	 * @param token O nextToken da chamada anterior, ou null para a primeira sincronização.
+	 * @param limit O número máximo de produtos e de exclusões no lote.
+	 * @return O delta e o token para a próxima chamada.
+	 */
+	@Transactional(readOnly = true)
+	public ProductChangesDTO findChanges(String token, int limit) {
+		if (limit < 1) {
+			throw new BadRequestException("Limit must be positive");
+		}
+		limit = Math.min(limit, MAX_SYNC_LIMIT);
+		Instant now = databaseNow();
+		Instant until = now.minusMillis(syncSettleMs);
+
+		ProductSyncCursor cursor = token == null ? null : ProductSyncCursor.decode(token);
+
+		// Sem token, ou com um token anterior à retenção das exclusões, o cliente recomeça do início do catálogo.
+		boolean fullResync = cursor == null
+				|| cursor.deletedAt.isBefore(now.minus(tombstoneRetentionDays, ChronoUnit.DAYS));
+		if (fullResync) {
+			cursor = new ProductSyncCursor(Instant.EPOCH, 0L, until, 0L);
+		}
+
+		List<Product> products = repository.findChangedSince(cursor.updatedAt, cursor.productId, until,
+				PageRequest.of(0, limit + 1));
+		List<ProductTombstone> tombstones = tombstoneRepository.findDeletedSince(cursor.deletedAt, cursor.tombstoneId,
+				until, PageRequest.of(0, limit + 1));
+		boolean hasMore = products.size() > limit || tombstones.size() > limit;
+		if (products.size() > limit) {
+			products = products.subList(0, limit);
+		}
+		if (tombstones.size() > limit) {
+			tombstones = tombstones.subList(0, limit);
+		}
+
+		List<ProductDTO> updated = new ArrayList<>(products.size());
+		if (!products.isEmpty()) {
+			// Carrega as categorias de todo o lote em uma única consulta.
+			repository.findProductsWithCategories(products);
+			for (Product product : products) {
+				updated.add(images.decorate(new ProductDTO(product, product.getCategories())));
+			}
+		}
+		List<Long> deleted = new ArrayList<>(tombstones.size());
+		for (ProductTombstone tombstone : tombstones) {
+			deleted.add(tombstone.getProductId());
+		}
+
+		// Quando todas as exclusões até "until" foram entregues, o cursor delas avança até lá; assim a idade do token
+		// reflete a última sincronização e não a última exclusão.
+		Instant deletedAt = until;
+		long tombstoneId = Long.MAX_VALUE;
+		if (hasMore) {
+			ProductTombstone lastTombstone = tombstones.isEmpty() ? null : tombstones.get(tombstones.size() - 1);
+			deletedAt = lastTombstone == null ? cursor.deletedAt : lastTombstone.getDeletedAt();
+			tombstoneId = lastTombstone == null ? cursor.tombstoneId : lastTombstone.getId();
+		}
+		Product lastProduct = products.isEmpty() ? null : products.get(products.size() - 1);
+		ProductSyncCursor next = new ProductSyncCursor(
+				lastProduct == null ? cursor.updatedAt : lastProduct.getUpdatedAt(),
+				lastProduct == null ? cursor.productId : lastProduct.getId(),
+				deletedAt, tombstoneId);
+		return new ProductChangesDTO(updated, deleted, next.encode(), hasMore, fullResync);
+	}
+
+	/**
+	 * Remove os registros de exclusão mais antigos que a retenção configurada. Clientes com tokens anteriores a ela
+	 * recebem uma sincronização completa.
+	 *
+	 * @return O número de registros removidos.
+	 */
+	@Transactional
+	public int purgeTombstones() {
+		return tombstoneRepository.deleteOlderThan(Instant.now().minus(tombstoneRetentionDays, ChronoUnit.DAYS));
 	}
 
 	@Transactional
 	public ProductDTO insert(ProductDTO dto) {
 		Product entity = new Product();
 		copyDtoToEntity(dto, entity);
+		entity.touch(databaseNow());
 		entity = repository.save(entity);
-		return new ProductDTO(entity);
+		Set<Long> categories = categoryIds(entity);
+		categoryCounters.adjust(categories, 1);
+		outboxService.record(Aggregate.PRODUCT, entity.getId(), Operation.CREATED);
+		snapshots.markChanged(List.of(entity.getId()));
+		invalidationBus.publish(Invalidation.PRODUCT, entity.getId());
+		invalidateCategories(categories);
+		return images.decorate(new ProductDTO(entity));
 	}
 
 	@Transactional
 	public ProductDTO update(Long id, ProductDTO dto) {
 		try {
 			Product entity = repository.getOne(id);
-			copyDtoToEntity(dto, entity);
-			entity = repository.save(entity);
-			return new ProductDTO(entity);
+			return applyUpdate(entity, dto);
 		}
 		catch (EntityNotFoundException e) {
 			throw new ResourceNotFoundException("Id not found " + id);
 		}		
 	}
 
+	/**
+	 * Aplica um JSON Merge Patch ao produto. Apenas as colunas alteradas entram no UPDATE (@DynamicUpdate) e, se as
+	 * categorias mudarem, apenas os vínculos incluídos e removidos são gravados em tb_product_category. Um patch que
+	 * não altera nada não gera escrita nem evento.
+	 *
+	 * @throws BadRequestException          Se o patch não for um objeto JSON compatível com o ProductDTO.
+	 * @throws ConstraintViolationException Se o produto resultante for inválido.
+	 */
+	@Transactional
+	public ProductDTO patch(Long id, JsonNode patch) {
+		Product entity = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Id not found " + id));
+		ProductDTO dto = mergePatch.apply(new ProductDTO(entity, entity.getCategories()), patch, ProductDTO.class);
+		return applyUpdate(entity, dto);
+	}
+
+	private ProductDTO applyUpdate(Product entity, ProductDTO dto) {
+		Long id = entity.getId();
+		Set<Long> previous = categoryIds(entity);
+		if (!copyDtoToEntity(dto, entity)) {
+			return images.decorate(new ProductDTO(entity));
+		}
+		entity.touch(databaseNow());
+		entity = repository.save(entity);
+
+		// Ajusta os contadores apenas das categorias que entraram ou saíram do produto.
+		Set<Long> current = categoryIds(entity);
+		Set<Long> added = new HashSet<>(current);
+		added.removeAll(previous);
+		previous.removeAll(current);
+		categoryCounters.adjust(added, 1);
+		categoryCounters.adjust(previous, -1);
+		outboxService.record(Aggregate.PRODUCT, id, Operation.UPDATED);
+		snapshots.markChanged(List.of(id));
+		invalidationBus.publish(Invalidation.PRODUCT, id);
+		invalidateCategories(added);
+		invalidateCategories(previous);
+		return images.decorate(new ProductDTO(entity));
+	}
+
+	/**
+	 * Altera o preço de vários produtos em uma única transação, com uma instrução UPDATE por lote de IDs, sem carregar
+	 * as entidades. Nas operações ADD e PERCENT, produtos sem preço não são alterados.
+	 *
+	 * @return Os produtos alterados, para cada um dos quais foi gravado um evento UPDATED na outbox.
+	 * @throws BadRequestException Se o alvo for inválido ou algum preço resultante for negativo; nesse caso nada é
+	 *                             alterado.
+	 */
+	@Transactional
+	public BulkUpdateResultDTO updatePrices(BulkPriceUpdateDTO dto) {
+		List<Long> ids = resolveBulkTargets(dto.getIds(), dto.getCategoryId());
+		double value = dto.getValue();
+		List<Long> updated = new ArrayList<>(ids.size());
+		for (List<Long> chunk : chunks(ids)) {
+			if (dto.getOperation() != BulkPriceUpdateDTO.Operation.SET) {
+				chunk = repository.findIdsWithPrice(chunk);
+				if (chunk.isEmpty()) {
+					continue;
+				}
+			}
+			int count = 0;
+			switch (dto.getOperation()) {
+			case SET:
+				count = repository.setPrice(chunk, value);
+				break;
+			case ADD:
+				count = repository.addToPrice(chunk, value);
+				break;
+			case PERCENT:
+				count = repository.multiplyPrice(chunk, 1 + value / 100);
+				break;
+			}
+			if (count != chunk.size()) {
+				// Algum produto foi excluído depois de resolvido: relê os que ainda existem em vez de supor que todos
+				// foram alterados.
+				chunk = dto.getOperation() == BulkPriceUpdateDTO.Operation.SET ? repository.findExistingIds(chunk)
+						: repository.findIdsWithPrice(chunk);
+			}
+			if (repository.countNegativePrices(chunk) > 0) {
+				throw new BadRequestException("Operation would result in a negative price");
+			}
+			evictFromSecondLevelCache(chunk);
+			updated.addAll(chunk);
+		}
+		publishBulkChanges(updated, Set.of());
+		return new BulkUpdateResultDTO(updated.size(), updated);
+	}
+
+	/**
+	 * Inclui e/ou remove uma categoria de vários produtos em uma única transação. Os vínculos são inseridos e
+	 * removidos por instruções diretas sobre tb_product_category e os contadores das categorias são ajustados pelo
+	 * número de vínculos efetivamente alterados.
+	 *
+	 * @return Os produtos cujos vínculos mudaram, para cada um dos quais foi gravado um evento UPDATED na outbox.
+	 */
+	@Transactional
+	public BulkUpdateResultDTO updateCategories(BulkCategoryUpdateDTO dto) {
+		Long add = dto.getAdd();
+		Long remove = dto.getRemove();
+		if (add == null && remove == null) {
+			throw new BadRequestException("Either add or remove must be informed");
+		}
+		if (add != null && add.equals(remove)) {
+			throw new BadRequestException("add and remove must be different categories");
+		}
+		for (Long categoryId : new Long[] { add, remove }) {
+			if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+				throw new ResourceNotFoundException("Category not found " + categoryId);
+			}
+		}
+		List<Long> ids = resolveBulkTargets(dto.getIds(), dto.getCategoryId());
+		Set<Long> changed = new TreeSet<>();
+		for (List<Long> chunk : chunks(ids)) {
+			if (remove != null) {
+				List<Long> linked = repository.findIdsLinkedTo(chunk, remove);
+				if (!linked.isEmpty()) {
+					int removed = repository.removeCategoryLinks(linked, remove);
+					categoryCounters.adjust(Set.of(remove), -removed);
+					changed.addAll(linked);
+				}
+			}
+			if (add != null) {
+				Set<Long> missing = new HashSet<>(chunk);
+				missing.removeAll(repository.findIdsLinkedTo(chunk, add));
+				if (!missing.isEmpty()) {
+					int added = repository.addCategoryLinks(missing, add);
+					categoryCounters.adjust(Set.of(add), added);
+					changed.addAll(missing);
+				}
+			}
+		}
+		List<Long> updated = new ArrayList<>(changed.size());
+		for (List<Long> chunk : chunks(new ArrayList<>(changed))) {
+			if (repository.touchAll(chunk) != chunk.size()) {
+				chunk = repository.findExistingIds(chunk);
+			}
+			evictFromSecondLevelCache(chunk);
+			updated.addAll(chunk);
+		}
+		Set<Long> categories = new HashSet<>();
+		if (add != null) {
+			categories.add(add);
+		}
+		if (remove != null) {
+			categories.add(remove);
+		}
+		publishBulkChanges(updated, updated.isEmpty() ? Set.of() : categories);
+		return new BulkUpdateResultDTO(updated.size(), updated);
+	}
+
+	/**
+	 * Exclui o produto sem carregá-lo: os vínculos com categorias e o próprio produto são removidos por instruções
+	 * DELETE diretas, e a inexistência é detectada pelo número de linhas afetadas, sem depender de exceções.
+	 */
+	@Transactional
 	public void delete(Long id) {
 		try {
-			repository.deleteById(id);
-		}
-		catch (EmptyResultDataAccessException e) {
-			throw new ResourceNotFoundException("Id not found " + id);
+			List<Long> categories = repository.findCategoryIds(id);
+			repository.deleteCategoryLinks(id);
+			if (repository.deleteDirectlyById(id) == 0) {
+				throw new ResourceNotFoundException("Id not found " + id);
+			}
+			tombstoneRepository.save(new ProductTombstone(id, databaseNow()));
+			outboxService.record(Aggregate.PRODUCT, id, Operation.DELETED);
+			snapshots.markChanged(List.of(id));
+			categoryCounters.adjust(categories, -1);
+			invalidationBus.publish(Invalidation.PRODUCT, id);
+			invalidateCategories(new HashSet<>(categories));
 		}
 		catch (DataIntegrityViolationException e) {
 			throw new DatabaseException("Integrity violation");
 		}
 	}
 	
-	private void copyDtoToEntity(ProductDTO dto, Product entity) {
+	/**
+	 * Resolve os produtos de uma alteração em massa: os IDs informados que existem ou, sem IDs, os produtos da
+	 * categoria. Consulta o banco e não o índice em memória, para não depender da defasagem da outbox.
+	 */
+	private List<Long> resolveBulkTargets(List<Long> ids, Long categoryId) {
+		boolean byIds = ids != null && !ids.isEmpty();
+		if (byIds == (categoryId != null)) {
+			throw new BadRequestException("Either ids or categoryId must be informed");
+		}
+		if (byIds && ids.size() > bulkMaxProducts) {
+			throw new BadRequestException("At most " + bulkMaxProducts + " products per request");
+		}
+		if (byIds && ids.stream().anyMatch(Objects::isNull)) {
+			throw new BadRequestException("ids must not contain null");
+		}
+		List<Long> targets;
+		if (byIds) {
+			targets = new ArrayList<>();
+			for (List<Long> chunk : chunks(new ArrayList<>(new TreeSet<>(ids)))) {
+				targets.addAll(repository.findExistingIds(chunk));
+			}
+		}
+		else {
+			targets = repository.findIdsByCategory(categoryId);
+		}
+		if (targets.size() > bulkMaxProducts) {
+			throw new BadRequestException("At most " + bulkMaxProducts + " products per request");
+		}
+		return targets;
+	}
+
+	// Divide os IDs em lotes, limitando o tamanho das listas IN enviadas ao banco.
+	private static List<List<Long>> chunks(List<Long> ids) {
+		List<List<Long>> chunks = new ArrayList<>();
+		for (int i = 0; i < ids.size(); i += BULK_CHUNK_SIZE) {
+			chunks.add(ids.subList(i, Math.min(ids.size(), i + BULK_CHUNK_SIZE)));
+		}
+		return chunks;
+	}
 
+	// Hibernate só sabe que uma consulta nativa alterou "algo": as entradas dos produtos alterados (e suas coleções de
+	// categorias) são descartadas explicitamente.
+	private void evictFromSecondLevelCache(List<Long> ids) {
+		for (Long id : ids) {
+			secondLevelCache.evictProduct(id);
+		}
+	}
+
+	// Grava um evento UPDATED por produto na mesma transação e invalida os caches; acima de
+	// BULK_CHUNK_SIZE produtos a região inteira é invalidada de uma vez.
+	private void publishBulkChanges(List<Long> productIds, Set<Long> categoryIds) {
+		if (productIds.isEmpty()) {
+			return;
+		}
+		outboxService.recordProducts(productIds, Operation.UPDATED);
+		snapshots.markChanged(productIds);
+		if (productIds.size() > BULK_CHUNK_SIZE) {
+			invalidationBus.publish(Invalidation.PRODUCT, null);
+		}
+		else {
+			for (Long id : productIds) {
+				invalidationBus.publish(Invalidation.PRODUCT, id);
+			}
+		}
+		invalidateCategories(categoryIds);
+	}
+
+	/**
+	 * Copia o DTO para a entidade. As categorias são comparadas pelo ID: apenas as removidas saem da coleção e apenas
+	 * as novas são incluídas, de modo que o Hibernate grava somente esses vínculos, em vez de apagar e reinserir todos.
+	 *
+	 * @return true se algum campo ou categoria mudou.
+	 */
+	private boolean copyDtoToEntity(ProductDTO dto, Product entity) {
+		boolean changed = !Objects.equals(entity.getName(), dto.getName())
+				|| !Objects.equals(entity.getDescription(), dto.getDescription())
+				|| !Objects.equals(entity.getDate(), dto.getDate())
+				|| !Objects.equals(entity.getImgUrl(), dto.getImgUrl())
+				|| !Objects.equals(entity.getPrice(), dto.getPrice());
 		entity.setName(dto.getName());
 		entity.setDescription(dto.getDescription());
 		entity.setDate(dto.getDate());
 		entity.setImgUrl(dto.getImgUrl());
 		entity.setPrice(dto.getPrice());
-		
-		entity.getCategories().clear();
+
+		Set<Long> target = new HashSet<>();
 		for (CategoryDTO catDto : dto.getCategories()) {
-			Category category = categoryRepository.getOne(catDto.getId());
-			entity.getCategories().add(category);			
+			target.add(catDto.getId());
+		}
+		changed |= entity.getCategories().removeIf(category -> !target.contains(category.getId()));
+		target.removeAll(categoryIds(entity));
+		for (Long categoryId : target) {
+			entity.getCategories().add(categoryRepository.getOne(categoryId));
+			changed = true;
 		}
-	}	
+		return changed;
+	}
+
+	private Instant databaseNow() {
+		return repository.currentTimestamp().toInstant();
+	}
+
+	private Set<Long> categoryIds(Product entity) {
+		Set<Long> ids = new HashSet<>();
+		for (Category category : entity.getCategories()) {
+			ids.add(category.getId());
+		}
+		return ids;
+	}
+
+	private void invalidateCategories(Set<Long> categoryIds) {
+		for (Long categoryId : categoryIds) {
+			invalidationBus.publish(Invalidation.CATEGORY, categoryId);
+		}
+	}
 }
@@ -0,0 +1,49 @@
+package com.bookCatalog.bookcatalog.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.bookCatalog.bookcatalog.services.exceptions.BadRequestException;
+
+/**
+ * Posição de um cliente na sincronização incremental de produtos. Guarda duas chaves de keyset independentes, uma
+ * para produtos (updatedAt, id) e outra para exclusões (deletedAt, id), e é trafegada como um token opaco.
+ */
+class ProductSyncCursor {
+
+	private static final String SEPARATOR = "|";
+
+	final Instant updatedAt;
+	final long productId;
+	final Instant deletedAt;
+	final long tombstoneId;
+
+	ProductSyncCursor(Instant updatedAt, long productId, Instant deletedAt, long tombstoneId) {
+		this.updatedAt = updatedAt;
+		this.productId = productId;
+		this.deletedAt = deletedAt;
+		this.tombstoneId = tombstoneId;
+	}
+
+	String encode() {
+		String raw = updatedAt + SEPARATOR + productId + SEPARATOR + deletedAt + SEPARATOR + tombstoneId;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	static ProductSyncCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = raw.split("\\" + SEPARATOR);
+			if (parts.length != 4) {
+				throw new BadRequestException("Invalid sync token");
+			}
+			return new ProductSyncCursor(Instant.parse(parts[0]), Long.parseLong(parts[1]),
+					Instant.parse(parts[2]), Long.parseLong(parts[3]));
+		}
+		catch (IllegalArgumentException | DateTimeParseException e) {
+			throw new BadRequestException("Invalid sync token");
+		}
+	}
+}
@@ -1,8 +1,14 @@
 package com.bookCatalog.bookcatalog.services;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.persistence.EntityNotFoundException;
+import javax.validation.ConstraintViolationException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +17,7 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -18,16 +25,23 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bookCatalog.bookcatalog.components.Invalidation;
+import com.bookCatalog.bookcatalog.components.InvalidationBus;
+import com.bookCatalog.bookcatalog.components.JsonMergePatch;
+import com.bookCatalog.bookcatalog.components.PageCounts;
+import com.bookCatalog.bookcatalog.components.PermissionEpochs;
+import com.bookCatalog.bookcatalog.components.RoleRegistry;
+import com.bookCatalog.bookcatalog.dto.PageDTO;
 import com.bookCatalog.bookcatalog.dto.RoleDTO;
 import com.bookCatalog.bookcatalog.dto.UserDTO;
 import com.bookCatalog.bookcatalog.dto.UserInsertDTO;
 import com.bookCatalog.bookcatalog.dto.UserUpdateDTO;
 import com.bookCatalog.bookcatalog.entities.Role;
 import com.bookCatalog.bookcatalog.entities.User;
-import com.bookCatalog.bookcatalog.repositories.RoleRepository;
 import com.bookCatalog.bookcatalog.repositories.UserRepository;
 import com.bookCatalog.bookcatalog.services.exceptions.DatabaseException;
 import com.bookCatalog.bookcatalog.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.JsonNode;
 
 /**
  * The UserService class is responsible for managing user-related operations.
@@ -46,7 +60,19 @@ public class UserService implements UserDetailsService {
 	private UserRepository repository;
 
 	@Autowired
-	private RoleRepository roleRepository;
+	private RoleRegistry roleRegistry;
+
+	@Autowired
+	private PermissionEpochs permissionEpochs;
+
+	@Autowired
+	private PageCounts pageCounts;
+
+	@Autowired
+	private InvalidationBus invalidationBus;
+
+	@Autowired
+	private JsonMergePatch mergePatch;
 
 	/**
 	 * Retrieves a paginated list of users.
@@ -60,6 +86,36 @@ public class UserService implements UserDetailsService {
 		return list.map(x -> new UserDTO(x));
 	}
 
+	/**
+	 * Retrieves a page of users in the compact envelope, counting the total as requested.
+	 *
+	 * @param pageable The pagination configuration.
+	 * @param count    How the total number of users is obtained.
+	 * @return A PageDTO of UserDTO.
+	 */
+	@Transactional(readOnly = true)
+	public PageDTO<UserDTO> findPage(Pageable pageable, CountMode count) {
+		Slice<User> slice;
+		Long total;
+		if (count == CountMode.EXACT) {
+			Page<User> page = repository.findAll(pageable);
+			slice = page;
+			total = page.getTotalElements();
+		}
+		else {
+			slice = repository.findSliceBy(pageable);
+			total = pageCounts.total(count, PageCounts.USER_TABLE, repository::count);
+		}
+
+		// Converte direto para uma lista com a capacidade exata, sem a Page intermediária do Page.map.
+		List<User> entities = slice.getContent();
+		List<UserDTO> content = new ArrayList<>(entities.size());
+		for (User entity : entities) {
+			content.add(new UserDTO(entity));
+		}
+		return new PageDTO<>(slice, content, total, count != CountMode.EXACT);
+	}
+
 	/**
 	 * Finds a user by its ID.
 	 *
@@ -86,11 +142,14 @@ public class UserService implements UserDetailsService {
 		copyDtoToEntity(dto, entity);
 		entity.setPassword(passwordEncoder.encode(dto.getPassword()));
 		entity = repository.save(entity);
+		invalidationBus.publish(Invalidation.USER, entity.getId());
 		return new UserDTO(entity);
 	}
 
 	/**
 	 * Updates an existing user with the provided ID.
+	 * When the role set changes, the user's permissions epoch is bumped so tokens issued before are rejected.
+	 * When nothing changes, nothing is written and no invalidation is published.
 	 *
 	 * @param id  The ID of the user to be updated.
 	 * @param dto The UserUpdateDTO containing the updated user information.
@@ -101,14 +160,44 @@ public class UserService implements UserDetailsService {
 	public UserDTO update(Long id, UserUpdateDTO dto) {
 		try {
 			User entity = repository.getOne(id);
-			copyDtoToEntity(dto, entity);
-			entity = repository.save(entity);
-			return new UserDTO(entity);
+			return applyUpdate(entity, dto);
 		} catch (EntityNotFoundException e) {
 			throw new ResourceNotFoundException("Id not found " + id);
 		}
 	}
 
+	/**
+	 * Applies a JSON Merge Patch to an existing user. The merged result goes through the same validation as the PUT,
+	 * only changed columns are written (@DynamicUpdate) and only added or removed roles touch tb_user_role.
+	 *
+	 * @param id    The ID of the user to be patched.
+	 * @param patch The merge patch document.
+	 * @return A UserDTO containing the updated user information.
+	 * @throws ResourceNotFoundException    If the user with the specified ID is not found.
+	 * @throws ConstraintViolationException If the patched user is not valid.
+	 */
+	@Transactional
+	public UserDTO patch(Long id, JsonNode patch) {
+		User entity = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Id not found " + id));
+		UserUpdateDTO dto = mergePatch.apply(new UserDTO(entity), patch, UserUpdateDTO.class);
+		return applyUpdate(entity, dto);
+	}
+
+	private UserDTO applyUpdate(User entity, UserUpdateDTO dto) {
+		Long id = entity.getId();
+		Set<Role> previousRoles = new HashSet<>(entity.getRoles());
+		if (!copyDtoToEntity(dto, entity)) {
+			return new UserDTO(entity);
+		}
+		entity = repository.save(entity);
+		if (!previousRoles.equals(entity.getRoles())) {
+			permissionEpochs.bump(id);
+			invalidationBus.publish(Invalidation.USER_PERMISSIONS, id);
+		}
+		invalidationBus.publish(Invalidation.USER, id);
+		return new UserDTO(entity);
+	}
+
 	/**
 	 * Deletes a user with the provided ID.
 	 *
@@ -119,6 +208,9 @@ public class UserService implements UserDetailsService {
 	public void delete(Long id) {
 		try {
 			repository.deleteById(id);
+			permissionEpochs.bump(id);
+			invalidationBus.publish(Invalidation.USER_PERMISSIONS, id);
+			invalidationBus.publish(Invalidation.USER, id);
 		} catch (EmptyResultDataAccessException e) {
 			throw new ResourceNotFoundException("Id not found " + id);
 		} catch (DataIntegrityViolationException e) {
@@ -128,21 +220,34 @@ public class UserService implements UserDetailsService {
 
 	/**
 	 * Copies user information from a UserDTO to a User entity.
+	 * Roles are resolved from the in-memory RoleRegistry instead of one query per role, and only the roles that
+	 * were added or removed are changed, so Hibernate does not rewrite every row of the join table.
 	 *
 	 * @param dto    The UserDTO containing the information to be copied.
 	 * @param entity The User entity to copy the information to.
+	 * @return true if any field or role changed.
 	 */
-	private void copyDtoToEntity(UserDTO dto, User entity) {
-
+	private boolean copyDtoToEntity(UserDTO dto, User entity) {
+		boolean changed = !Objects.equals(entity.getFirstName(), dto.getFirstName())
+				|| !Objects.equals(entity.getLastName(), dto.getLastName())
+				|| !Objects.equals(entity.getEmail(), dto.getEmail());
 		entity.setFirstName(dto.getFirstName());
 		entity.setLastName(dto.getLastName());
 		entity.setEmail(dto.getEmail());
 
-		entity.getRoles().clear();
+		Set<Long> target = new HashSet<>();
 		for (RoleDTO roleDto : dto.getRoles()) {
-			Role role = roleRepository.getOne(roleDto.getId());
-			entity.getRoles().add(role);
+			target.add(roleDto.getId());
+		}
+		changed |= entity.getRoles().removeIf(role -> !target.contains(role.getId()));
+		for (Role role : entity.getRoles()) {
+			target.remove(role.getId());
+		}
+		for (Long roleId : target) {
+			entity.getRoles().add(roleRegistry.getRole(roleId));
+			changed = true;
 		}
+		return changed;
 	}
 
 	/**
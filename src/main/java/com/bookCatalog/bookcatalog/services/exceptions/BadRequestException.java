@@ -0,0 +1,9 @@
+package com.bookCatalog.bookcatalog.services.exceptions;
+
+public class BadRequestException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public BadRequestException(String msg) {
+		super(msg);
+	}
+}
@@ -0,0 +1,9 @@
+package com.bookCatalog.bookcatalog.services.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public ServiceUnavailableException(String msg) {
+		super(msg);
+	}
+}
@@ -0,0 +1,84 @@
+package com.bookCatalog.bookcatalog;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compara a inicialização completa da aplicação (Tomcat, OAuth2, JPA com data.sql) no perfil padrão e no perfil
+ * faststart, com o tempo de cada fase registrado pelo BufferingApplicationStartup. Os tempos são apenas indicativos
+ * (mesma JVM, sem CDS) e são publicados no relatório do JUnit, não verificados; o número de beans criados durante o
+ * refresh é verificado. Sobe a aplicação três vezes, então fica fora do mvn test padrão; uso: mvn -Pbenchmark test.
+ */
+@Tag("benchmark")
+public class StartupBenchmarkTests {
+
+	private static final int CAPACITY = 20000;
+	private static final String REFRESH = "spring.context.refresh";
+	private static final String INSTANTIATE = "spring.beans.instantiate";
+
+	@Test
+	public void fastStartShouldInstantiateFewerBeansDuringRefresh(TestReporter reporter) {
+
+		// Primeira execução só para carregar as classes, que seriam cobradas da primeira medição.
+		run(reporter, "warmup", "test");
+		List<TimelineEvent> standard = run(reporter, "standard", "test");
+		List<TimelineEvent> fastStart = run(reporter, "faststart", "test,faststart");
+
+		int standardBeans = beansInstantiatedDuringRefresh(standard);
+		int fastStartBeans = beansInstantiatedDuringRefresh(fastStart);
+		reporter.publishEntry("standard.beans", String.valueOf(standardBeans));
+		reporter.publishEntry("faststart.beans", String.valueOf(fastStartBeans));
+		Assertions.assertTrue(fastStartBeans < standardBeans);
+	}
+
+	private List<TimelineEvent> run(TestReporter reporter, String name, String profiles) {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(CAPACITY);
+		long start = System.nanoTime();
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(BookcatalogApplication.class)
+				.applicationStartup(startup)
+				.run("--spring.profiles.active=" + profiles, "--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:startup-" + name);
+		long elapsed = System.nanoTime() - start;
+		context.close();
+
+		List<TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+		if (!"warmup".equals(name)) {
+			report(reporter, name, Duration.ofNanos(elapsed), events);
+		}
+		return events;
+	}
+
+	private static int beansInstantiatedDuringRefresh(List<TimelineEvent> events) {
+		TimelineEvent refresh = events.stream().filter(e -> REFRESH.equals(e.getStartupStep().getName())).findFirst()
+				.orElseThrow(() -> new AssertionError(REFRESH + " not recorded"));
+		return (int) events.stream().filter(e -> INSTANTIATE.equals(e.getStartupStep().getName()))
+				.filter(e -> !e.getEndTime().isAfter(refresh.getEndTime())).count();
+	}
+
+	// Soma a duração por nome de fase; fases aninhadas (beans dentro do refresh) são contadas em ambas.
+	private static void report(TestReporter reporter, String name, Duration total, List<TimelineEvent> events) {
+		Map<String, Duration> durations = new TreeMap<>();
+		Map<String, Integer> counts = new TreeMap<>();
+		for (TimelineEvent event : events) {
+			String step = event.getStartupStep().getName();
+			durations.merge(step, event.getDuration(), Duration::plus);
+			counts.merge(step, 1, Integer::sum);
+		}
+		reporter.publishEntry(name + ".ready-ms", String.valueOf(total.toMillis()));
+		for (Map.Entry<String, Duration> entry : durations.entrySet()) {
+			reporter.publishEntry(name + "." + entry.getKey(),
+					entry.getValue().toMillis() + " ms, " + counts.get(entry.getKey()) + " x");
+		}
+	}
+}
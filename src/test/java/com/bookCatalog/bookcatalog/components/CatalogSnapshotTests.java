@@ -0,0 +1,64 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bookCatalog.bookcatalog.dto.ProductDTO;
+
+public class CatalogSnapshotTests {
+
+	@TempDir
+	Path directory;
+
+	private CatalogSnapshot snapshot;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Path file = directory.resolve("catalog.snapshot");
+		try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+			CatalogSnapshot.Writer writer = new CatalogSnapshot.Writer(out, Instant.parse("2021-01-01T00:00:00Z"));
+			writer.writeCategory(1L, "Livros");
+			writer.writeCategory(2L, "Eletrônicos");
+			writer.writeProduct(3L, 90.5, Instant.parse("2020-07-13T20:50:07Z"), "The Lord of the Rings", "Descrição",
+					"https://img.com/3.jpg", new long[] { 1L });
+			writer.writeProduct(7L, null, null, "Smart TV", null, null, new long[] { 1L, 2L });
+			writer.finish();
+		}
+		snapshot = CatalogSnapshot.open(file);
+	}
+
+	@Test
+	public void findProductShouldReturnProductWithCategoriesWhenIdExists() {
+
+		ProductDTO dto = snapshot.findProduct(7L);
+
+		Assertions.assertEquals("Smart TV", dto.getName());
+		Assertions.assertNull(dto.getPrice());
+		Assertions.assertNull(dto.getDate());
+		Assertions.assertEquals(2, dto.getCategories().size());
+		Assertions.assertEquals("Eletrônicos", dto.getCategories().get(1).getName());
+	}
+
+	@Test
+	public void findProductShouldReturnNullWhenIdDoesNotExist() {
+
+		Assertions.assertNull(snapshot.findProduct(5L));
+	}
+
+	@Test
+	public void productIdsShouldReturnPageInIdOrder() {
+
+		Assertions.assertEquals(2, snapshot.productCount());
+		Assertions.assertEquals(List.of(7L, 3L), snapshot.productIds(false, 0, 10));
+		Assertions.assertEquals(List.of(7L), snapshot.productIds(true, 1, 10));
+		Assertions.assertEquals(Instant.parse("2021-01-01T00:00:00Z"), snapshot.getCreatedAt());
+	}
+}
@@ -0,0 +1,48 @@
+package com.bookCatalog.bookcatalog.components;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bookCatalog.bookcatalog.components.IdempotencyStore.Claim;
+import com.bookCatalog.bookcatalog.components.IdempotencyStore.StoredResponse;
+
+public class IdempotencyStoreTests {
+
+	private IdempotencyStore store;
+	private StoredResponse created;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		store = new IdempotencyStore();
+		ReflectionTestUtils.setField(store, "maxEntries", 2);
+		ReflectionTestUtils.setField(store, "ttlMs", 60000L);
+		created = new StoredResponse(201, "application/json", null, new byte[0]);
+	}
+
+	@Test
+	public void claimShouldEvictOldestCompletedEntryWhenLimitIsReached() {
+
+		Claim inFlight = store.claim("a", "fa");
+		Claim completed = store.claim("b", "fb");
+		store.complete(completed.getEntry(), created);
+
+		store.claim("c", "fc");
+
+		Assertions.assertSame(inFlight.getEntry(), store.claim("a", "fa").getEntry());
+		Assertions.assertTrue(store.claim("b", "fb").isFirst());
+	}
+
+	@Test
+	public void claimShouldKeepInFlightEntriesWhenNoEntryIsCompleted() {
+
+		store.claim("a", "fa");
+		store.claim("b", "fb");
+		store.claim("c", "fc");
+
+		Assertions.assertFalse(store.claim("a", "fa").isFirst());
+		Assertions.assertFalse(store.claim("b", "fb").isFirst());
+		Assertions.assertFalse(store.claim("c", "fc").isFirst());
+	}
+}
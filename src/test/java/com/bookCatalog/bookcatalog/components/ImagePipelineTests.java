@@ -0,0 +1,117 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bookCatalog.bookcatalog.dto.ProductDTO;
+
+public class ImagePipelineTests {
+
+	private static final String IMG_URL = "https://raw.githubusercontent.com/bookCatalog/bookcatalog-resources/master/backend/img/1-big.jpg";
+
+	@TempDir
+	Path directory;
+
+	private ImagePipeline pipeline;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Path source = Files.createDirectory(directory.resolve("source"));
+		ImageIO.write(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), "jpg", source.resolve("1-big.jpg").toFile());
+
+		JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+		Mockito.when(jdbcTemplate.queryForList(ArgumentMatchers.anyString(), ArgumentMatchers.eq(String.class)))
+				.thenReturn(List.of(IMG_URL));
+
+		pipeline = new ImagePipeline();
+		ReflectionTestUtils.setField(pipeline, "enabled", true);
+		ReflectionTestUtils.setField(pipeline, "directory", directory.resolve("variants").toString());
+		ReflectionTestUtils.setField(pipeline, "sourceDirectory", source.toString());
+		ReflectionTestUtils.setField(pipeline, "widths", new int[] { 160, 1000 });
+		ReflectionTestUtils.setField(pipeline, "workers", 2);
+		ReflectionTestUtils.setField(pipeline, "queueCapacity", 10);
+		ReflectionTestUtils.setField(pipeline, "fetchTimeoutMs", 1000L);
+		ReflectionTestUtils.setField(pipeline, "maxSourceBytes", 1 << 20);
+		ReflectionTestUtils.setField(pipeline, "maxSourcePixels", 1000000L);
+		ReflectionTestUtils.setField(pipeline, "allowedHosts", new String[] { "raw.githubusercontent.com" });
+		ReflectionTestUtils.setField(pipeline, "baseUrl", "/catalog/images/");
+		ReflectionTestUtils.setField(pipeline, "jdbcTemplate", jdbcTemplate);
+		pipeline.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		pipeline.stop();
+	}
+
+	@Test
+	public void scanShouldGenerateContentAddressedVariantsWithoutUpscaling() throws Exception {
+
+		pipeline.scan();
+		Map<Integer, String> variants = awaitVariants();
+
+		Assertions.assertEquals(2, variants.size());
+		String small = variants.get(160).substring("/catalog/images/".length());
+		BufferedImage thumbnail = ImageIO.read(pipeline.resolve(small).toFile());
+		Assertions.assertEquals(160, thumbnail.getWidth());
+		Assertions.assertEquals(120, thumbnail.getHeight());
+
+		String large = variants.get(1000).substring("/catalog/images/".length());
+		Assertions.assertEquals(800, ImageIO.read(pipeline.resolve(large).toFile()).getWidth());
+	}
+
+	@Test
+	public void resolveShouldReturnNullWhenNameIsNotAHash() {
+
+		Assertions.assertNull(pipeline.resolve("../application.properties"));
+		Assertions.assertNull(pipeline.resolve("abc.jpg"));
+	}
+
+	@Test
+	public void fetchShouldRejectUrlWhenHostIsNotAllowed() {
+
+		ReflectionTestUtils.setField(pipeline, "sourceDirectory", "");
+
+		IOException e = Assertions.assertThrows(IOException.class,
+				() -> pipeline.fetch("http://169.254.169.254/latest/meta-data/"));
+		Assertions.assertEquals("Host not allowed: 169.254.169.254", e.getMessage());
+		Assertions.assertThrows(IOException.class, () -> pipeline.fetch("file:///etc/passwd"));
+	}
+
+	@Test
+	public void decodeShouldRejectImageWhenPixelCountExceedsLimit() throws Exception {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(1200, 900, BufferedImage.TYPE_INT_RGB), "jpg", out);
+
+		IOException e = Assertions.assertThrows(IOException.class, () -> pipeline.decode(out.toByteArray()));
+		Assertions.assertEquals("Source image larger than 1000000 pixels", e.getMessage());
+	}
+
+	private Map<Integer, String> awaitVariants() throws InterruptedException {
+		ProductDTO dto = new ProductDTO(1L, "The Lord of the Rings", null, 90.5, IMG_URL, null);
+		for (int i = 0; i < 100 && dto.getImgVariants() == null; i++) {
+			Thread.sleep(50);
+			pipeline.decorate(dto);
+		}
+		Assertions.assertNotNull(dto.getImgVariants());
+		return dto.getImgVariants();
+	}
+}
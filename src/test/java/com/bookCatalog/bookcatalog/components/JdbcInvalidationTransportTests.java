@@ -0,0 +1,89 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bookCatalog.bookcatalog.entities.CacheInvalidation;
+import com.bookCatalog.bookcatalog.repositories.CacheInvalidationRepository;
+
+@ExtendWith(SpringExtension.class)
+public class JdbcInvalidationTransportTests {
+
+	private static final long GAP_TIMEOUT_MS = 100;
+
+	@InjectMocks
+	private JdbcInvalidationTransport transport;
+
+	@Mock
+	private CacheInvalidationRepository repository;
+
+	private List<CacheInvalidation> log;
+	private List<Long> received;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ReflectionTestUtils.setField(transport, "batchSize", 500);
+		ReflectionTestUtils.setField(transport, "gapTimeoutMs", GAP_TIMEOUT_MS);
+		log = new ArrayList<>();
+		received = new ArrayList<>();
+
+		Mockito.when(repository.findMaxId()).thenReturn(0L);
+		Mockito.when(repository.findByIdGreaterThanOrderByIdAsc(ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+				.thenAnswer(invocation -> {
+					long after = invocation.getArgument(0);
+					return log.stream().filter(row -> row.getId() > after).collect(Collectors.toList());
+				});
+
+		receive(); // Posiciona no fim da tabela, como na inicialização.
+	}
+
+	@Test
+	public void receiveShouldStopAtGapUntilItIsFilled() {
+
+		append(1L, 3L);
+		receive();
+		Assertions.assertEquals(List.of(1L), received);
+
+		append(2L);
+		receive();
+		Assertions.assertEquals(List.of(1L, 2L, 3L), received);
+	}
+
+	@Test
+	public void receiveShouldSkipAllGapsSeenTogetherAfterOneTimeout() throws Exception {
+
+		append(1L, 3L, 5L);
+		receive();
+		Assertions.assertEquals(List.of(1L), received);
+
+		Thread.sleep(GAP_TIMEOUT_MS + 50);
+		receive();
+
+		Assertions.assertEquals(List.of(1L, 3L, 5L), received);
+	}
+
+	private void receive() {
+		transport.receive("local", invalidations -> invalidations.forEach(i -> received.add(i.getKey())));
+	}
+
+	private void append(Long... ids) {
+		for (Long id : ids) {
+			CacheInvalidation row = new CacheInvalidation("remote", "product", id);
+			ReflectionTestUtils.setField(row, "id", id);
+			log.add(row);
+		}
+		log.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+	}
+}
@@ -0,0 +1,119 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bookCatalog.bookcatalog.dto.CatalogEventDTO;
+import com.bookCatalog.bookcatalog.dto.SuggestionDTO;
+import com.bookCatalog.bookcatalog.entities.Category;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Aggregate;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Operation;
+import com.bookCatalog.bookcatalog.repositories.CategoryRepository;
+import com.bookCatalog.bookcatalog.repositories.ProductRepository;
+import com.bookCatalog.bookcatalog.repositories.ProductSortKey;
+import com.bookCatalog.bookcatalog.services.exceptions.ServiceUnavailableException;
+
+@ExtendWith(SpringExtension.class)
+public class NameSuggesterTests {
+
+	@InjectMocks
+	private NameSuggester suggester;
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private CategoryRepository categoryRepository;
+
+	@Mock
+	private ProductCategoryIndex categoryIndex;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ReflectionTestUtils.setField(suggester, "maxScan", 20000);
+		Mockito.when(productRepository.findAllSortKeys())
+				.thenReturn(List.of(key(1L, "The Lord of the Rings"), key(2L, "Smart TV"), key(3L, "PC Gamer")));
+		Mockito.when(categoryRepository.findAll()).thenReturn(List.of(new Category(1L, "Livros")));
+		suggester.rebuild();
+	}
+
+	@Test
+	public void suggestShouldRankCategoriesAsZeroWhenCategoryIndexIsNotLoaded() {
+
+		Mockito.when(categoryIndex.productsByCategory()).thenThrow(ServiceUnavailableException.class);
+
+		Assertions.assertEquals(List.of("Livros"), names(suggester.suggest("li", 10)));
+	}
+
+	@Test
+	public void suggestShouldNotReadCategoryIndexWhenOnlyProductsMatch() {
+
+		Assertions.assertEquals(List.of("Smart TV"), names(suggester.suggest("tv", 10)));
+		Mockito.verifyNoInteractions(categoryIndex);
+	}
+
+	@Test
+	public void onCatalogChangeShouldMergeChangedEntriesInOrder() {
+
+		Mockito.when(categoryIndex.productsByCategory()).thenReturn(Map.of(1L, new BitSet()));
+		Mockito.when(productRepository.findSortKeys(Set.of(2L))).thenReturn(List.of(key(2L, "Livro de Receitas")));
+
+		suggester.onCatalogChange(batch(2L));
+
+		Assertions.assertEquals(Set.of("Livros", "Livro de Receitas"), Set.copyOf(names(suggester.suggest("livr", 10))));
+		Assertions.assertEquals(List.of("Livro de Receitas"), names(suggester.suggest("rec", 10)));
+		Assertions.assertEquals(List.of(), names(suggester.suggest("smart", 10)));
+		Assertions.assertEquals(List.of("PC Gamer"), names(suggester.suggest("gam", 10)));
+		Assertions.assertEquals(List.of("The Lord of the Rings"), names(suggester.suggest("lord", 10)));
+	}
+
+	private static CatalogChangeBatch batch(Long productId) {
+		OutboxEvent event = new OutboxEvent(Aggregate.PRODUCT, productId, Operation.UPDATED);
+		ReflectionTestUtils.setField(event, "id", 1L);
+		return new CatalogChangeBatch(List.of(new CatalogEventDTO(event)));
+	}
+
+	private static List<String> names(List<SuggestionDTO> suggestions) {
+		return suggestions.stream().map(SuggestionDTO::getName).collect(Collectors.toList());
+	}
+
+	private static ProductSortKey key(Long id, String name) {
+		return new ProductSortKey() {
+
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public String getName() {
+				return name;
+			}
+
+			@Override
+			public Double getPrice() {
+				return null;
+			}
+
+			@Override
+			public Instant getDate() {
+				return null;
+			}
+		};
+	}
+}
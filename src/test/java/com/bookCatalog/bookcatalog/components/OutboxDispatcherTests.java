@@ -0,0 +1,144 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bookCatalog.bookcatalog.dto.CatalogEventDTO;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Aggregate;
+import com.bookCatalog.bookcatalog.entities.OutboxEvent.Operation;
+import com.bookCatalog.bookcatalog.repositories.OutboxEventRepository;
+import com.bookCatalog.bookcatalog.services.OutboxService;
+
+@ExtendWith(SpringExtension.class)
+public class OutboxDispatcherTests {
+
+	private static final long GAP_TIMEOUT_MS = 100;
+
+	@InjectMocks
+	private OutboxDispatcher dispatcher;
+
+	@Mock
+	private OutboxEventRepository repository;
+
+	@Mock
+	private OutboxService outboxService;
+
+	@Mock
+	private ApplicationEventPublisher publisher;
+
+	private List<OutboxEvent> log;
+	private List<Long> published;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ReflectionTestUtils.setField(dispatcher, "batchSize", 500);
+		ReflectionTestUtils.setField(dispatcher, "gapTimeoutMs", GAP_TIMEOUT_MS);
+		log = new ArrayList<>();
+		published = new ArrayList<>();
+
+		Mockito.when(repository.findMaxId()).thenReturn(0L);
+		Mockito.when(repository.findByIdGreaterThanOrderByIdAsc(ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+				.thenAnswer(invocation -> {
+					long after = invocation.getArgument(0);
+					return log.stream().filter(e -> e.getId() > after).collect(Collectors.toList());
+				});
+		Mockito.doAnswer(invocation -> {
+			CatalogChangeBatch batch = invocation.getArgument(0);
+			batch.getEvents().forEach(e -> published.add(e.getOffset()));
+			return null;
+		}).when(publisher).publishEvent(ArgumentMatchers.any(Object.class));
+
+		dispatcher.dispatch(); // Posiciona no fim do log, como na inicialização.
+	}
+
+	@Test
+	public void dispatchShouldPublishEventsInOffsetOrder() {
+
+		append(1L, 2L, 3L);
+
+		dispatcher.dispatch();
+
+		Assertions.assertEquals(List.of(1L, 2L, 3L), published);
+		Assertions.assertEquals(3L, dispatcher.getDispatchedOffset());
+	}
+
+	@Test
+	public void dispatchShouldStopAtGapUntilItIsFilled() {
+
+		append(1L, 3L);
+		dispatcher.dispatch();
+		Assertions.assertEquals(List.of(1L), published);
+
+		append(2L);
+		dispatcher.dispatch();
+		Assertions.assertEquals(List.of(1L, 2L, 3L), published);
+	}
+
+	@Test
+	public void dispatchShouldSkipAllGapsSeenTogetherAfterOneTimeout() throws Exception {
+
+		append(1L, 3L, 5L, 7L);
+		dispatcher.dispatch();
+		Assertions.assertEquals(List.of(1L), published);
+
+		Thread.sleep(GAP_TIMEOUT_MS + 50);
+		dispatcher.dispatch();
+
+		Assertions.assertEquals(List.of(1L, 3L, 5L, 7L), published);
+		Assertions.assertEquals(7L, dispatcher.getDispatchedOffset());
+	}
+
+	@Test
+	public void awaitShouldDeliverOnlyEventsAfterOffsetUpToLimit() {
+
+		List<List<CatalogEventDTO>> delivered = new ArrayList<>();
+		dispatcher.await(1L, 1, delivered::add);
+
+		append(1L, 2L, 3L);
+		dispatcher.dispatch();
+		append(4L);
+		dispatcher.dispatch();
+
+		Assertions.assertEquals(1, delivered.size());
+		Assertions.assertEquals(List.of(2L), offsets(delivered.get(0)));
+	}
+
+	@Test
+	public void awaitShouldNotDeliverAfterCancel() {
+
+		List<List<CatalogEventDTO>> delivered = new ArrayList<>();
+		dispatcher.await(0L, 10, delivered::add).run();
+
+		append(1L);
+		dispatcher.dispatch();
+
+		Assertions.assertTrue(delivered.isEmpty());
+	}
+
+	private void append(Long... ids) {
+		for (Long id : ids) {
+			OutboxEvent event = new OutboxEvent(Aggregate.PRODUCT, id, Operation.UPDATED);
+			ReflectionTestUtils.setField(event, "id", id);
+			log.add(event);
+		}
+		log.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+	}
+
+	private static List<Long> offsets(List<CatalogEventDTO> events) {
+		return events.stream().map(CatalogEventDTO::getOffset).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,81 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.bookCatalog.bookcatalog.entities.PermissionEpoch;
+import com.bookCatalog.bookcatalog.repositories.PermissionEpochRepository;
+
+@ExtendWith(SpringExtension.class)
+public class PermissionEpochsTests {
+
+	@InjectMocks
+	private PermissionEpochs epochs;
+
+	@Mock
+	private PermissionEpochRepository repository;
+
+	private EpochAwareAccessTokenConverter converter;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		converter = new EpochAwareAccessTokenConverter(epochs);
+		converter.setSigningKey("test-secret");
+	}
+
+	@Test
+	public void extractAuthenticationShouldRejectTokenIssuedBeforeBump() {
+
+		Assertions.assertDoesNotThrow(() -> converter.extractAuthentication(claims(1L, 0L)));
+
+		Mockito.when(repository.increment(1L)).thenReturn(0);
+		Mockito.when(repository.findEpoch(1L)).thenReturn(1L);
+		epochs.bump(1L);
+
+		Mockito.verify(repository).save(new PermissionEpoch(1L, 1L));
+		Assertions.assertThrows(InvalidTokenException.class, () -> converter.extractAuthentication(claims(1L, 0L)));
+		Assertions.assertDoesNotThrow(() -> converter.extractAuthentication(claims(1L, 1L)));
+	}
+
+	@Test
+	public void isCurrentShouldUsePersistedEpochsAfterRestart() {
+
+		Mockito.when(repository.findAll()).thenReturn(List.of(new PermissionEpoch(1L, 3L)));
+
+		Assertions.assertFalse(epochs.isCurrent(1L, 2L));
+		Assertions.assertTrue(epochs.isCurrent(1L, 3L));
+		Assertions.assertTrue(epochs.isCurrent(2L, 0L));
+	}
+
+	@Test
+	public void refreshShouldApplyEpochBumpedByAnotherNode() {
+
+		Mockito.when(repository.findEpoch(1L)).thenReturn(2L);
+		epochs.refresh(1L);
+
+		Assertions.assertEquals(2L, epochs.current(1L));
+		Mockito.verify(repository, Mockito.never()).increment(1L);
+	}
+
+	private static Map<String, Object> claims(Long userId, long epoch) {
+		Map<String, Object> map = new HashMap<>();
+		map.put("user_name", "alex@gmail.com");
+		map.put("authorities", List.of("ROLE_OPERATOR"));
+		map.put("client_id", "bookcatalog");
+		map.put(JwtTokenEnhancer.USER_ID, userId);
+		map.put(JwtTokenEnhancer.CLAIMS_VERSION, JwtTokenEnhancer.CURRENT_CLAIMS_VERSION);
+		map.put(JwtTokenEnhancer.PERMISSIONS_EPOCH, epoch);
+		return map;
+	}
+}
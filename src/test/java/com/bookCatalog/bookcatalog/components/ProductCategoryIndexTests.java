@@ -0,0 +1,98 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.bookCatalog.bookcatalog.services.exceptions.ServiceUnavailableException;
+
+@ExtendWith(SpringExtension.class)
+public class ProductCategoryIndexTests {
+
+	@InjectMocks
+	private ProductCategoryIndex index;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Mock
+	private TaskScheduler taskScheduler;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// Categorias 1 e 2; o produto 5 está nas duas e o produto 7 só na 2.
+		rows("SELECT id, name FROM tb_category", new Object[] { 1L, "Livros" }, new Object[] { 2L, "Eletrônicos" });
+		rows("SELECT product_id, category_id FROM tb_product_category",
+				new Object[] { 5L, 1L }, new Object[] { 5L, 2L }, new Object[] { 7L, 2L });
+	}
+
+	@Test
+	public void productsInAllShouldServePublishedIndexWithoutQueryingDatabase() {
+
+		index.rebuild();
+		Mockito.clearInvocations(jdbcTemplate);
+
+		Assertions.assertEquals(List.of(5L), ProductCategoryIndex.page(index.productsInAll(List.of(1L, 2L)), true, 0, 10));
+		Assertions.assertEquals(2, index.countInAll(List.of(2L)));
+		Mockito.verifyNoInteractions(jdbcTemplate, taskScheduler);
+	}
+
+	@Test
+	public void productsInAllShouldLoadInBackgroundWhenIndexIsNotLoaded() {
+
+		Assertions.assertThrows(ServiceUnavailableException.class, () -> index.productsInAll(List.of(1L)));
+		Assertions.assertThrows(ServiceUnavailableException.class, () -> index.productsInAll(List.of(1L)));
+
+		ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+		Mockito.verify(taskScheduler, Mockito.times(1)).schedule(task.capture(), ArgumentMatchers.any(Instant.class));
+		Mockito.verifyNoInteractions(jdbcTemplate);
+
+		task.getValue().run();
+
+		Assertions.assertEquals(1, index.countInAll(List.of(1L)));
+	}
+
+	@Test
+	public void categoryNamesShouldBeServedInNameOrderFromIndex() {
+
+		index.rebuild();
+		Mockito.clearInvocations(jdbcTemplate);
+
+		Assertions.assertEquals(List.of(2L, 1L), List.copyOf(index.categoryNames().keySet()));
+		Assertions.assertEquals("Eletrônicos", index.categoryNames().get(2L));
+		Mockito.verifyNoInteractions(jdbcTemplate);
+	}
+
+	private void rows(String sql, Object[]... rows) {
+		Mockito.doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			for (Object[] row : rows) {
+				ResultSet rs = Mockito.mock(ResultSet.class);
+				for (int i = 0; i < row.length; i++) {
+					if (row[i] instanceof Long) {
+						Mockito.when(rs.getLong(i + 1)).thenReturn((Long) row[i]);
+					}
+					else {
+						Mockito.when(rs.getString(i + 1)).thenReturn((String) row[i]);
+					}
+				}
+				handler.processRow(rs);
+			}
+			return null;
+		}).when(jdbcTemplate).query(ArgumentMatchers.eq(sql), ArgumentMatchers.any(RowCallbackHandler.class));
+	}
+}
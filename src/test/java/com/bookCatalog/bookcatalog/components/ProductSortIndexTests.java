@@ -0,0 +1,97 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bookCatalog.bookcatalog.repositories.ProductRepository;
+import com.bookCatalog.bookcatalog.repositories.ProductSortKey;
+
+@ExtendWith(SpringExtension.class)
+public class ProductSortIndexTests {
+
+	@InjectMocks
+	private ProductSortIndex index;
+
+	@Mock
+	private ProductRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ReflectionTestUtils.setField(index, "nameCollation", "");
+		// Em ordem binária "Zebra" vem antes de "apple"; numa collation por locale, depois.
+		Mockito.when(repository.findAllSortKeys()).thenReturn(List.of(
+				key(1L, "apple", 30.0), key(2L, "Zebra", 10.0), key(3L, "Mouse", 20.0)));
+	}
+
+	@Test
+	public void supportsShouldServeNameWhenOrderMatchesDatabase() {
+
+		Mockito.when(repository.findIdsOrderByName()).thenReturn(List.of(3L, 2L, 1L));
+
+		index.rebuild();
+
+		Assertions.assertTrue(index.supports(Sort.by("name")));
+		Assertions.assertEquals(List.of(3L, 2L, 1L), index.page(Sort.by("name"), 0, 10));
+	}
+
+	@Test
+	public void supportsShouldLeaveNameToDatabaseWhenCollationDiffers() {
+
+		Mockito.when(repository.findIdsOrderByName()).thenReturn(List.of(1L, 3L, 2L));
+
+		index.rebuild();
+
+		Assertions.assertFalse(index.supports(Sort.by("name")));
+		Assertions.assertTrue(index.supports(Sort.by("price")));
+		Assertions.assertEquals(List.of(2L, 3L, 1L), index.page(Sort.by("price"), 0, 10));
+		Assertions.assertEquals(3L, index.size());
+	}
+
+	@Test
+	public void rebuildShouldOrderNamesWithCollatorWhenCollationIsConfigured() {
+
+		ReflectionTestUtils.setField(index, "nameCollation", "en");
+		Mockito.when(repository.findIdsOrderByName()).thenReturn(List.of(1L, 3L, 2L));
+
+		index.rebuild();
+
+		Assertions.assertTrue(index.supports(Sort.by("name")));
+		Assertions.assertEquals(List.of(2L, 3L, 1L), index.page(Sort.by(Sort.Direction.DESC, "name"), 0, 10));
+	}
+
+	private static ProductSortKey key(Long id, String name, Double price) {
+		return new ProductSortKey() {
+
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public String getName() {
+				return name;
+			}
+
+			@Override
+			public Double getPrice() {
+				return price;
+			}
+
+			@Override
+			public Instant getDate() {
+				return null;
+			}
+		};
+	}
+}
@@ -0,0 +1,78 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.common.exceptions.InvalidGrantException;
+
+public class RefreshTokenRegistryTests {
+
+	private RefreshTokenRegistry registry;
+	private Instant expiresAt;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		registry = new RefreshTokenRegistry();
+		expiresAt = Instant.now().plusSeconds(3600);
+	}
+
+	@Test
+	public void consumeShouldRotateTokensWithinTheSameFamily() {
+
+		String family = registry.newFamily();
+		registry.register("t1", family, expiresAt);
+
+		Assertions.assertEquals(family, registry.consume("t1"));
+		registry.register("t2", family, expiresAt);
+		Assertions.assertEquals(family, registry.consume("t2"));
+	}
+
+	@Test
+	public void consumeShouldRevokeFamilyWhenTokenIsReused() {
+
+		String family = registry.newFamily();
+		registry.register("t1", family, expiresAt);
+		registry.consume("t1");
+		registry.register("t2", family, expiresAt);
+
+		InvalidGrantException reuse = Assertions.assertThrows(InvalidGrantException.class, () -> registry.consume("t1"));
+		Assertions.assertEquals("Refresh token reuse detected", reuse.getMessage());
+		InvalidGrantException revoked = Assertions.assertThrows(InvalidGrantException.class, () -> registry.consume("t2"));
+		Assertions.assertEquals("Refresh token revoked", revoked.getMessage());
+	}
+
+	@Test
+	public void consumeShouldNotAffectOtherFamiliesWhenTokenIsReused() {
+
+		String leaked = registry.newFamily();
+		String other = registry.newFamily();
+		registry.register("t1", leaked, expiresAt);
+		registry.register("u1", other, expiresAt);
+		registry.consume("t1");
+
+		Assertions.assertThrows(InvalidGrantException.class, () -> registry.consume("t1"));
+		Assertions.assertEquals(other, registry.consume("u1"));
+	}
+
+	@Test
+	public void consumeShouldThrowInvalidGrantExceptionWhenTokenIsUnknown() {
+
+		Assertions.assertThrows(InvalidGrantException.class, () -> registry.consume("unknown"));
+		Assertions.assertThrows(InvalidGrantException.class, () -> registry.consume(null));
+	}
+
+	@Test
+	public void sweepShouldRemoveOnlyExpiredTokens() {
+
+		String family = registry.newFamily();
+		registry.register("expired", family, Instant.now().minusSeconds(1));
+		registry.register("valid", family, expiresAt);
+
+		registry.sweep();
+
+		Assertions.assertThrows(InvalidGrantException.class, () -> registry.consume("expired"));
+		Assertions.assertEquals(family, registry.consume("valid"));
+	}
+}
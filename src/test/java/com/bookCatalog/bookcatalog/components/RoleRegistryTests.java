@@ -0,0 +1,63 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.bookCatalog.bookcatalog.entities.Role;
+import com.bookCatalog.bookcatalog.repositories.RoleRepository;
+import com.bookCatalog.bookcatalog.services.exceptions.ResourceNotFoundException;
+
+@ExtendWith(SpringExtension.class)
+public class RoleRegistryTests {
+
+	@InjectMocks
+	private RoleRegistry registry;
+
+	@Mock
+	private RoleRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Mockito.when(repository.findAll()).thenReturn(List.of(new Role(1L, "ROLE_OPERATOR"), new Role(2L, "ROLE_ADMIN")));
+	}
+
+	@Test
+	public void getRoleShouldLoadOnceAndServeFromMemory() {
+
+		Assertions.assertEquals("ROLE_OPERATOR", registry.getRole(1L).getAuthority());
+		Assertions.assertEquals("ROLE_ADMIN", registry.getRole(2L).getAuthority());
+		Assertions.assertEquals(2, registry.findAll().size());
+
+		Mockito.verify(repository, Mockito.times(1)).findAll();
+	}
+
+	@Test
+	public void getRoleShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
+
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> registry.getRole(3L));
+	}
+
+	@Test
+	public void reloadShouldReplaceRolesFromRepository() {
+
+		registry.load();
+		Mockito.when(repository.findAll()).thenReturn(List.of(new Role(1L, "ROLE_OPERATOR")));
+
+		Assertions.assertEquals(1, registry.reload().size());
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> registry.getRole(2L));
+	}
+
+	@Test
+	public void authorityShouldReturnSharedInstance() {
+
+		Assertions.assertSame(RoleRegistry.authority("ROLE_ADMIN"), RoleRegistry.authority("ROLE_ADMIN"));
+	}
+}
@@ -0,0 +1,92 @@
+package com.bookCatalog.bookcatalog.components;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import com.bookCatalog.bookcatalog.dto.SingleFlightStatsDTO;
+
+public class SingleFlightAspectTests {
+
+	private SingleFlightAspect aspect;
+	private SlowReader reader;
+	private SlowReader proxy;
+	private ExecutorService executor;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		aspect = new SingleFlightAspect();
+		reader = new SlowReader();
+		AspectJProxyFactory factory = new AspectJProxyFactory(reader);
+		factory.setProxyTargetClass(true);
+		factory.addAspect(aspect);
+		proxy = factory.getProxy();
+		executor = Executors.newFixedThreadPool(2);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		reader.release.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void concurrentCallsWithSameArgumentsShouldShareOneExecution() throws Exception {
+
+		Future<String> first = executor.submit(() -> proxy.read(1L));
+		Assertions.assertTrue(reader.started.await(5, TimeUnit.SECONDS));
+		Future<String> second = executor.submit(() -> proxy.read(1L));
+		waitForCoalescedCall();
+		reader.release.countDown();
+
+		Assertions.assertEquals("value 1", first.get(5, TimeUnit.SECONDS));
+		Assertions.assertSame(first.get(), second.get(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(1, reader.executions.get());
+	}
+
+	@Test
+	public void callsWithDifferentArgumentsShouldNotBeCoalesced() throws Exception {
+
+		reader.release.countDown();
+
+		Assertions.assertEquals("value 1", proxy.read(1L));
+		Assertions.assertEquals("value 2", proxy.read(2L));
+		Assertions.assertEquals(2, reader.executions.get());
+		Assertions.assertEquals(0, aspect.statistics().get(0).getCoalesced());
+	}
+
+	private void waitForCoalescedCall() throws InterruptedException {
+		for (int i = 0; i < 500; i++) {
+			for (SingleFlightStatsDTO stats : aspect.statistics()) {
+				if (stats.getCoalesced() > 0) {
+					return;
+				}
+			}
+			Thread.sleep(10);
+		}
+		Assertions.fail("Second call was not coalesced");
+	}
+
+	public static class SlowReader {
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final AtomicInteger executions = new AtomicInteger();
+
+		@SingleFlight
+		public String read(Long id) throws InterruptedException {
+			executions.incrementAndGet();
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return new String("value " + id);
+		}
+	}
+}
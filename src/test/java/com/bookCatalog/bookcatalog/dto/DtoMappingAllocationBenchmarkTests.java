@@ -0,0 +1,90 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.bookCatalog.bookcatalog.entities.Category;
+import com.bookCatalog.bookcatalog.entities.Product;
+import com.bookCatalog.bookcatalog.tests.Factory;
+
+/**
+ * Mede os bytes alocados na conversão de uma página de produtos: o caminho anterior (Page.map com lambdas e listas
+ * sem capacidade inicial) e a conversão direta usada pelos serviços. Os valores dependem do JIT (escape analysis) e
+ * são publicados no relatório do JUnit, não verificados. Fica fora do mvn test padrão; uso: mvn -Pbenchmark test.
+ * O resultado da conversão é verificado em DtoMappingTests.
+ */
+@Tag("benchmark")
+public class DtoMappingAllocationBenchmarkTests {
+
+	private static final int PAGE_SIZE = 100;
+	private static final int WARMUP = 2000;
+	private static final int ITERATIONS = 2000;
+
+	private com.sun.management.ThreadMXBean threadBean;
+	private Page<Product> page;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		Assumptions.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+
+		List<Product> content = new ArrayList<>(PAGE_SIZE);
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			Product product = Factory.createProduct();
+			product.setId((long) i + 1);
+			product.getCategories().add(new Category(2L, "Books"));
+			product.getCategories().add(new Category(3L, "Computers"));
+			content.add(product);
+		}
+		page = new PageImpl<>(content, PageRequest.of(0, PAGE_SIZE), 1000);
+	}
+
+	@Test
+	public void measureAllocationPerPage(TestReporter reporter) {
+
+		long pageMap = bytesPerPage(() -> page.map(product -> {
+			ProductDTO dto = new ProductDTO(product);
+			product.getCategories().forEach(category -> dto.getCategories().add(new CategoryDTO(category)));
+			return dto;
+		}));
+		long direct = bytesPerPage(() -> {
+			List<ProductDTO> list = new ArrayList<>(page.getNumberOfElements());
+			for (Product product : page.getContent()) {
+				list.add(new ProductDTO(product, product.getCategories()));
+			}
+			return new PageDTO<>(page, list, page.getTotalElements(), false);
+		});
+
+		reporter.publishEntry("Page.map", pageMap + " bytes/page");
+		reporter.publishEntry("direct", direct + " bytes/page");
+	}
+
+	private long bytesPerPage(Supplier<Object> mapping) {
+		long threadId = Thread.currentThread().getId();
+		Object sink = null;
+		for (int i = 0; i < WARMUP; i++) {
+			sink = mapping.get();
+		}
+		long start = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < ITERATIONS; i++) {
+			sink = mapping.get();
+		}
+		long allocated = threadBean.getThreadAllocatedBytes(threadId) - start;
+		Assertions.assertNotNull(sink);
+		return allocated / ITERATIONS;
+	}
+}
@@ -0,0 +1,77 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import com.bookCatalog.bookcatalog.entities.Category;
+import com.bookCatalog.bookcatalog.entities.Product;
+import com.bookCatalog.bookcatalog.tests.Factory;
+
+public class DtoMappingTests {
+
+	private Product product;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		product = Factory.createProduct();
+		product.getCategories().add(new Category(3L, "Computers"));
+	}
+
+	@Test
+	public void productDTOShouldCopyFieldsAndCategoriesWhenCategoriesAreGiven() {
+
+		ProductDTO dto = new ProductDTO(product, product.getCategories());
+
+		Assertions.assertEquals(product.getId(), dto.getId());
+		Assertions.assertEquals(product.getName(), dto.getName());
+		Assertions.assertEquals(product.getDescription(), dto.getDescription());
+		Assertions.assertEquals(product.getPrice(), dto.getPrice());
+		Assertions.assertEquals(product.getImgUrl(), dto.getImgUrl());
+		Assertions.assertEquals(product.getDate(), dto.getDate());
+		Assertions.assertEquals(product.getCategories().size(), dto.getCategories().size());
+		for (Category category : product.getCategories()) {
+			Assertions.assertTrue(dto.getCategories().stream().anyMatch(
+					c -> c.getId().equals(category.getId()) && c.getName().equals(category.getName())));
+		}
+	}
+
+	@Test
+	public void pageDTOShouldKeepSourcePaginationWhenContentIsConverted() {
+
+		List<Product> entities = List.of(product);
+		List<ProductDTO> content = new ArrayList<>(entities.size());
+		for (Product entity : entities) {
+			content.add(new ProductDTO(entity, entity.getCategories()));
+		}
+
+		PageDTO<ProductDTO> result = new PageDTO<>(new PageImpl<>(entities, PageRequest.of(2, 10), 25), content, 25L,
+				false);
+
+		Assertions.assertSame(content, result.getContent());
+		Assertions.assertEquals(2, result.getPage());
+		Assertions.assertEquals(10, result.getSize());
+		Assertions.assertFalse(result.isHasNext());
+		Assertions.assertEquals(25L, result.getTotalElements());
+		Assertions.assertEquals(3, result.getTotalPages());
+		Assertions.assertFalse(result.getApproximate());
+	}
+
+	@Test
+	public void pageDTOShouldOmitTotalsWhenTotalIsUnknown() {
+
+		PageDTO<ProductDTO> result = new PageDTO<>(new SliceImpl<>(List.of(product), PageRequest.of(0, 1), true),
+				new ArrayList<>(), null, true);
+
+		Assertions.assertTrue(result.isHasNext());
+		Assertions.assertNull(result.getTotalElements());
+		Assertions.assertNull(result.getTotalPages());
+		Assertions.assertNull(result.getApproximate());
+	}
+}
@@ -0,0 +1,61 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.data.domain.PageImpl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Mede bytes trafegados e tempo de codificação/decodificação de JSON, CBOR e Smile para uma página de ProductDTO.
+ * Os tempos são apenas indicativos (sem isolamento de JIT/GC) e são publicados no relatório do JUnit, não verificados.
+ * Fica fora do mvn test padrão; uso: mvn -Pbenchmark test. A correção das codificações é verificada em
+ * SerializationFormatsTests.
+ */
+@Tag("benchmark")
+public class SerializationFormatsBenchmarkTests {
+
+	private static final int PAGE_SIZE = 100;
+	private static final int WARMUP = 200;
+	private static final int ITERATIONS = 1000;
+
+	private PageImpl<ProductDTO> page;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		page = SerializationFormatsTests.page(PAGE_SIZE);
+	}
+
+	@Test
+	public void measureEncodingAndDecoding(TestReporter reporter) throws Exception {
+
+		measure(reporter, "json", new JsonFactory());
+		measure(reporter, "cbor", new CBORFactory());
+		measure(reporter, "smile", new SmileFactory());
+	}
+
+	private void measure(TestReporter reporter, String format, JsonFactory factory) throws Exception {
+		ObjectMapper mapper = SerializationFormatsTests.mapper(factory);
+		byte[] bytes = null;
+		for (int i = 0; i < WARMUP; i++) {
+			bytes = mapper.writeValueAsBytes(page);
+			mapper.readTree(bytes);
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			bytes = mapper.writeValueAsBytes(page);
+		}
+		long encode = (System.nanoTime() - start) / ITERATIONS;
+		start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			mapper.readTree(bytes);
+		}
+		long decode = (System.nanoTime() - start) / ITERATIONS;
+		reporter.publishEntry(format, String.format("%d bytes, %d ns/encode, %d ns/decode", bytes.length, encode, decode));
+	}
+}
@@ -0,0 +1,68 @@
+package com.bookCatalog.bookcatalog.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.bookCatalog.bookcatalog.entities.Product;
+import com.bookCatalog.bookcatalog.tests.Factory;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+public class SerializationFormatsTests {
+
+	private PageImpl<ProductDTO> page;
+	private ObjectMapper json;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		page = page(10);
+		json = mapper(new JsonFactory());
+	}
+
+	@Test
+	public void cborShouldRoundTripToSameTreeAsJson() throws Exception {
+
+		assertRoundTrip(mapper(new CBORFactory()));
+	}
+
+	@Test
+	public void smileShouldRoundTripToSameTreeAsJson() throws Exception {
+
+		assertRoundTrip(mapper(new SmileFactory()));
+	}
+
+	private void assertRoundTrip(ObjectMapper binary) throws Exception {
+		byte[] jsonBytes = json.writeValueAsBytes(page);
+		byte[] binaryBytes = binary.writeValueAsBytes(page);
+
+		JsonNode expected = json.readTree(jsonBytes);
+		Assertions.assertEquals(expected, binary.readTree(binaryBytes));
+		Assertions.assertTrue(binaryBytes.length < jsonBytes.length);
+	}
+
+	static PageImpl<ProductDTO> page(int size) {
+		List<ProductDTO> content = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Product product = Factory.createProduct();
+			product.setId((long) i + 1);
+			content.add(new ProductDTO(product, product.getCategories()));
+		}
+		return new PageImpl<>(content, PageRequest.of(0, size), 1000);
+	}
+
+	static ObjectMapper mapper(JsonFactory factory) {
+		return Jackson2ObjectMapperBuilder.json().factory(factory)
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+	}
+}
@@ -0,0 +1,84 @@
+package com.bookCatalog.bookcatalog.resources;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.bookCatalog.bookcatalog.components.OutboxDispatcher;
+import com.bookCatalog.bookcatalog.services.OutboxService;
+
+@ExtendWith(SpringExtension.class)
+public class CatalogEventResourceTests {
+
+	@InjectMocks
+	private CatalogEventResource resource;
+
+	@Mock
+	private OutboxService service;
+
+	@Mock
+	private OutboxDispatcher dispatcher;
+
+	private Runnable cancel;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cancel = Mockito.mock(Runnable.class);
+		mockMvc = MockMvcBuilders.standaloneSetup(resource).build();
+
+		Mockito.when(dispatcher.getDispatchedOffset()).thenReturn(5L);
+		Mockito.when(service.findDispatched(5L, 5L, 100)).thenReturn(List.of());
+		Mockito.when(dispatcher.await(ArgumentMatchers.eq(5L), ArgumentMatchers.eq(100), ArgumentMatchers.any()))
+				.thenReturn(cancel);
+	}
+
+	@Test
+	public void eventsShouldReturnEmptyBatchWithSameOffsetWhenWaitTimesOut() throws Exception {
+
+		MvcResult result = mockMvc.perform(get("/catalog/events?after=5&waitSeconds=2"))
+				.andExpect(request().asyncStarted()).andReturn();
+		MockAsyncContext context = (MockAsyncContext) result.getRequest().getAsyncContext();
+		Assertions.assertEquals(2000L, context.getTimeout());
+
+		for (AsyncListener listener : context.getListeners()) {
+			listener.onTimeout(new AsyncEvent(context));
+		}
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.events").isEmpty())
+				.andExpect(jsonPath("$.nextOffset").value(5L));
+		Mockito.verify(cancel).run();
+	}
+
+	@Test
+	public void eventsShouldCapWaitAtMaximum() throws Exception {
+
+		MvcResult result = mockMvc.perform(get("/catalog/events?after=5&waitSeconds=3600"))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		Assertions.assertEquals(60000L, result.getRequest().getAsyncContext().getTimeout());
+	}
+}
@@ -1,7 +1,10 @@
 package com.bookCatalog.bookcatalog.resources;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -15,8 +18,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bookCatalog.bookcatalog.components.IdempotencyFilter;
+import com.bookCatalog.bookcatalog.components.JsonMergePatch;
 import com.bookCatalog.bookcatalog.dto.ProductDTO;
 import com.bookCatalog.bookcatalog.tests.Factory;
+import com.bookCatalog.bookcatalog.tests.TokenUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @SpringBootTest
@@ -30,15 +36,22 @@ public class ProductResourceIT {
 	@Autowired
 	private ObjectMapper objectMapper;
 	
+	@Autowired
+	private TokenUtil tokenUtil;
+	
 	private Long existingId;
 	private Long nonExistingId;
 	private Long countTotalProducts;
+	private String operatorUsername;
+	private String operatorPassword;
 	
 	@BeforeEach
 	void setUp() throws Exception {
 		existingId = 1L;
 		nonExistingId = 1000L;
 		countTotalProducts = 25L;
+		operatorUsername = "alex@gmail.com";
+		operatorPassword = "123456";
 	}
 	
 	@Test
@@ -56,10 +69,40 @@ public class ProductResourceIT {
 		result.andExpect(jsonPath("$.content[2].name").value("PC Gamer Alfa"));		
 	}
 	
+	@Test
+	public void findAllShouldReturnProductsInAllCategoriesWhenCategoryIdIsGiven() throws Exception {
+		
+		ResultActions result = 
+				mockMvc.perform(get("/products?categoryId=1&categoryId=3")
+					.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.totalElements").value(1L));
+		result.andExpect(jsonPath("$.content[0].id").value(2L));
+	}
+	
+	
+	@Test
+	public void facetsShouldCountCategoriesWithinFilterWhenCategoryIdIsGiven() throws Exception {
+		
+		ResultActions result = 
+				mockMvc.perform(get("/products/facets?categoryId=3")
+					.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.total").value(23));
+		result.andExpect(jsonPath("$.categories[0].name").value("Computadores"));
+		result.andExpect(jsonPath("$.categories[0].count").value(23));
+		result.andExpect(jsonPath("$.categories[1].count").value(0));
+		result.andExpect(jsonPath("$.categories[2].count").value(1));
+		result.andExpect(jsonPath("$.prices").isArray());
+	}
 	
 	@Test
 	public void updateShouldReturnProductDTOWhenIdExists() throws Exception {
 		
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, operatorUsername, operatorPassword);
+		
 		ProductDTO productDTO = Factory.createProductDTO();
 		String jsonBody = objectMapper.writeValueAsString(productDTO);
 		
@@ -68,6 +111,7 @@ public class ProductResourceIT {
 		
 		ResultActions result = 
 				mockMvc.perform(put("/products/{id}", existingId)
+					.header("Authorization", "Bearer " + accessToken)
 					.content(jsonBody)
 					.contentType(MediaType.APPLICATION_JSON)
 					.accept(MediaType.APPLICATION_JSON));
@@ -81,15 +125,123 @@ public class ProductResourceIT {
 	@Test
 	public void updateShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
 		
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, operatorUsername, operatorPassword);
+		
 		ProductDTO productDTO = Factory.createProductDTO();
 		String jsonBody = objectMapper.writeValueAsString(productDTO);
 		
 		ResultActions result = 
 				mockMvc.perform(put("/products/{id}", nonExistingId)
+					.header("Authorization", "Bearer " + accessToken)
 					.content(jsonBody)
 					.contentType(MediaType.APPLICATION_JSON)
 					.accept(MediaType.APPLICATION_JSON));
 		
 		result.andExpect(status().isNotFound());
 	}
+	
+	@Test
+	public void patchShouldChangeOnlyGivenFieldsWhenIdExists() throws Exception {
+		
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, operatorUsername, operatorPassword);
+		
+		ResultActions result = 
+				mockMvc.perform(patch("/products/{id}", existingId)
+					.header("Authorization", "Bearer " + accessToken)
+					.content("{\"price\": 100.0}")
+					.contentType(JsonMergePatch.MEDIA_TYPE)
+					.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.id").value(existingId));
+		result.andExpect(jsonPath("$.name").value("The Lord of the Rings"));
+		result.andExpect(jsonPath("$.price").value(100.0));
+	}
+	
+	@Test
+	public void patchShouldReturnUnprocessableEntityWhenResultIsInvalid() throws Exception {
+		
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, operatorUsername, operatorPassword);
+		
+		ResultActions result = 
+				mockMvc.perform(patch("/products/{id}", existingId)
+					.header("Authorization", "Bearer " + accessToken)
+					.content("{\"categories\": []}")
+					.contentType(JsonMergePatch.MEDIA_TYPE)
+					.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isUnprocessableEntity());
+		result.andExpect(jsonPath("$.errors[0].fieldName").value("categories"));
+	}
+	
+	@Test
+	public void patchShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+		
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, operatorUsername, operatorPassword);
+		
+		ResultActions result = 
+				mockMvc.perform(patch("/products/{id}", nonExistingId)
+					.header("Authorization", "Bearer " + accessToken)
+					.content("{\"price\": 100.0}")
+					.contentType(JsonMergePatch.MEDIA_TYPE)
+					.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isNotFound());
+	}
+	
+	@Test
+	public void insertShouldReplayResponseWhenIdempotencyKeyIsRepeated() throws Exception {
+		
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, operatorUsername, operatorPassword);
+		
+		String jsonBody = objectMapper.writeValueAsString(Factory.createProductDTO());
+		
+		String first = 
+				mockMvc.perform(post("/products")
+					.header("Authorization", "Bearer " + accessToken)
+					.header(IdempotencyFilter.HEADER, "create-phone")
+					.content(jsonBody)
+					.contentType(MediaType.APPLICATION_JSON)
+					.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		Long createdId = objectMapper.readTree(first).get("id").asLong();
+		
+		ResultActions result = 
+				mockMvc.perform(post("/products")
+					.header("Authorization", "Bearer " + accessToken)
+					.header(IdempotencyFilter.HEADER, "create-phone")
+					.content(jsonBody)
+					.contentType(MediaType.APPLICATION_JSON)
+					.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isCreated());
+		result.andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+		result.andExpect(jsonPath("$.id").value(createdId));
+	}
+	
+	@Test
+	public void insertShouldReturnUnprocessableEntityWhenIdempotencyKeyIsReusedWithOtherBody() throws Exception {
+		
+		String accessToken = tokenUtil.obtainAccessToken(mockMvc, operatorUsername, operatorPassword);
+		
+		ProductDTO productDTO = Factory.createProductDTO();
+		mockMvc.perform(post("/products")
+					.header("Authorization", "Bearer " + accessToken)
+					.header(IdempotencyFilter.HEADER, "create-other")
+					.content(objectMapper.writeValueAsString(productDTO))
+					.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isCreated());
+		productDTO.setName("Other Phone");
+		
+		ResultActions result = 
+				mockMvc.perform(post("/products")
+					.header("Authorization", "Bearer " + accessToken)
+					.header(IdempotencyFilter.HEADER, "create-other")
+					.content(objectMapper.writeValueAsString(productDTO))
+					.contentType(MediaType.APPLICATION_JSON)
+					.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isUnprocessableEntity());
+	}
 }
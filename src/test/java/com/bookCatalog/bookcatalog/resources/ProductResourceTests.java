@@ -4,26 +4,40 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import com.bookCatalog.bookcatalog.components.IdempotencyStore;
+import com.bookCatalog.bookcatalog.dto.PageDTO;
 import com.bookCatalog.bookcatalog.dto.ProductDTO;
 import com.bookCatalog.bookcatalog.services.ProductService;
 import com.bookCatalog.bookcatalog.services.exceptions.DatabaseException;
@@ -31,15 +45,28 @@ import com.bookCatalog.bookcatalog.services.exceptions.ResourceNotFoundException
 import com.bookCatalog.bookcatalog.tests.Factory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+// Os filtros de segurança ficam de fora: a autorização dos endpoints é verificada em ProductResourceIT.
 @WebMvcTest(ProductResource.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(BCryptPasswordEncoder.class)
 public class ProductResourceTests {
 
+	// Dependências do WebSecurityConfig, que o @WebMvcTest carrega, sem o AppConfig e seus componentes; o
+	// BCryptPasswordEncoder vem do @Import.
+
+	@MockBean
+	private UserDetailsService userDetailsService;
+
 	@Autowired
 	private MockMvc mockMvc;
 	
 	@MockBean
 	private ProductService service;
 	
+	// Dependência do IdempotencyFilter, que o @WebMvcTest registra por ser um Filter.
+	@MockBean
+	private IdempotencyStore idempotencyStore;
+	
 	@Autowired
 	private ObjectMapper objectMapper;
 	
@@ -59,7 +86,14 @@ public class ProductResourceTests {
 		productDTO = Factory.createProductDTO();
 		page = new PageImpl<>(List.of(productDTO));
 		
-		when(service.findAllPaged(any())).thenReturn(page);
+		when(service.findPage(any(), any())).thenReturn(new PageDTO<>(page));
+		when(service.findPageByCategories(any(), any(), any())).thenReturn(new PageDTO<>(page));
+
+		when(service.streamPage(any(), any())).thenAnswer(invocation -> {
+			Consumer<ProductDTO> action = invocation.getArgument(1);
+			action.accept(productDTO);
+			return 1;
+		});
 
 		when(service.findById(existingId)).thenReturn(productDTO);
 		when(service.findById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
@@ -152,6 +186,97 @@ public class ProductResourceTests {
 		result.andExpect(status().isOk());
 	}
 	
+	@Test
+	public void streamShouldWriteProductsWhenPageIsRequested() throws Exception {
+		
+		MvcResult started = 
+				mockMvc.perform(get("/products/stream?page=0&size=2000")
+					.accept(MediaType.APPLICATION_JSON))
+					.andExpect(request().asyncStarted())
+					.andReturn();
+		
+		ResultActions result = mockMvc.perform(asyncDispatch(started));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.size").value(2000));
+		result.andExpect(jsonPath("$.content[0].name").value(productDTO.getName()));
+	}
+	
+	@Test
+	public void findAllShouldReturnBadRequestWhenCountModeIsInvalid() throws Exception {
+		
+		ResultActions result = 
+				mockMvc.perform(get("/products?count=sometimes")
+					.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void findAllShouldFilterByCategoriesWhenCategoryIdIsGiven() throws Exception {
+		
+		ResultActions result = 
+				mockMvc.perform(get("/products?categoryId=1&categoryId=3")
+					.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content[0].name").value(productDTO.getName()));
+		verify(service).findPageByCategories(eq(List.of(1L, 3L)), any(), any());
+	}
+	
+	@Test
+	public void findAllShouldReturnBadRequestWhenSortPropertyIsNotIndexed() throws Exception {
+		
+		ResultActions result = 
+				mockMvc.perform(get("/products?sort=description")
+					.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void findAllShouldKeepIdOrderWhenSortIsNotGiven() throws Exception {
+		
+		ResultActions result = 
+				mockMvc.perform(get("/products")
+					.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		verify(service).findPage(eq(PageRequest.of(0, 24, Sort.by("id"))), any());
+	}
+	
+	@Test
+	public void streamShouldReturnBadRequestWhenSizeExceedsLimit() throws Exception {
+		
+		ResultActions result = 
+				mockMvc.perform(get("/products/stream?page=0&size=1000000")
+					.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void findAllShouldReturnCborWhenAcceptIsCbor() throws Exception {
+		
+		ResultActions result = 
+				mockMvc.perform(get("/products")
+					.accept(MediaType.APPLICATION_CBOR));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR));
+	}
+	
+	@Test
+	public void findAllShouldReturnJsonWhenAcceptIsAny() throws Exception {
+		
+		ResultActions result = 
+				mockMvc.perform(get("/products")
+					.accept(MediaType.ALL));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+	
 	@Test
 	public void findByIdShouldReturnProductWhenIdExists() throws Exception {
 		
@@ -0,0 +1,45 @@
+package com.bookCatalog.bookcatalog.resources;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class SuggestionResourceIT {
+
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@Test
+	public void suggestShouldIgnoreAccentsAndCaseWhenQueryIsPrefix() throws Exception {
+		
+		ResultActions result = 
+				mockMvc.perform(get("/catalog/suggestions?q=ELETRO")
+					.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$[0].type").value("category"));
+		result.andExpect(jsonPath("$[0].name").value("Eletrônicos"));
+	}
+	
+	@Test
+	public void suggestShouldMatchInnerWordsWhenQueryIsWordPrefix() throws Exception {
+		
+		ResultActions result = 
+				mockMvc.perform(get("/catalog/suggestions?q=gam&limit=50")
+					.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$[0].type").value("product"));
+		result.andExpect(jsonPath("$[0].name").value("PC Gamer"));
+	}
+}
@@ -0,0 +1,97 @@
+package com.bookCatalog.bookcatalog.services;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bookCatalog.bookcatalog.components.CatalogSnapshotStore;
+import com.bookCatalog.bookcatalog.dto.PageDTO;
+import com.bookCatalog.bookcatalog.dto.ProductDTO;
+import com.bookCatalog.bookcatalog.services.exceptions.ResourceNotFoundException;
+
+@SpringBootTest(properties = "catalog.snapshot.enabled=true")
+@Transactional
+public class CatalogSnapshotIT {
+
+	@Autowired
+	private ProductService service;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private CatalogSnapshotStore snapshots;
+
+	private Long existingId;
+	private PageRequest pageRequest;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		existingId = 1L;
+		pageRequest = PageRequest.of(0, 5, Sort.by("id"));
+		snapshots.rebuild();
+	}
+
+	@Test
+	public void findByIdShouldThrowResourceNotFoundExceptionAfterDeleteWhenSnapshotIsCurrent() {
+
+		Assertions.assertNotNull(snapshots.current(existingId));
+
+		service.delete(existingId);
+
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> service.findById(existingId));
+	}
+
+	@Test
+	public void findByIdShouldReturnUpdatedProductWhenSnapshotIsCurrent() {
+
+		ProductDTO dto = service.findById(existingId);
+		dto.setName("Updated product name");
+
+		service.update(existingId, dto);
+
+		Assertions.assertEquals("Updated product name", service.findById(existingId).getName());
+		Assertions.assertNotNull(snapshots.current(2L));
+	}
+
+	@Test
+	public void detachProductsShouldStopServingDetachedProductsFromSnapshot() {
+
+		Assertions.assertNotNull(snapshots.current(1L));
+		Assertions.assertNotNull(snapshots.current(5L));
+
+		categoryService.detachProducts(2L);
+
+		Assertions.assertNull(snapshots.current(1L));
+		Assertions.assertNull(snapshots.current(5L));
+		Assertions.assertNotNull(snapshots.current(3L));
+	}
+
+	@Test
+	public void findPageShouldReturnSameShapeFromSnapshotAndDatabase() {
+
+		Assertions.assertNotNull(snapshots.current());
+		PageDTO<ProductDTO> fromSnapshot = service.findPage(pageRequest, CountMode.NONE);
+
+		service.delete(5L);
+		Assertions.assertNull(snapshots.current());
+		PageDTO<ProductDTO> fromDatabase = service.findPage(pageRequest, CountMode.NONE);
+
+		Assertions.assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(fromSnapshot));
+		Assertions.assertEquals(List.of(1L, 2L, 3L, 4L, 6L), ids(fromDatabase));
+		Assertions.assertTrue(fromSnapshot.getContent().stream().allMatch(dto -> dto.getCategories().isEmpty()));
+		Assertions.assertTrue(fromDatabase.getContent().stream().allMatch(dto -> dto.getCategories().isEmpty()));
+	}
+
+	private static List<Long> ids(PageDTO<ProductDTO> page) {
+		return page.getContent().stream().map(ProductDTO::getId).collect(Collectors.toList());
+	}
+}
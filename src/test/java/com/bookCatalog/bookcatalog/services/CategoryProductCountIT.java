@@ -0,0 +1,103 @@
+package com.bookCatalog.bookcatalog.services;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bookCatalog.bookcatalog.dto.BulkCategoryUpdateDTO;
+import com.bookCatalog.bookcatalog.dto.CategoryDTO;
+import com.bookCatalog.bookcatalog.dto.ProductDTO;
+
+@SpringBootTest
+@Transactional
+public class CategoryProductCountIT {
+
+	@Autowired
+	private ProductService service;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	public void insertShouldIncrementCountOfEachCategory() {
+
+		int books = productCount(1L);
+		ProductDTO dto = new ProductDTO(null, "Dune", "Sci-fi classic", 55.0, null, null);
+		dto.getCategories().add(new CategoryDTO(1L, null));
+
+		service.insert(dto);
+
+		Assertions.assertEquals(books + 1, productCount(1L));
+		assertCountsMatchLinks();
+	}
+
+	@Test
+	public void updateShouldAdjustOnlyAddedAndRemovedCategories() {
+
+		int books = productCount(1L);
+		int electronics = productCount(2L);
+		int computers = productCount(3L);
+		ProductDTO dto = service.findById(2L);
+		dto.getCategories().clear();
+		dto.getCategories().add(new CategoryDTO(2L, null));
+		dto.getCategories().add(new CategoryDTO(3L, null));
+
+		service.update(2L, dto);
+
+		Assertions.assertEquals(books - 1, productCount(1L));
+		Assertions.assertEquals(electronics + 1, productCount(2L));
+		Assertions.assertEquals(computers, productCount(3L));
+		assertCountsMatchLinks();
+	}
+
+	@Test
+	public void deleteShouldDecrementCountOfEachCategory() {
+
+		int books = productCount(1L);
+		int computers = productCount(3L);
+
+		service.delete(2L);
+
+		Assertions.assertEquals(books - 1, productCount(1L));
+		Assertions.assertEquals(computers - 1, productCount(3L));
+		assertCountsMatchLinks();
+	}
+
+	@Test
+	public void updateCategoriesShouldAdjustCountsByChangedLinks() {
+
+		int books = productCount(1L);
+		int electronics = productCount(2L);
+		BulkCategoryUpdateDTO dto = new BulkCategoryUpdateDTO();
+		dto.setIds(List.of(1L, 2L, 5L));
+		dto.setAdd(1L);
+		dto.setRemove(2L);
+
+		service.updateCategories(dto);
+
+		// O produto 2 já estava na categoria 1 e não estava na 2: só os produtos 1 e 5 mudam.
+		Assertions.assertEquals(books + 2, productCount(1L));
+		Assertions.assertEquals(electronics - 2, productCount(2L));
+		assertCountsMatchLinks();
+	}
+
+	// Consulta escalar: lida do banco, e não das entidades Category já carregadas nesta transação.
+	private int productCount(Long categoryId) {
+		return entityManager.createQuery("SELECT c.productCount FROM Category c WHERE c.id = :id", Integer.class)
+				.setParameter("id", categoryId).getSingleResult();
+	}
+
+	private void assertCountsMatchLinks() {
+		entityManager.flush();
+		Number divergent = (Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM tb_category c "
+				+ "WHERE c.product_count <> (SELECT COUNT(*) FROM tb_product_category pc WHERE pc.category_id = c.id)")
+				.getSingleResult();
+		Assertions.assertEquals(0, divergent.intValue());
+	}
+}
@@ -0,0 +1,77 @@
+package com.bookCatalog.bookcatalog.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bookCatalog.bookcatalog.BookcatalogApplication;
+import com.bookCatalog.bookcatalog.components.InvalidationBus;
+import com.bookCatalog.bookcatalog.dto.ProductDTO;
+
+/**
+ * Duas instâncias da aplicação no mesmo banco H2, cada uma com seu próprio cache de segundo nível.
+ */
+public class InvalidationBusIT {
+
+	private static final String DATABASE = "jdbc:h2:mem:invalidationit;DB_CLOSE_DELAY=-1";
+
+	private ConfigurableApplicationContext nodeA;
+	private ConfigurableApplicationContext nodeB;
+
+	private Long existingId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		existingId = 1L;
+		nodeA = start("node-a");
+		nodeB = start("node-b",
+				"--spring.jpa.hibernate.ddl-auto=none",
+				"--spring.datasource.initialization-mode=never");
+	}
+
+	@AfterEach
+	void tearDown() {
+		nodeB.close();
+		nodeA.close();
+	}
+
+	@Test
+	public void updateOnOneNodeShouldInvalidateCachedProductOnOtherNode() throws Exception {
+
+		ProductService serviceA = nodeA.getBean(ProductService.class);
+		ProductService serviceB = nodeB.getBean(ProductService.class);
+		nodeB.getBean(InvalidationBus.class).poll();
+
+		ProductDTO dto = serviceB.findById(existingId);
+		String expectedName = "Updated product name";
+		dto.setName(expectedName);
+		serviceA.update(existingId, dto);
+
+		long deadline = System.currentTimeMillis() + 10000;
+		while (!expectedName.equals(serviceB.findById(existingId).getName()) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+
+		Assertions.assertEquals(expectedName, serviceB.findById(existingId).getName());
+	}
+
+	private static ConfigurableApplicationContext start(String nodeId, String... extraArgs) {
+		// Mesmo ehcache.xml por um URI distinto: o provedor JCache cria um CacheManager por URI, um por nó. Nenhum nó
+		// usa o URI padrão, cujo CacheManager é compartilhado com os contextos dos demais testes e seria fechado aqui.
+		String cacheUri = InvalidationBusIT.class.getResource("/ehcache.xml") + "#" + nodeId;
+		String[] common = {
+				"--spring.datasource.url=" + DATABASE,
+				"--spring.jpa.properties.hibernate.javax.cache.uri=" + cacheUri,
+				"--server.port=0",
+				"--catalog.node-id=" + nodeId,
+				"--catalog.invalidation.flush-ms=50",
+				"--catalog.invalidation.poll-ms=50" };
+		String[] args = new String[common.length + extraArgs.length];
+		System.arraycopy(common, 0, args, 0, common.length);
+		System.arraycopy(extraArgs, 0, args, common.length, extraArgs.length);
+		return new SpringApplicationBuilder(BookcatalogApplication.class).run(args);
+	}
+}
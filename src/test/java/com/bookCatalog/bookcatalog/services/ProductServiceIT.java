@@ -1,5 +1,15 @@
 package com.bookCatalog.bookcatalog.services;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,10 +18,21 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.bookCatalog.bookcatalog.dto.BulkCategoryUpdateDTO;
+import com.bookCatalog.bookcatalog.dto.BulkPriceUpdateDTO;
+import com.bookCatalog.bookcatalog.dto.BulkUpdateResultDTO;
 import com.bookCatalog.bookcatalog.dto.ProductDTO;
+import com.bookCatalog.bookcatalog.entities.Category;
+import com.bookCatalog.bookcatalog.entities.Role;
 import com.bookCatalog.bookcatalog.repositories.ProductRepository;
+import com.bookCatalog.bookcatalog.services.exceptions.BadRequestException;
 import com.bookCatalog.bookcatalog.services.exceptions.ResourceNotFoundException;
 
 @SpringBootTest
@@ -24,6 +45,12 @@ public class ProductServiceIT {
 	@Autowired
 	private ProductRepository repository;
 	
+	@Autowired
+	private EntityManager entityManager;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
 	private Long existingId;
 	private Long nonExistingId;
 	private Long countTotalProducts;
@@ -51,6 +78,85 @@ public class ProductServiceIT {
 		});
 	}
 	
+	@Test
+	public void findByIdShouldHitSecondLevelCacheWhenProductWasLoaded() {
+		
+		// Cada busca em uma transação própria: dentro da transação do teste a segunda viria do contexto de persistência.
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		boolean enabled = statistics.isStatisticsEnabled();
+		statistics.setStatisticsEnabled(true);
+		try {
+			transaction.execute(status -> service.findById(existingId));
+			long hits = statistics.getDomainDataRegionStatistics("product").getHitCount();
+			
+			transaction.execute(status -> service.findById(existingId));
+			
+			Assertions.assertTrue(statistics.getDomainDataRegionStatistics("product").getHitCount() > hits);
+		}
+		finally {
+			statistics.setStatisticsEnabled(enabled);
+		}
+	}
+	
+	@Test
+	public void deleteShouldKeepUnrelatedCategoriesAndRolesInSecondLevelCache() {
+		
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		Cache cache = entityManager.getEntityManagerFactory().getCache();
+		transaction.execute(status -> entityManager.find(Category.class, 1L));
+		transaction.execute(status -> entityManager.find(Role.class, 1L));
+		Assertions.assertTrue(cache.contains(Category.class, 1L));
+		Assertions.assertTrue(cache.contains(Role.class, 1L));
+		
+		// O produto 3 pertence apenas à categoria 3; desfaz a exclusão para não alterar os dados da carga inicial.
+		transaction.executeWithoutResult(status -> {
+			service.delete(3L);
+			status.setRollbackOnly();
+		});
+		
+		Assertions.assertTrue(cache.contains(Category.class, 1L));
+		Assertions.assertTrue(cache.contains(Role.class, 1L));
+	}
+	
+	@Test
+	public void findPageByCategoriesShouldReturnSamePageFromDatabaseBeyondSortIndexLimit() {
+		
+		PageRequest pageRequest = PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "price"));
+		ProductService target = AopTestUtils.getTargetObject(service);
+		long limit = (long) ReflectionTestUtils.getField(target, "maxFilteredOffset");
+		
+		List<Long> fromIndex = ids(service.findPageByCategories(List.of(3L), pageRequest, CountMode.NONE).getContent());
+		ReflectionTestUtils.setField(target, "maxFilteredOffset", 0L);
+		try {
+			// Categorias repetidas contam uma vez no filtro do banco, como na interseção dos bitmaps.
+			List<Long> fromDatabase = ids(
+					service.findPageByCategories(List.of(3L, 3L), pageRequest, CountMode.NONE).getContent());
+			
+			Assertions.assertEquals(5, fromIndex.size());
+			Assertions.assertEquals(fromIndex, fromDatabase);
+		}
+		finally {
+			ReflectionTestUtils.setField(target, "maxFilteredOffset", limit);
+		}
+	}
+	
+	@Test
+	public void streamPageShouldDeliverWholePageInOrderWhenSortByName() {
+		
+		PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("name"));
+		List<ProductDTO> result = new ArrayList<>();
+		
+		int count = service.streamPage(pageRequest, result::add);
+		
+		Assertions.assertEquals(10, count);
+		Assertions.assertEquals(10, result.size());
+		Assertions.assertEquals("Macbook Pro", result.get(0).getName());
+		Assertions.assertEquals("PC Gamer", result.get(1).getName());
+	}
+	
 	@Test
 	public void findAllPagedShouldReturnPageWhenPage0Size10() {
 		
@@ -86,4 +192,64 @@ public class ProductServiceIT {
 		Assertions.assertEquals("PC Gamer", result.getContent().get(1).getName());
 		Assertions.assertEquals("PC Gamer Alfa", result.getContent().get(2).getName());		
 	}
+	
+	@Test
+	public void updatePricesShouldApplyPercentWhenIdsAreGiven() {
+		
+		BulkPriceUpdateDTO dto = new BulkPriceUpdateDTO();
+		dto.setIds(List.of(2L, nonExistingId));
+		dto.setOperation(BulkPriceUpdateDTO.Operation.PERCENT);
+		dto.setValue(-10.0);
+		
+		BulkUpdateResultDTO result = service.updatePrices(dto);
+		
+		Assertions.assertEquals(1, result.getAffected());
+		Assertions.assertEquals(List.of(2L), result.getUpdated());
+		Assertions.assertEquals(1971.0, repository.findById(2L).get().getPrice());
+	}
+	
+	@Test
+	public void updatePricesShouldThrowBadRequestExceptionWhenPriceWouldBeNegative() {
+		
+		BulkPriceUpdateDTO dto = new BulkPriceUpdateDTO();
+		dto.setCategoryId(3L);
+		dto.setOperation(BulkPriceUpdateDTO.Operation.ADD);
+		dto.setValue(-100000.0);
+		
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			service.updatePrices(dto);
+		});
+	}
+	
+	@Test
+	public void updateCategoriesShouldThrowBadRequestExceptionWhenIdsContainNull() {
+		
+		BulkCategoryUpdateDTO dto = new BulkCategoryUpdateDTO();
+		dto.setIds(Arrays.asList(1L, null));
+		dto.setAdd(1L);
+		
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			service.updateCategories(dto);
+		});
+	}
+	
+	@Test
+	public void updateCategoriesShouldChangeOnlyMissingOrExistingLinks() {
+		
+		BulkCategoryUpdateDTO dto = new BulkCategoryUpdateDTO();
+		dto.setIds(List.of(1L, 2L));
+		dto.setAdd(1L);
+		dto.setRemove(2L);
+		
+		BulkUpdateResultDTO result = service.updateCategories(dto);
+		
+		Assertions.assertEquals(List.of(1L), result.getUpdated());
+		Assertions.assertEquals(List.of(1L, 2L), repository.findIdsByCategory(1L));
+		// O produto 5 também está na categoria 2 e não fazia parte da alteração.
+		Assertions.assertEquals(List.of(5L), repository.findIdsByCategory(2L));
+	}
+	
+	private static List<Long> ids(List<ProductDTO> products) {
+		return products.stream().map(ProductDTO::getId).collect(Collectors.toList());
+	}
 }
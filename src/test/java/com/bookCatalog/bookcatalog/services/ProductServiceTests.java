@@ -2,28 +2,52 @@ package com.bookCatalog.bookcatalog.services;
 
 import static org.mockito.Mockito.times;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.bookCatalog.bookcatalog.components.CatalogSnapshotStore;
+import com.bookCatalog.bookcatalog.components.CategoryCounters;
+import com.bookCatalog.bookcatalog.components.ImagePipeline;
+import com.bookCatalog.bookcatalog.components.InvalidationBus;
+import com.bookCatalog.bookcatalog.components.JsonMergePatch;
+import com.bookCatalog.bookcatalog.components.NameSuggester;
+import com.bookCatalog.bookcatalog.components.PageCounts;
+import com.bookCatalog.bookcatalog.components.ProductCategoryIndex;
+import com.bookCatalog.bookcatalog.components.ProductFacetIndex;
+import com.bookCatalog.bookcatalog.components.ProductSortIndex;
+import com.bookCatalog.bookcatalog.components.SecondLevelCache;
+import com.bookCatalog.bookcatalog.dto.PageDTO;
+import com.bookCatalog.bookcatalog.dto.ProductChangesDTO;
 import com.bookCatalog.bookcatalog.dto.ProductDTO;
 import com.bookCatalog.bookcatalog.entities.Product;
+import com.bookCatalog.bookcatalog.entities.ProductTombstone;
+import com.bookCatalog.bookcatalog.repositories.CategoryRepository;
 import com.bookCatalog.bookcatalog.repositories.ProductRepository;
+import com.bookCatalog.bookcatalog.repositories.ProductTombstoneRepository;
+import com.bookCatalog.bookcatalog.services.exceptions.BadRequestException;
 import com.bookCatalog.bookcatalog.services.exceptions.DatabaseException;
 import com.bookCatalog.bookcatalog.services.exceptions.ResourceNotFoundException;
 import com.bookCatalog.bookcatalog.tests.Factory;
@@ -37,11 +61,54 @@ public class ProductServiceTests {
 	@Mock
 	private ProductRepository repository;
 	
+	@Mock
+	private CategoryRepository categoryRepository;
+	
+	@Mock
+	private OutboxService outboxService;
+	
+	@Mock
+	private ProductTombstoneRepository tombstoneRepository;
+	
+	@Mock
+	private PageCounts pageCounts;
+	
+	@Mock
+	private InvalidationBus invalidationBus;
+	
+	@Mock
+	private SecondLevelCache secondLevelCache;
+	
+	@Mock
+	private CategoryCounters categoryCounters;
+	
+	@Mock
+	private ProductSortIndex sortIndex;
+	
+	@Mock
+	private CatalogSnapshotStore snapshots;
+	
+	@Mock
+	private ProductCategoryIndex categoryIndex;
+	
+	@Mock
+	private ProductFacetIndex facetIndex;
+	
+	@Mock
+	private NameSuggester suggester;
+	
+	@Mock
+	private JsonMergePatch mergePatch;
+	
+	@Mock
+	private ImagePipeline images;
+	
 	private long existingId;
 	private long nonExistingId;
 	private long dependentId;
 	private Product product;
 	private PageImpl<Product> page;
+	private Instant databaseNow;
 	
 	@BeforeEach
 	void setUp() throws Exception {
@@ -50,17 +117,46 @@ public class ProductServiceTests {
 		dependentId = 3L;
 		product = Factory.createProduct();
 		page = new PageImpl<>(List.of(product));
+		databaseNow = Instant.parse("2021-06-01T12:00:00Z");
 		
+		Mockito.when(repository.currentTimestamp()).thenReturn(Timestamp.from(databaseNow));
+
 		Mockito.when(repository.findAll((Pageable)ArgumentMatchers.any())).thenReturn(page);
+		Mockito.when(repository.findSliceBy(ArgumentMatchers.any())).thenReturn(new SliceImpl<>(List.of(product)));
 		
 		Mockito.when(repository.save(ArgumentMatchers.any())).thenReturn(product);
 		
 		Mockito.when(repository.findById(existingId)).thenReturn(Optional.of(product));
 		Mockito.when(repository.findById(nonExistingId)).thenReturn(Optional.empty());
 		
-		Mockito.doNothing().when(repository).deleteById(existingId);
-		Mockito.doThrow(EmptyResultDataAccessException.class).when(repository).deleteById(nonExistingId);
-		Mockito.doThrow(DataIntegrityViolationException.class).when(repository).deleteById(dependentId);
+		Mockito.when(repository.findCategoryIds(existingId)).thenReturn(List.of(2L));
+		Mockito.when(repository.deleteDirectlyById(existingId)).thenReturn(1);
+		Mockito.when(repository.deleteDirectlyById(nonExistingId)).thenReturn(0);
+		Mockito.when(repository.deleteDirectlyById(dependentId)).thenThrow(DataIntegrityViolationException.class);
+		
+		Mockito.when(repository.findChangedSince(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(List.of(product));
+		Mockito.when(tombstoneRepository.findDeletedSince(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(List.of());
+		
+		Mockito.when(images.decorate(ArgumentMatchers.any())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+	
+	@Test
+	public void findChangesShouldReturnFullResyncWhenTokenIsNull() {
+		
+		ProductChangesDTO result = service.findChanges(null, 10);
+		
+		Assertions.assertTrue(result.isFullResync());
+		Assertions.assertFalse(result.isHasMore());
+		Assertions.assertEquals(1, result.getUpdated().size());
+		Assertions.assertNotNull(result.getNextToken());
+	}
+	
+	@Test
+	public void findChangesShouldThrowBadRequestExceptionWhenTokenIsInvalid() {
+		
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			service.findChanges("not-a-token", 10);
+		});
 	}
 
 	@Test
@@ -75,6 +171,93 @@ public class ProductServiceTests {
 		Mockito.verify(repository, times(1)).findAll(pageable);
 	}
 	
+	@Test
+	public void findPageShouldNotCountWhenCountModeIsNone() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		
+		PageDTO<ProductDTO> result = service.findPage(pageable, CountMode.NONE);
+		
+		Assertions.assertEquals(1, result.getContent().size());
+		Assertions.assertNull(result.getTotalElements());
+		Mockito.verify(repository, times(1)).findSliceBy(pageable);
+		Mockito.verify(repository, Mockito.never()).count();
+	}
+	
+	@Test
+	public void findPageShouldFetchIdsFromSortIndexWhenSortIsIndexed() {
+		
+		Pageable pageable = PageRequest.of(0, 12, Sort.by("price"));
+		Mockito.when(sortIndex.supports(pageable.getSort())).thenReturn(true);
+		Mockito.when(sortIndex.page(pageable.getSort(), 0L, 13)).thenReturn(List.of(existingId));
+		Mockito.when(sortIndex.size()).thenReturn(1L);
+		Mockito.when(repository.findAllById(List.of(existingId))).thenReturn(List.of(product));
+		
+		PageDTO<ProductDTO> result = service.findPage(pageable, CountMode.EXACT);
+		
+		Assertions.assertEquals(1, result.getContent().size());
+		Assertions.assertEquals(1L, result.getTotalElements());
+		Assertions.assertTrue(result.getApproximate());
+		Mockito.verify(repository, Mockito.never()).findAll(pageable);
+		Mockito.verify(repository, Mockito.never()).count();
+	}
+	
+	@Test
+	public void findPageByCategoriesShouldCountFromCategoryIndex() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		BitSet products = new BitSet();
+		products.set((int) existingId);
+		Mockito.when(categoryIndex.productsInAll(List.of(2L))).thenReturn(products);
+		Mockito.when(repository.findAllById(List.of(existingId))).thenReturn(List.of(product));
+		
+		PageDTO<ProductDTO> result = service.findPageByCategories(List.of(2L), pageable, CountMode.EXACT);
+		
+		Assertions.assertEquals(1, result.getContent().size());
+		Assertions.assertEquals(1L, result.getTotalElements());
+		Assertions.assertTrue(result.getApproximate());
+		Assertions.assertFalse(result.isHasNext());
+		Mockito.verify(repository, Mockito.never()).count();
+	}
+	
+	@Test
+	public void findPageByCategoriesShouldQueryDatabaseWhenOffsetIsBeyondSortIndexLimit() {
+		
+		ReflectionTestUtils.setField(service, "maxFilteredOffset", 10L);
+		Pageable pageable = PageRequest.of(2, 12, Sort.by("name"));
+		Mockito.when(categoryIndex.productsInAll(List.of(2L))).thenReturn(new BitSet());
+		Mockito.when(sortIndex.supports(pageable.getSort())).thenReturn(true);
+		Mockito.when(repository.findInAllCategories(ArgumentMatchers.eq(Set.of(2L)), ArgumentMatchers.eq(1L), ArgumentMatchers.any()))
+				.thenReturn(new SliceImpl<>(List.of(product)));
+		
+		PageDTO<ProductDTO> result = service.findPageByCategories(List.of(2L), pageable, CountMode.NONE);
+		
+		Assertions.assertEquals(1, result.getContent().size());
+		Mockito.verify(sortIndex, Mockito.never()).page(ArgumentMatchers.any(), ArgumentMatchers.any(BitSet.class),
+				ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt());
+	}
+	
+	@Test
+	public void findPageByCategoriesShouldThrowBadRequestExceptionWhenSortIsNotIndexed() {
+		
+		Pageable pageable = PageRequest.of(0, 12, Sort.by("updatedAt"));
+		Mockito.when(categoryIndex.productsInAll(List.of(2L))).thenReturn(new BitSet());
+		
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			service.findPageByCategories(List.of(2L), pageable, CountMode.EXACT);
+		});
+	}
+	
+	@Test
+	public void findByIdShouldRecordViewOnlyWhenIdExists() {
+		
+		service.findById(existingId);
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> service.findById(nonExistingId));
+		
+		Mockito.verify(suggester).recordView(existingId);
+		Mockito.verify(suggester, Mockito.never()).recordView(nonExistingId);
+	}
+	
 	@Test
 	public void deleteShouldThrowDatabaseExceptionWhenDependentId() {
 		
@@ -82,7 +265,7 @@ public class ProductServiceTests {
 			service.delete(dependentId);
 		});
 		
-		Mockito.verify(repository, times(1)).deleteById(dependentId);
+		Mockito.verify(repository, times(1)).deleteDirectlyById(dependentId);
 	}
 	
 	@Test
@@ -92,7 +275,17 @@ public class ProductServiceTests {
 			service.delete(nonExistingId);
 		});
 
-		Mockito.verify(repository, times(1)).deleteById(nonExistingId);
+		Mockito.verify(repository, times(1)).deleteDirectlyById(nonExistingId);
+	}
+	
+	@Test
+	public void deleteShouldStampTombstoneWithDatabaseClock() {
+		
+		service.delete(existingId);
+		
+		ArgumentCaptor<ProductTombstone> tombstone = ArgumentCaptor.forClass(ProductTombstone.class);
+		Mockito.verify(tombstoneRepository).save(tombstone.capture());
+		Assertions.assertEquals(databaseNow, tombstone.getValue().getDeletedAt());
 	}
 	
 	@Test
@@ -102,6 +295,10 @@ public class ProductServiceTests {
 			service.delete(existingId);
 		});
 		
-		Mockito.verify(repository, times(1)).deleteById(existingId);
+		Mockito.verify(repository, times(1)).deleteCategoryLinks(existingId);
+		Mockito.verify(repository, times(1)).deleteDirectlyById(existingId);
+		Mockito.verify(repository, Mockito.never()).deleteById(existingId);
+		Mockito.verify(tombstoneRepository, times(1)).save(ArgumentMatchers.any());
+		Mockito.verify(categoryCounters, times(1)).adjust(List.of(2L), -1);
 	}
 }